@@ -0,0 +1,86 @@
+package ch.jalu.injector.processor;
+
+import javax.annotation.Nullable;
+import javax.annotation.processing.Messager;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static ch.jalu.injector.processor.InjectableTypeAnalyzer.INJECT;
+import static ch.jalu.injector.processor.InjectableTypeAnalyzer.isAnnotationOfType;
+
+/**
+ * Reports cyclic dependencies among injectable types, which the injector's {@code CyclicDependenciesDetector}
+ * otherwise detects at runtime. Only dependencies which the injector resolves by instantiating an injectable
+ * type are considered, i.e. dependencies without annotations whose type is an injectable class.
+ */
+final class CyclicDependencyChecker {
+
+    private final Types types;
+    private final Messager messager;
+    private final Set<String> visitedTypes = new HashSet<>();
+    private final Set<Set<String>> reportedCycles = new HashSet<>();
+
+    CyclicDependencyChecker(Types types, Messager messager) {
+        this.types = types;
+        this.messager = messager;
+    }
+
+    /**
+     * Reports all cycles among the given types as error.
+     *
+     * @param injectableTypes the injectable types, by qualified name
+     */
+    void checkForCycles(Map<String, InjectableType> injectableTypes) {
+        for (String type : injectableTypes.keySet()) {
+            visit(type, injectableTypes, new ArrayList<>());
+        }
+    }
+
+    private void visit(String type, Map<String, InjectableType> injectableTypes, List<String> path) {
+        int index = path.indexOf(type);
+        if (index >= 0) {
+            reportCycle(path.subList(index, path.size()), injectableTypes.get(type).getType());
+            return;
+        } else if (!visitedTypes.add(type)) {
+            // All cycles reachable from the type have already been reported
+            return;
+        }
+
+        path.add(type);
+        for (VariableElement dependency : injectableTypes.get(type).getDependencies()) {
+            String dependencyType = getInstantiatedType(dependency);
+            if (dependencyType != null && injectableTypes.containsKey(dependencyType)) {
+                visit(dependencyType, injectableTypes, path);
+            }
+        }
+        path.remove(path.size() - 1);
+    }
+
+    @Nullable
+    private String getInstantiatedType(VariableElement dependency) {
+        TypeMirror type = dependency.asType();
+        if (type.getKind() != TypeKind.DECLARED
+            || !dependency.getAnnotationMirrors().stream().allMatch(mirror -> isAnnotationOfType(mirror, INJECT))) {
+            return null;
+        }
+        return ((TypeElement) types.asElement(type)).getQualifiedName().toString();
+    }
+
+    private void reportCycle(List<String> cycle, Element element) {
+        if (reportedCycles.add(new TreeSet<>(cycle))) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Found cyclic dependency: "
+                + String.join(" -> ", cycle) + " -> " + cycle.get(0), element);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package ch.jalu.injector.processor;
+
+import javax.annotation.Nullable;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class which the injector can instantiate, as determined by the {@link InjectableTypeAnalyzer}.
+ */
+final class InjectableType {
+
+    private final TypeElement type;
+    private final ExecutableElement constructor;
+    private final List<VariableElement> fields;
+    private final List<ExecutableElement> postConstructMethods;
+    private final String nonGeneratableReason;
+
+    /**
+     * Constructor.
+     *
+     * @param type the class
+     * @param constructor the constructor to instantiate the class with
+     * @param fields the fields to inject, in the order the injector injects them
+     * @param postConstructMethods the {@code @PostConstruct} methods, in the order they are invoked
+     * @param nonGeneratableReason the reason why no code can be generated for the class, null if there is none
+     */
+    InjectableType(TypeElement type, ExecutableElement constructor, List<VariableElement> fields,
+                   List<ExecutableElement> postConstructMethods, @Nullable String nonGeneratableReason) {
+        this.type = type;
+        this.constructor = constructor;
+        this.fields = fields;
+        this.postConstructMethods = postConstructMethods;
+        this.nonGeneratableReason = nonGeneratableReason;
+    }
+
+    TypeElement getType() {
+        return type;
+    }
+
+    ExecutableElement getConstructor() {
+        return constructor;
+    }
+
+    List<VariableElement> getFields() {
+        return fields;
+    }
+
+    List<ExecutableElement> getPostConstructMethods() {
+        return postConstructMethods;
+    }
+
+    /**
+     * @return all elements whose type is a dependency: the constructor parameters followed by the fields
+     */
+    List<VariableElement> getDependencies() {
+        List<VariableElement> dependencies = new ArrayList<>(constructor.getParameters());
+        dependencies.addAll(fields);
+        return dependencies;
+    }
+
+    boolean isGeneratable() {
+        return nonGeneratableReason == null;
+    }
+
+    @Nullable
+    String getNonGeneratableReason() {
+        return nonGeneratableReason;
+    }
+}
@@ -0,0 +1,329 @@
+package ch.jalu.injector.processor;
+
+import javax.annotation.Nullable;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Determines how the injector instantiates a class and validates it the same way as the injector's
+ * {@code DefaultInjectionProvider} and {@code PostConstructMethodInvoker} do at runtime. Violations are
+ * reported as compilation errors.
+ */
+final class InjectableTypeAnalyzer {
+
+    static final String INJECT = "javax.inject.Inject";
+    static final String POST_CONSTRUCT = "javax.annotation.PostConstruct";
+    private static final String NO_FIELD_SCAN = "ch.jalu.injector.annotations.NoFieldScan";
+    private static final String NO_METHOD_SCAN = "ch.jalu.injector.annotations.NoMethodScan";
+
+    private final Elements elements;
+    private final Types types;
+    private final Messager messager;
+    private final Set<String> reportedErrors = new HashSet<>();
+
+    InjectableTypeAnalyzer(ProcessingEnvironment processingEnv) {
+        this.elements = processingEnv.getElementUtils();
+        this.types = processingEnv.getTypeUtils();
+        this.messager = processingEnv.getMessager();
+    }
+
+    /**
+     * Analyzes the given class. Returns null if the class is not relevant for injection, i.e. it cannot be
+     * instantiated, it has no {@code @Inject} members or {@code @PostConstruct} methods, or it is invalid.
+     *
+     * @param type the class to process
+     * @return the injectable type, or null if not applicable
+     */
+    @Nullable
+    InjectableType analyze(TypeElement type) {
+        if (!isInstantiable(type)) {
+            return null;
+        }
+
+        List<TypeElement> hierarchy = getClassHierarchy(type);
+        List<VariableElement> fields = new ArrayList<>();
+        List<ExecutableElement> postConstructMethods = new ArrayList<>();
+        boolean isRelevant = false;
+        for (TypeElement currentClass : hierarchy) {
+            if (!hasAnnotation(currentClass, NO_FIELD_SCAN)) {
+                for (VariableElement field : ElementFilter.fieldsIn(currentClass.getEnclosedElements())) {
+                    if (hasAnnotation(field, INJECT)) {
+                        fields.add(field);
+                    }
+                }
+            }
+            if (!hasAnnotation(currentClass, NO_METHOD_SCAN)) {
+                ExecutableElement postConstructMethod = getPostConstructMethod(currentClass);
+                if (postConstructMethod != null) {
+                    // Methods of parents are invoked first
+                    postConstructMethods.add(0, postConstructMethod);
+                }
+                isRelevant |= postConstructMethod != null || hasInjectMethod(currentClass);
+            }
+        }
+
+        ExecutableElement constructor = getInjectionConstructor(type);
+        isRelevant |= !fields.isEmpty() || constructor != null && hasAnnotation(constructor, INJECT);
+        if (!isRelevant || constructor == null || !isValid(type, hierarchy, constructor, fields)) {
+            return null;
+        }
+        return new InjectableType(type, constructor, fields, postConstructMethods,
+            getNonGeneratableReason(type, constructor, fields, postConstructMethods));
+    }
+
+    private static boolean isInstantiable(TypeElement type) {
+        return type.getKind() == ElementKind.CLASS
+            && !type.getModifiers().contains(Modifier.ABSTRACT)
+            && (type.getNestingKind() == NestingKind.TOP_LEVEL
+                || type.getNestingKind() == NestingKind.MEMBER && type.getModifiers().contains(Modifier.STATIC));
+    }
+
+    private List<TypeElement> getClassHierarchy(TypeElement type) {
+        List<TypeElement> hierarchy = new ArrayList<>();
+        TypeElement currentClass = type;
+        while (currentClass != null) {
+            hierarchy.add(currentClass);
+            TypeMirror superclass = currentClass.getSuperclass();
+            currentClass = superclass.getKind() == TypeKind.DECLARED
+                ? (TypeElement) types.asElement(superclass)
+                : null;
+        }
+        return hierarchy;
+    }
+
+    // -------------
+    // Constructor
+    // -------------
+
+    /*
+     * Mirrors StandardInjectionProvider#getInjectionConstructor.
+     */
+    @Nullable
+    private ExecutableElement getInjectionConstructor(TypeElement type) {
+        List<ExecutableElement> constructors = ElementFilter.constructorsIn(type.getEnclosedElements());
+        if (constructors.size() == 1 && isSuitableNoArgsConstructor(constructors.get(0), type)) {
+            return constructors.get(0);
+        }
+
+        ExecutableElement matchingConstructor = null;
+        for (ExecutableElement constructor : constructors) {
+            if (hasAnnotation(constructor, INJECT)) {
+                if (matchingConstructor != null) {
+                    reportError("Class '" + type + "' may not have multiple @Inject constructors", constructor);
+                    return null;
+                }
+                matchingConstructor = constructor;
+            }
+        }
+
+        if (matchingConstructor == null && !hasAnnotation(type, NO_FIELD_SCAN)
+            && ElementFilter.fieldsIn(type.getEnclosedElements()).stream().anyMatch(f -> hasAnnotation(f, INJECT))) {
+            return constructors.stream()
+                .filter(constr -> constr.getParameters().isEmpty())
+                .findFirst().orElse(null);
+        }
+        return matchingConstructor;
+    }
+
+    private static boolean isSuitableNoArgsConstructor(ExecutableElement constructor, TypeElement type) {
+        return constructor.getParameters().isEmpty()
+            && (!constructor.getModifiers().contains(Modifier.PRIVATE)
+                || type.getModifiers().contains(Modifier.PRIVATE));
+    }
+
+    // -------------
+    // Validation
+    // -------------
+
+    /*
+     * Mirrors the validation of DefaultInjectionProvider and PostConstructMethodInvoker.
+     */
+    private boolean isValid(TypeElement type, List<TypeElement> hierarchy, ExecutableElement constructor,
+                            List<VariableElement> fields) {
+        boolean isValid = true;
+        final boolean hasConstructorInjection = hasAnnotation(constructor, INJECT);
+        for (VariableElement field : fields) {
+            if (field.getModifiers().contains(Modifier.FINAL)) {
+                isValid = reportError("Field '" + toString(field) + "' may not be final and have @Inject", field);
+            }
+            if (field.getModifiers().contains(Modifier.STATIC)) {
+                isValid = reportError("@Inject may not be placed on static fields (found violation: '"
+                    + toString(field) + "')", field);
+            }
+            if (hasConstructorInjection && field.getEnclosingElement().equals(type)) {
+                isValid = reportError("Class '" + type + "' may not have @Inject constructor and @Inject fields. "
+                    + "Pass the fields via the constructor as well or remove the @Inject constructor", field);
+            }
+        }
+
+        for (TypeElement currentClass : hierarchy) {
+            if (hasAnnotation(currentClass, NO_METHOD_SCAN)) {
+                continue;
+            }
+            for (ExecutableElement method : ElementFilter.methodsIn(currentClass.getEnclosedElements())) {
+                if (hasAnnotation(method, INJECT)) {
+                    isValid = reportError("@Inject on methods is not supported, but found it on '"
+                        + toString(method) + "'", method);
+                }
+            }
+            isValid &= isPostConstructUsageValid(currentClass);
+        }
+        return isValid;
+    }
+
+    private boolean isPostConstructUsageValid(TypeElement type) {
+        boolean isValid = true;
+        boolean hasPostConstructMethod = false;
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (hasAnnotation(method, POST_CONSTRUCT)) {
+                if (hasPostConstructMethod) {
+                    isValid = reportError("Multiple methods with @PostConstruct in " + type, method);
+                } else if (!method.getParameters().isEmpty() || method.getModifiers().contains(Modifier.STATIC)) {
+                    isValid = reportError("@PostConstruct method may not be static or have any parameters. "
+                        + "Invalid method in " + type, method);
+                } else if (method.getReturnType().getKind() != TypeKind.VOID) {
+                    isValid = reportError("@PostConstruct method must have return type void. "
+                        + "Offending class: " + type, method);
+                }
+                hasPostConstructMethod = true;
+            }
+        }
+        return isValid;
+    }
+
+    // -------------
+    // Generatability
+    // -------------
+
+    @Nullable
+    private String getNonGeneratableReason(TypeElement type, ExecutableElement constructor,
+                                           List<VariableElement> fields, List<ExecutableElement> postConstructMethods) {
+        PackageElement targetPackage = elements.getPackageOf(type);
+        if (!type.getTypeParameters().isEmpty()) {
+            return "the class has type parameters";
+        } else if (!isAccessible(type, targetPackage)) {
+            return "the class is not accessible";
+        } else if (!isAccessible(constructor, targetPackage)) {
+            return "the constructor is private or not accessible";
+        }
+        for (VariableElement field : fields) {
+            if (!isAccessible(field, targetPackage)) {
+                return "field '" + toString(field) + "' is private or not accessible";
+            }
+        }
+        for (ExecutableElement method : postConstructMethods) {
+            if (!isAccessible(method, targetPackage)) {
+                return "method '" + toString(method) + "' is private or not accessible";
+            }
+        }
+        for (VariableElement dependency : constructor.getParameters()) {
+            if (!isTypeAccessible(dependency.asType(), targetPackage)) {
+                return "the type of parameter '" + dependency + "' is not accessible";
+            }
+        }
+        for (VariableElement dependency : fields) {
+            if (!isTypeAccessible(dependency.asType(), targetPackage)) {
+                return "the type of field '" + toString(dependency) + "' is not accessible";
+            }
+        }
+        return null;
+    }
+
+    private boolean isTypeAccessible(TypeMirror type, PackageElement targetPackage) {
+        TypeMirror erasure = types.erasure(type);
+        if (erasure.getKind().isPrimitive()) {
+            return true;
+        } else if (erasure.getKind() == TypeKind.ARRAY) {
+            return isTypeAccessible(((ArrayType) erasure).getComponentType(), targetPackage);
+        } else if (erasure.getKind() == TypeKind.DECLARED) {
+            return isAccessible(((DeclaredType) erasure).asElement(), targetPackage);
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether the given element can be referenced from code in the given package without
+     * subclassing, which requires the element and all of its enclosing types to be accessible.
+     *
+     * @param element the element to verify
+     * @param targetPackage the package of the generated code
+     * @return true if the element is accessible, false otherwise
+     */
+    private boolean isAccessible(Element element, PackageElement targetPackage) {
+        Element currentElement = element;
+        while (currentElement != null && currentElement.getKind() != ElementKind.PACKAGE) {
+            Set<Modifier> modifiers = currentElement.getModifiers();
+            boolean isInTargetPackage = elements.getPackageOf(currentElement).equals(targetPackage);
+            if (modifiers.contains(Modifier.PRIVATE) || !modifiers.contains(Modifier.PUBLIC) && !isInTargetPackage) {
+                return false;
+            }
+            currentElement = currentElement.getEnclosingElement();
+        }
+        return true;
+    }
+
+    // -------------
+    // Helpers
+    // -------------
+
+    @Nullable
+    private static ExecutableElement getPostConstructMethod(TypeElement type) {
+        return ElementFilter.methodsIn(type.getEnclosedElements()).stream()
+            .filter(method -> hasAnnotation(method, POST_CONSTRUCT))
+            .findFirst().orElse(null);
+    }
+
+    private static boolean hasInjectMethod(TypeElement type) {
+        return ElementFilter.methodsIn(type.getEnclosedElements()).stream()
+            .anyMatch(method -> hasAnnotation(method, INJECT));
+    }
+
+    static boolean hasAnnotation(Element element, String annotationName) {
+        return element.getAnnotationMirrors().stream()
+            .anyMatch(mirror -> isAnnotationOfType(mirror, annotationName));
+    }
+
+    static boolean isAnnotationOfType(AnnotationMirror annotation, String annotationName) {
+        return ((TypeElement) annotation.getAnnotationType().asElement())
+            .getQualifiedName().contentEquals(annotationName);
+    }
+
+    private static String toString(Element member) {
+        return member.getEnclosingElement() + "#" + member;
+    }
+
+    /**
+     * Reports the given error once.
+     *
+     * @param message the error message
+     * @param element the element to report the error on
+     * @return always false
+     */
+    private boolean reportError(String message, Element element) {
+        if (reportedErrors.add(message)) {
+            messager.printMessage(Diagnostic.Kind.ERROR, message, element);
+        }
+        return false;
+    }
+}
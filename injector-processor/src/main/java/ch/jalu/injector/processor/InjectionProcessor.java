@@ -0,0 +1,195 @@
+package ch.jalu.injector.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Annotation processor which validates the classes to be instantiated by the injector at compile time and
+ * generates a {@code PrecompiledResolution} for them, so that they can be instantiated without reflection.
+ * <p>
+ * The processor reports the errors which the injector's {@code DefaultInjectionProvider},
+ * {@code PostConstructMethodInvoker} and {@code CyclicDependenciesDetector} otherwise only detect at runtime.
+ * For every class which the injector can instantiate and which has {@code @Inject} members or a
+ * {@code @PostConstruct} method, a resolution is generated. A class whose relevant members are private or
+ * otherwise inaccessible from its package is skipped with a note; the injector instantiates it via reflection.
+ * <p>
+ * The generated resolutions and all verified classes are listed in a registry, which is registered as service so
+ * that the {@code PrecompiledInjectionProvider} of the injector can find it. By default, the registry's name is
+ * derived from the processed classes so that the registries of modules sharing a package do not clash. The name of
+ * the registry can be configured with the option {@value #REGISTRY_OPTION}
+ * (e.g. {@code -Ajalu.injector.registry=org.app.InjectionRegistry}).
+ */
+@SupportedAnnotationTypes("*")
+@SupportedOptions(InjectionProcessor.REGISTRY_OPTION)
+public class InjectionProcessor extends AbstractProcessor {
+
+    /** Option to set the fully qualified name of the generated registry. */
+    public static final String REGISTRY_OPTION = "jalu.injector.registry";
+
+    private static final String DEFAULT_REGISTRY_NAME = "GeneratedInjectionRegistry";
+    private static final String PRECOMPILED_RESOLUTION =
+        "ch.jalu.injector.handlers.instantiation.PrecompiledResolution";
+    private static final String REGISTRY_SERVICE_FILE =
+        "META-INF/services/ch.jalu.injector.handlers.instantiation.PrecompiledInjectionRegistry";
+
+    private final Map<String, InjectableType> injectableTypes = new LinkedHashMap<>();
+    private final List<String> registries = new ArrayList<>();
+    private InjectableTypeAnalyzer analyzer;
+    private InjectionSourceWriter sourceWriter;
+    private boolean isInjectorOnClasspath;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        analyzer = new InjectableTypeAnalyzer(processingEnv);
+        sourceWriter = new InjectionSourceWriter(processingEnv);
+        isInjectorOnClasspath = processingEnv.getElementUtils().getTypeElement(PRECOMPILED_RESOLUTION) != null;
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            new CyclicDependencyChecker(processingEnv.getTypeUtils(), processingEnv.getMessager())
+                .checkForCycles(injectableTypes);
+            writeServiceFile();
+        } else {
+            List<InjectableType> newTypes = new ArrayList<>();
+            for (TypeElement type : collectTypes(roundEnv.getRootElements(), new ArrayList<>())) {
+                InjectableType injectable = analyzer.analyze(type);
+                if (injectable != null) {
+                    injectableTypes.put(type.getQualifiedName().toString(), injectable);
+                    newTypes.add(injectable);
+                }
+            }
+            if (isInjectorOnClasspath) {
+                generateSources(newTypes);
+            }
+        }
+        // Never claim any annotations so that other processors can handle them
+        return false;
+    }
+
+    private static List<TypeElement> collectTypes(Collection<? extends Element> elements, List<TypeElement> types) {
+        for (TypeElement type : ElementFilter.typesIn(elements)) {
+            types.add(type);
+            collectTypes(type.getEnclosedElements(), types);
+        }
+        return types;
+    }
+
+    private void generateSources(List<InjectableType> injectables) {
+        List<InjectableType> generatedTypes = new ArrayList<>();
+        for (InjectableType injectable : injectables) {
+            if (injectable.isGeneratable()) {
+                writeSourceFile(sourceWriter.getInjectionClassName(injectable.getType()),
+                    sourceWriter.createInjectionSource(injectable), injectable.getType());
+                generatedTypes.add(injectable);
+            } else {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "Injection of '"
+                    + injectable.getType() + "' is not precompiled because " + injectable.getNonGeneratableReason(),
+                    injectable.getType());
+            }
+        }
+
+        if (!injectables.isEmpty()) {
+            String registryName = getRegistryName(injectables);
+            writeSourceFile(registryName, sourceWriter.createRegistrySource(registryName, generatedTypes, injectables),
+                injectables.stream().map(InjectableType::getType).toArray(Element[]::new));
+            registries.add(registryName);
+        }
+    }
+
+    /**
+     * Returns the name of the registry to generate. Unless configured otherwise, the registry is placed in the
+     * most specific package which contains all processed classes, and its name ends with a hash of the names of
+     * the processed classes: modules with the same root package thus have registries of different names, which
+     * are all found by the injector as each module lists its own registry as service. Should multiple registries
+     * be generated because new classes are created in multiple processing rounds, a number is appended to the name.
+     *
+     * @param injectables the processed types
+     * @return fully qualified name of the registry
+     */
+    private String getRegistryName(List<InjectableType> injectables) {
+        String name = processingEnv.getOptions().get(REGISTRY_OPTION);
+        if (name == null) {
+            String commonPackage = null;
+            for (InjectableType injectable : injectables) {
+                String packageName = processingEnv.getElementUtils().getPackageOf(injectable.getType())
+                    .getQualifiedName().toString();
+                commonPackage = commonPackage == null ? packageName : getCommonPackage(commonPackage, packageName);
+            }
+            String simpleName = DEFAULT_REGISTRY_NAME + "_" + getTypesHash(injectables);
+            name = commonPackage.isEmpty() ? simpleName : commonPackage + "." + simpleName;
+        }
+        return registries.isEmpty() ? name : name + (registries.size() + 1);
+    }
+
+    private static String getTypesHash(List<InjectableType> injectables) {
+        String typeNames = injectables.stream()
+            .map(injectable -> injectable.getType().getQualifiedName().toString())
+            .sorted()
+            .collect(Collectors.joining(","));
+        return Integer.toHexString(typeNames.hashCode());
+    }
+
+    private static String getCommonPackage(String package1, String package2) {
+        String[] parts1 = package1.split("\\.");
+        String[] parts2 = package2.split("\\.");
+        StringBuilder commonPackage = new StringBuilder();
+        for (int i = 0; i < Math.min(parts1.length, parts2.length) && parts1[i].equals(parts2[i]); ++i) {
+            commonPackage.append(i == 0 ? "" : ".").append(parts1[i]);
+        }
+        return commonPackage.toString();
+    }
+
+    private void writeSourceFile(String className, String source, Element... originatingElements) {
+        try (Writer writer = processingEnv.getFiler().createSourceFile(className, originatingElements).openWriter()) {
+            writer.write(source);
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                "Could not write '" + className + "': " + e.getMessage());
+        }
+    }
+
+    private void writeServiceFile() {
+        if (registries.isEmpty()) {
+            return;
+        }
+        try {
+            FileObject file = processingEnv.getFiler()
+                .createResource(StandardLocation.CLASS_OUTPUT, "", REGISTRY_SERVICE_FILE);
+            try (Writer writer = file.openWriter()) {
+                for (String registry : registries) {
+                    writer.write(registry + "\n");
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                "Could not write '" + REGISTRY_SERVICE_FILE + "': " + e.getMessage());
+        }
+    }
+}
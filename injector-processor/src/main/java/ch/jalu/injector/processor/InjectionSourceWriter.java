@@ -0,0 +1,234 @@
+package ch.jalu.injector.processor;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static ch.jalu.injector.processor.InjectableTypeAnalyzer.INJECT;
+import static ch.jalu.injector.processor.InjectableTypeAnalyzer.isAnnotationOfType;
+
+/**
+ * Creates the source code of the classes generated by the {@link InjectionProcessor}.
+ */
+final class InjectionSourceWriter {
+
+    private static final String INJECTION_SUFFIX = "$$Injection";
+
+    private final Elements elements;
+    private final Types types;
+
+    InjectionSourceWriter(ProcessingEnvironment processingEnv) {
+        this.elements = processingEnv.getElementUtils();
+        this.types = processingEnv.getTypeUtils();
+    }
+
+    /**
+     * Returns the fully qualified name of the class generated for the given type. The generated class is in the
+     * same package and its name is based on the binary name, e.g. {@code Outer$Inner$$Injection}.
+     *
+     * @param type the type to get the generated class name for
+     * @return name of the generated class
+     */
+    String getInjectionClassName(TypeElement type) {
+        return elements.getBinaryName(type) + INJECTION_SUFFIX;
+    }
+
+    /**
+     * Creates the source code of the precompiled resolution of the given type.
+     *
+     * @param injectable the type to generate the resolution for
+     * @return the source code
+     */
+    String createInjectionSource(InjectableType injectable) {
+        final TypeElement type = injectable.getType();
+        final String typeName = type.getQualifiedName().toString();
+        final List<VariableElement> dependencies = injectable.getDependencies();
+        final int constructorParameters = injectable.getConstructor().getParameters().size();
+
+        StringBuilder sb = new StringBuilder();
+        appendPackageDeclaration(sb, getInjectionClassName(type));
+        sb.append("import ch.jalu.injector.context.ObjectIdentifier;\n")
+          .append("import ch.jalu.injector.exceptions.InjectorReflectionException;\n")
+          .append("import ch.jalu.injector.handlers.instantiation.PrecompiledDependencies;\n")
+          .append("import ch.jalu.injector.handlers.instantiation.PrecompiledResolution;\n")
+          .append("import ch.jalu.injector.utils.InjectorUtils;\n\n")
+          .append("import java.lang.reflect.InvocationTargetException;\n")
+          .append("import java.util.Arrays;\n")
+          .append("import java.util.Collections;\n")
+          .append("import java.util.List;\n\n")
+          .append("/**\n * Precompiled resolution of {@link ").append(typeName).append("}.\n")
+          .append(" * Generated by ").append(InjectionProcessor.class.getName()).append(".\n */\n")
+          .append("public final class ").append(getSimpleName(getInjectionClassName(type)))
+          .append(" implements PrecompiledResolution<").append(typeName).append("> {\n\n");
+
+        // Dependencies
+        sb.append("    private final List<ObjectIdentifier> dependencies = ");
+        if (dependencies.isEmpty()) {
+            sb.append("Collections.emptyList();\n\n");
+        } else {
+            sb.append("Collections.unmodifiableList(Arrays.asList(");
+            for (int i = 0; i < dependencies.size(); ++i) {
+                sb.append(i == 0 ? "\n" : ",\n").append("        ");
+                appendDependency(sb, injectable, dependencies.get(i), i);
+            }
+            sb.append("));\n\n");
+        }
+
+        sb.append("    @Override\n    public Class<").append(typeName).append("> getType() {\n")
+          .append("        return ").append(typeName).append(".class;\n    }\n\n")
+          .append("    @Override\n    public List<ObjectIdentifier> getDependencies() {\n")
+          .append("        return dependencies;\n    }\n\n");
+
+        // Instantiation
+        sb.append("    @Override\n    @SuppressWarnings({\"unchecked\", \"rawtypes\", \"cast\"})\n")
+          .append("    public ").append(typeName).append(" instantiateWith(Object... values) {\n")
+          .append("        InjectorUtils.checkArgument(values.length == ").append(dependencies.size())
+          .append(",\n            \"Number of values does not correspond to the expected number\");\n\n")
+          .append("        final ").append(typeName).append(" object;\n")
+          .append("        try {\n")
+          .append("            object = new ").append(typeName).append("(")
+          .append(dependencies.subList(0, constructorParameters).stream()
+              .map(param -> castValue(param.asType(), dependencies.indexOf(param)))
+              .collect(Collectors.joining(", ")))
+          .append(");\n")
+          .append("        } catch (Exception e) {\n")
+          .append("            throw new InjectorReflectionException(\"Could not invoke constructor of class '\"\n")
+          .append("                + ").append(typeName).append(".class + \"'\", new InvocationTargetException(e));\n")
+          .append("        }\n");
+        for (int i = constructorParameters; i < dependencies.size(); ++i) {
+            VariableElement field = dependencies.get(i);
+            sb.append("        ((").append(getErasedName(field.getEnclosingElement().asType())).append(") object).")
+              .append(field.getSimpleName()).append(" = ").append(castValue(field.asType(), i)).append(";\n");
+        }
+        sb.append("        return object;\n    }\n\n");
+
+        // Post construct methods
+        sb.append("    @Override\n    @SuppressWarnings({\"rawtypes\", \"cast\"})\n")
+          .append("    public void invokePostConstructMethods(").append(typeName).append(" object) {\n");
+        for (ExecutableElement method : injectable.getPostConstructMethods()) {
+            String declaringClass = getErasedName(method.getEnclosingElement().asType());
+            sb.append("        try {\n")
+              .append("            ((").append(declaringClass).append(") object).")
+              .append(method.getSimpleName()).append("();\n")
+              .append("        } catch (Exception e) {\n")
+              .append("            throw new InjectorReflectionException(\"Could not invoke method '")
+              .append(method.getSimpleName()).append("' for \" + object, new InvocationTargetException(e));\n")
+              .append("        }\n");
+        }
+        sb.append("    }\n}\n");
+        return sb.toString();
+    }
+
+    /**
+     * Creates the source code of a registry which returns the precompiled resolutions of the given types.
+     *
+     * @param registryName the fully qualified name of the registry class
+     * @param generatedTypes the types with a generated resolution
+     * @param verifiedTypes all types which have been verified
+     * @return the source code
+     */
+    String createRegistrySource(String registryName, List<InjectableType> generatedTypes,
+                                List<InjectableType> verifiedTypes) {
+        StringBuilder sb = new StringBuilder();
+        appendPackageDeclaration(sb, registryName);
+        sb.append("import ch.jalu.injector.handlers.instantiation.PrecompiledInjectionRegistry;\n")
+          .append("import ch.jalu.injector.handlers.instantiation.PrecompiledResolution;\n\n")
+          .append("import java.util.Arrays;\n")
+          .append("import java.util.HashMap;\n")
+          .append("import java.util.HashSet;\n")
+          .append("import java.util.Map;\n")
+          .append("import java.util.Set;\n")
+          .append("import java.util.function.Supplier;\n\n")
+          .append("/**\n * Registry of the precompiled resolutions of this compilation unit.\n")
+          .append(" * Generated by ").append(InjectionProcessor.class.getName()).append(".\n */\n")
+          .append("public final class ").append(getSimpleName(registryName))
+          .append(" implements PrecompiledInjectionRegistry {\n\n")
+          .append("    private static final Map<String, Supplier<PrecompiledResolution<?>>> RESOLUTIONS = ")
+          .append("new HashMap<>();\n")
+          .append("    private static final Set<String> VERIFIED_CLASSES = new HashSet<>(Arrays.asList(")
+          .append(verifiedTypes.stream()
+              .map(injectable -> "\n        \"" + elements.getBinaryName(injectable.getType()) + "\"")
+              .collect(Collectors.joining(",")))
+          .append("));\n\n")
+          .append("    static {\n");
+        for (InjectableType injectable : generatedTypes) {
+            sb.append("        RESOLUTIONS.put(\"").append(elements.getBinaryName(injectable.getType()))
+              .append("\", ").append(getInjectionClassName(injectable.getType()))
+              .append("::new);\n");
+        }
+        sb.append("    }\n\n")
+          .append("    @Override\n    @SuppressWarnings(\"unchecked\")\n")
+          .append("    public <T> PrecompiledResolution<T> getResolution(Class<T> clazz) {\n")
+          .append("        Supplier<PrecompiledResolution<?>> supplier = RESOLUTIONS.get(clazz.getName());\n")
+          .append("        if (supplier == null) {\n")
+          .append("            return null;\n")
+          .append("        }\n")
+          .append("        // Make sure the class is not a class with the same name from another class loader\n")
+          .append("        PrecompiledResolution<?> resolution = supplier.get();\n")
+          .append("        return resolution.getType() == clazz ? (PrecompiledResolution<T>) resolution : null;\n")
+          .append("    }\n\n")
+          .append("    @Override\n")
+          .append("    public boolean isVerified(Class<?> clazz) {\n")
+          .append("        return VERIFIED_CLASSES.contains(clazz.getName())\n")
+          .append("            && clazz.getClassLoader() == getClass().getClassLoader();\n")
+          .append("    }\n}\n");
+        return sb.toString();
+    }
+
+    private void appendDependency(StringBuilder sb, InjectableType injectable, VariableElement dependency,
+                                  int index) {
+        if (isSimpleType(dependency.asType()) && dependency.getAnnotationMirrors().stream()
+            .allMatch(mirror -> isAnnotationOfType(mirror, INJECT))) {
+            sb.append("PrecompiledDependencies.of(").append(getErasedName(dependency.asType())).append(".class)");
+        } else if (index < injectable.getConstructor().getParameters().size()) {
+            // Generic type or annotations: read them from the constructor parameter at runtime
+            sb.append("PrecompiledDependencies.ofConstructorParameter(")
+              .append(injectable.getType().getQualifiedName()).append(".class, ").append(index);
+            for (VariableElement parameter : injectable.getConstructor().getParameters()) {
+                sb.append(", ").append(getErasedName(parameter.asType())).append(".class");
+            }
+            sb.append(")");
+        } else {
+            sb.append("PrecompiledDependencies.ofField(")
+              .append(getErasedName(dependency.getEnclosingElement().asType())).append(".class, \"")
+              .append(dependency.getSimpleName()).append("\")");
+        }
+    }
+
+    private String castValue(TypeMirror type, int index) {
+        return "(" + getErasedName(type) + ") values[" + index + "]";
+    }
+
+    private String getErasedName(TypeMirror type) {
+        return types.erasure(type).toString();
+    }
+
+    private static boolean isSimpleType(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return true;
+        } else if (type.getKind() == TypeKind.ARRAY) {
+            return isSimpleType(((ArrayType) type).getComponentType());
+        }
+        return type.getKind() == TypeKind.DECLARED && ((DeclaredType) type).getTypeArguments().isEmpty();
+    }
+
+    private static void appendPackageDeclaration(StringBuilder sb, String className) {
+        int lastDot = className.lastIndexOf('.');
+        if (lastDot > 0) {
+            sb.append("package ").append(className, 0, lastDot).append(";\n\n");
+        }
+    }
+
+    private static String getSimpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+}
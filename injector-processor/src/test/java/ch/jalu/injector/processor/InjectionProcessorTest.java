@@ -0,0 +1,390 @@
+package ch.jalu.injector.processor;
+
+import ch.jalu.injector.Injector;
+import ch.jalu.injector.InjectorBuilder;
+import ch.jalu.injector.handlers.Handler;
+import ch.jalu.injector.handlers.instantiation.DefaultInjectionProvider;
+import ch.jalu.injector.handlers.instantiation.PrecompiledInjectionProvider;
+import ch.jalu.injector.handlers.instantiation.PrecompiledInjectionRegistry;
+import ch.jalu.injector.handlers.instantiation.PrecompiledResolution;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link InjectionProcessor}.
+ */
+public class InjectionProcessorTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldGenerateResolutionsAndRegistry() throws Exception {
+        // given
+        String database = "package org.sample.data;\n"
+            + "public class Database { }";
+        String config = "package org.sample;\n"
+            + "public class Config { }";
+        String baseService = "package org.sample;\n"
+            + "import javax.annotation.PostConstruct;\n"
+            + "import javax.inject.Inject;\n"
+            + "import java.util.ArrayList;\n"
+            + "import java.util.List;\n"
+            + "public abstract class BaseService {\n"
+            + "  @Inject Config config;\n"
+            + "  public final List<String> calls = new ArrayList<>();\n"
+            + "  @PostConstruct void initBase() { calls.add(\"base\"); }\n"
+            + "}";
+        String service = "package org.sample;\n"
+            + "import javax.annotation.PostConstruct;\n"
+            + "import javax.inject.Inject;\n"
+            + "import org.sample.data.Database;\n"
+            + "public class Service extends BaseService {\n"
+            + "  public final Database database;\n"
+            + "  public final int port;\n"
+            + "  @Inject Service(Database database, int port) { this.database = database; this.port = port; }\n"
+            + "  @PostConstruct protected void init() { calls.add(\"service\"); }\n"
+            + "  public Config getConfig() { return config; }\n"
+            + "}";
+
+        // when
+        Compilation compilation = compile(database, config, baseService, service);
+
+        // then
+        assertThat(compilation.getErrors(), empty());
+        ClassLoader classLoader = compilation.createClassLoader();
+        List<PrecompiledInjectionRegistry> registries = loadRegistries(classLoader);
+        assertThat(registries, hasSize(1));
+        assertThat(registries.get(0).getClass().getName(), startsWith("org.sample.GeneratedInjectionRegistry_"));
+
+        Class<?> serviceClass = classLoader.loadClass("org.sample.Service");
+        Class<?> databaseClass = classLoader.loadClass("org.sample.data.Database");
+        Class<?> configClass = classLoader.loadClass("org.sample.Config");
+        assertThat(registries.get(0).getResolution(serviceClass), instanceOf(PrecompiledResolution.class));
+        assertThat(registries.get(0).getResolution(databaseClass), nullValue());
+
+        // Create the service without the DefaultInjectionProvider
+        List<Handler> handlers = InjectorBuilder.createDefaultHandlers("org.sample");
+        handlers.removeIf(handler -> handler instanceof DefaultInjectionProvider);
+        handlers.replaceAll(handler -> handler instanceof PrecompiledInjectionProvider
+            ? new PrecompiledInjectionProvider("org.sample", registries)
+            : handler);
+        Injector injector = new InjectorBuilder().addHandlers(handlers).create();
+        Object databaseObject = databaseClass.newInstance();
+        Object configObject = configClass.newInstance();
+        register(injector, databaseClass, databaseObject);
+        register(injector, configClass, configObject);
+        injector.register(int.class, 8080);
+
+        Object serviceObject = injector.getSingleton(serviceClass);
+        assertThat(serviceClass.getField("database").get(serviceObject), sameInstance(databaseObject));
+        assertThat(serviceClass.getField("port").get(serviceObject), equalTo(8080));
+        assertThat(serviceClass.getMethod("getConfig").invoke(serviceObject), sameInstance(configObject));
+        @SuppressWarnings("unchecked")
+        List<String> calls = (List<String>) serviceClass.getField("calls").get(serviceObject);
+        assertThat(calls, contains("base", "service"));
+    }
+
+    @Test
+    public void shouldGenerateRegistryWithConfiguredName() throws Exception {
+        // given
+        String nestedClass = "package org.sample;\n"
+            + "import javax.inject.Inject;\n"
+            + "import java.util.List;\n"
+            + "public class Outer {\n"
+            + "  public static class Inner {\n"
+            + "    @Inject public List<String> values;\n"
+            + "  }\n"
+            + "}";
+
+        // when
+        Compilation compilation = compile(
+            Collections.singletonList("-A" + InjectionProcessor.REGISTRY_OPTION + "=org.app.AppRegistry"),
+            nestedClass);
+
+        // then
+        assertThat(compilation.getErrors(), empty());
+        ClassLoader classLoader = compilation.createClassLoader();
+        List<PrecompiledInjectionRegistry> registries = loadRegistries(classLoader);
+        assertThat(registries, hasSize(1));
+        assertThat(registries.get(0).getClass().getName(), equalTo("org.app.AppRegistry"));
+
+        Class<?> innerClass = classLoader.loadClass("org.sample.Outer$Inner");
+        PrecompiledResolution<?> resolution = registries.get(0).getResolution(innerClass);
+        assertThat(resolution.getDependencies(), hasSize(1));
+        assertThat(resolution.getDependencies().get(0).getType().getTypeName(),
+            equalTo("java.util.List<java.lang.String>"));
+        Object inner = resolution.instantiateWith(Arrays.asList("a", "b"));
+        assertThat(innerClass.getField("values").get(inner), equalTo(Arrays.asList("a", "b")));
+    }
+
+    @Test
+    public void shouldGenerateDifferentRegistriesForModulesWithSamePackage() throws Exception {
+        // given
+        String moduleClass1 = "package org.sample;\n"
+            + "import javax.inject.Inject;\n"
+            + "public class Config {\n"
+            + "  @Inject public Config() { }\n"
+            + "}";
+        String moduleClass2 = "package org.sample;\n"
+            + "import javax.inject.Inject;\n"
+            + "public class Database {\n"
+            + "  @Inject public Database() { }\n"
+            + "}";
+
+        // when
+        Compilation compilation1 = compile(moduleClass1);
+        Compilation compilation2 = compile(moduleClass2);
+
+        // then
+        assertThat(compilation1.getErrors(), empty());
+        assertThat(compilation2.getErrors(), empty());
+        String registryName1 = loadRegistries(compilation1.createClassLoader()).get(0).getClass().getName();
+        String registryName2 = loadRegistries(compilation2.createClassLoader()).get(0).getClass().getName();
+        assertThat(registryName1, startsWith("org.sample.GeneratedInjectionRegistry_"));
+        assertThat(registryName2, startsWith("org.sample.GeneratedInjectionRegistry_"));
+        assertThat(registryName1, not(equalTo(registryName2)));
+    }
+
+    @Test
+    public void shouldSkipClassWithPrivateMembers() throws Exception {
+        // given
+        String privateField = "package org.sample;\n"
+            + "import javax.inject.Inject;\n"
+            + "public class PrivateField {\n"
+            + "  @Inject private Object value;\n"
+            + "}";
+
+        // when
+        Compilation compilation = compile(privateField);
+
+        // then
+        assertThat(compilation.getErrors(), empty());
+        assertThat(compilation.getMessages(Diagnostic.Kind.NOTE), hasItem("Injection of 'org.sample.PrivateField' "
+            + "is not precompiled because field 'org.sample.PrivateField#value' is private or not accessible"));
+        ClassLoader classLoader = compilation.createClassLoader();
+        List<PrecompiledInjectionRegistry> registries = loadRegistries(classLoader);
+        assertThat(registries, hasSize(1));
+        Class<?> privateFieldClass = classLoader.loadClass("org.sample.PrivateField");
+        assertThat(registries.get(0).getResolution(privateFieldClass), nullValue());
+        assertThat(registries.get(0).isVerified(privateFieldClass), equalTo(true));
+        assertThat(registries.get(0).isVerified(Object.class), equalTo(false));
+    }
+
+    @Test
+    public void shouldReportInvalidFields() throws IOException {
+        // given
+        String finalField = "package org.sample;\n"
+            + "import javax.inject.Inject;\n"
+            + "public class FinalField {\n"
+            + "  @Inject final Object value = null;\n"
+            + "}";
+        String staticField = "package org.sample;\n"
+            + "import javax.inject.Inject;\n"
+            + "public class StaticField {\n"
+            + "  @Inject static Object value;\n"
+            + "}";
+        String constructorAndField = "package org.sample;\n"
+            + "import javax.inject.Inject;\n"
+            + "public class ConstructorAndField {\n"
+            + "  @Inject Object value;\n"
+            + "  @Inject ConstructorAndField(String name) { }\n"
+            + "}";
+
+        // when
+        Compilation compilation = compile(finalField, staticField, constructorAndField);
+
+        // then
+        assertThat(compilation.getErrors(), contains(
+            "Field 'org.sample.FinalField#value' may not be final and have @Inject",
+            "@Inject may not be placed on static fields (found violation: 'org.sample.StaticField#value')",
+            "Class 'org.sample.ConstructorAndField' may not have @Inject constructor and @Inject fields. "
+                + "Pass the fields via the constructor as well or remove the @Inject constructor"));
+    }
+
+    @Test
+    public void shouldReportInvalidMethods() throws IOException {
+        // given
+        String multipleConstructors = "package org.sample;\n"
+            + "import javax.inject.Inject;\n"
+            + "public class MultipleConstructors {\n"
+            + "  @Inject MultipleConstructors(String name) { }\n"
+            + "  @Inject MultipleConstructors(Integer number) { }\n"
+            + "}";
+        String injectMethod = "package org.sample;\n"
+            + "import javax.inject.Inject;\n"
+            + "public class InjectMethod {\n"
+            + "  @Inject void setValue(Object value) { }\n"
+            + "}";
+        String staticPostConstruct = "package org.sample;\n"
+            + "import javax.annotation.PostConstruct;\n"
+            + "public class StaticPostConstruct {\n"
+            + "  @PostConstruct static void init() { }\n"
+            + "}";
+
+        // when
+        Compilation compilation = compile(multipleConstructors, injectMethod, staticPostConstruct);
+
+        // then
+        assertThat(compilation.getErrors(), contains(
+            "Class 'org.sample.MultipleConstructors' may not have multiple @Inject constructors",
+            "@Inject on methods is not supported, but found it on 'org.sample.InjectMethod#setValue(java.lang.Object)'",
+            "@PostConstruct method may not be static or have any parameters. "
+                + "Invalid method in org.sample.StaticPostConstruct"));
+    }
+
+    @Test
+    public void shouldReportCyclicDependency() throws IOException {
+        // given
+        String alpha = "package org.sample;\n"
+            + "import javax.inject.Inject;\n"
+            + "public class Alpha {\n"
+            + "  @Inject Alpha(Beta beta) { }\n"
+            + "}";
+        String beta = "package org.sample;\n"
+            + "import javax.inject.Inject;\n"
+            + "public class Beta {\n"
+            + "  @Inject Gamma gamma;\n"
+            + "}";
+        String gamma = "package org.sample;\n"
+            + "import javax.inject.Inject;\n"
+            + "import javax.inject.Provider;\n"
+            + "public class Gamma {\n"
+            + "  @Inject Alpha alpha;\n"
+            + "  @Inject Provider<Gamma> gammaProvider;\n"
+            + "}";
+
+        // when
+        Compilation compilation = compile(alpha, beta, gamma);
+
+        // then
+        assertThat(compilation.getErrors(), contains(
+            "Found cyclic dependency: org.sample.Alpha -> org.sample.Beta -> org.sample.Gamma -> org.sample.Alpha"));
+    }
+
+    private Compilation compile(String... sources) throws IOException {
+        return compile(Collections.emptyList(), sources);
+    }
+
+    private Compilation compile(List<String> additionalOptions, String... sources) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        File outputFolder = temporaryFolder.newFolder();
+        List<String> options = new ArrayList<>(Arrays.asList(
+            "-d", outputFolder.getPath(), "-s", outputFolder.getPath(), "-classpath", getClassPath()));
+        options.addAll(additionalOptions);
+        List<JavaFileObject> files = Arrays.stream(sources)
+            .map(SourceFile::new)
+            .collect(Collectors.toList());
+
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics, options, null, files);
+        task.setProcessors(Collections.singletonList(new InjectionProcessor()));
+        boolean isSuccessful = task.call();
+        return new Compilation(outputFolder, diagnostics.getDiagnostics(), isSuccessful);
+    }
+
+    private static <T> void register(Injector injector, Class<T> clazz, Object object) {
+        injector.register(clazz, clazz.cast(object));
+    }
+
+    private static String getClassPath() {
+        // Surefire may only put a manifest-only JAR onto the regular class path
+        String surefireClassPath = System.getProperty("surefire.test.class.path");
+        return surefireClassPath == null ? System.getProperty("java.class.path") : surefireClassPath;
+    }
+
+    private static List<PrecompiledInjectionRegistry> loadRegistries(ClassLoader classLoader) {
+        List<PrecompiledInjectionRegistry> registries = new ArrayList<>();
+        ServiceLoader.load(PrecompiledInjectionRegistry.class, classLoader).forEach(registries::add);
+        return registries;
+    }
+
+    private static final class SourceFile extends SimpleJavaFileObject {
+        private static final Pattern CLASS_NAME_PATTERN = Pattern.compile("\\bclass (\\w+)");
+        private final String source;
+
+        SourceFile(String source) {
+            super(URI.create("string:///" + getClassName(source).replace('.', '/') + Kind.SOURCE.extension),
+                Kind.SOURCE);
+            this.source = source;
+        }
+
+        private static String getClassName(String source) {
+            String packageName = source.substring("package ".length(), source.indexOf(';'));
+            Matcher classNameMatcher = CLASS_NAME_PATTERN.matcher(source);
+            if (!classNameMatcher.find()) {
+                throw new IllegalArgumentException("Could not find class name in source: " + source);
+            }
+            return packageName + "." + classNameMatcher.group(1);
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return source;
+        }
+    }
+
+    private static final class Compilation {
+        private final File outputFolder;
+        private final List<Diagnostic<? extends JavaFileObject>> diagnostics;
+        private final boolean isSuccessful;
+
+        Compilation(File outputFolder, List<Diagnostic<? extends JavaFileObject>> diagnostics,
+                    boolean isSuccessful) {
+            this.outputFolder = outputFolder;
+            this.diagnostics = diagnostics;
+            this.isSuccessful = isSuccessful;
+        }
+
+        List<String> getErrors() {
+            List<String> errors = getMessages(Diagnostic.Kind.ERROR);
+            assertThat(isSuccessful, equalTo(errors.isEmpty()));
+            return errors;
+        }
+
+        List<String> getMessages(Diagnostic.Kind kind) {
+            return diagnostics.stream()
+                .filter(diagnostic -> diagnostic.getKind() == kind)
+                .map(diagnostic -> diagnostic.getMessage(null))
+                .collect(Collectors.toList());
+        }
+
+        ClassLoader createClassLoader() throws IOException {
+            assertThat(isSuccessful, equalTo(true));
+            return new URLClassLoader(new URL[]{ outputFolder.toURI().toURL() }, getClass().getClassLoader());
+        }
+    }
+}
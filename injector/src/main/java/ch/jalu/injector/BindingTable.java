@@ -0,0 +1,160 @@
+package ch.jalu.injector;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Stores objects by class. Every class is assigned a dense integer ID the first time it is encountered, which is
+ * used as index into an array holding the objects. Retrieving an object is therefore an array access instead of a
+ * hash lookup.
+ * <p>
+ * IDs come from a global counter and are never reclaimed, not even when the class loader of a class is garbage
+ * collected. The highest ID therefore grows with the number of distinct classes that were ever stored or looked up
+ * in any table of the JVM, which is why tables only grow up to the highest ID they store.
+ * <p>
+ * Reading from the table never locks; objects are only added while holding the table's lock as the array may
+ * need to be grown.
+ * <p>
+ * A table may have a parent table: objects of the parent are returned for classes without an object in the
+ * table itself. Objects are always added to the table itself. Tables with a parent (i.e. of child injectors)
+ * typically hold a few objects only: their array keeps its initial capacity and objects with higher IDs are
+ * stored in a map, so that the table's size does not depend on the number of classes known in the JVM.
+ */
+final class BindingTable {
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+    private static final ClassValue<Integer> IDS = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return NEXT_ID.getAndIncrement();
+        }
+    };
+
+    private final Object lock = new Object();
+    @Nullable
+    private final BindingTable parent;
+    private volatile AtomicReferenceArray<Object> slots = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+    // Objects whose ID is beyond the array's length; only used by tables with a parent, whose array does not grow
+    @Nullable
+    private final ConcurrentMap<Integer, Object> overflow;
+
+    BindingTable() {
+        this(null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param parent the table whose objects should be visible in this table, null if not applicable
+     */
+    BindingTable(@Nullable BindingTable parent) {
+        this.parent = parent;
+        this.overflow = parent == null ? null : new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the binding ID of the given class. The same class always has the same ID.
+     *
+     * @param clazz the class to get the ID for
+     * @return the class' ID
+     */
+    static int getId(Class<?> clazz) {
+        return IDS.get(clazz);
+    }
+
+    /**
+     * Returns the object stored for the given class.
+     *
+     * @param clazz the class to look up
+     * @return the object stored for the class, null if there is none
+     */
+    @Nullable
+    Object get(Class<?> clazz) {
+        return get(getId(clazz));
+    }
+
+    /**
+     * Returns the object stored for the class with the given binding ID.
+     *
+     * @param id the binding ID of the class (see {@link #getId})
+     * @return the object stored for the class, null if there is none
+     */
+    @Nullable
+    Object get(int id) {
+        final AtomicReferenceArray<Object> currentSlots = slots;
+        Object object;
+        if (id < currentSlots.length()) {
+            object = currentSlots.get(id);
+        } else {
+            object = overflow == null ? null : overflow.get(id);
+        }
+        return object == null && parent != null ? parent.get(id) : object;
+    }
+
+    /**
+     * Stores the given object for the given class unless an object has already been stored for it in this
+     * table. Objects of the parent table are not considered.
+     *
+     * @param clazz the class to store the object for
+     * @param object the object to store
+     * @return the object that was previously stored for the class, null if the given object was stored
+     */
+    @Nullable
+    Object putIfAbsent(Class<?> clazz, Object object) {
+        final int id = getId(clazz);
+        synchronized (lock) {
+            if (overflow != null && id >= slots.length()) {
+                return overflow.putIfAbsent(id, object);
+            }
+            AtomicReferenceArray<Object> currentSlots = ensureCapacity(id);
+            Object existing = currentSlots.get(id);
+            if (existing == null) {
+                currentSlots.set(id, object);
+            }
+            return existing;
+        }
+    }
+
+    /**
+     * Shrinks the table to the highest binding ID that has an object. The table grows again if an object is
+     * added for a class with a higher ID afterwards (or the object is stored in the map of a table with a parent).
+     */
+    void trimToSize() {
+        synchronized (lock) {
+            AtomicReferenceArray<Object> currentSlots = slots;
+            int length = currentSlots.length();
+            while (length > 0 && currentSlots.get(length - 1) == null) {
+                --length;
+            }
+            if (length < currentSlots.length()) {
+                AtomicReferenceArray<Object> newSlots = new AtomicReferenceArray<>(Math.max(length, 1));
+                for (int i = 0; i < length; ++i) {
+                    newSlots.set(i, currentSlots.get(i));
+                }
+                slots = newSlots;
+            }
+        }
+    }
+
+    private AtomicReferenceArray<Object> ensureCapacity(int id) {
+        AtomicReferenceArray<Object> currentSlots = slots;
+        if (id < currentSlots.length()) {
+            return currentSlots;
+        }
+
+        int newLength = currentSlots.length();
+        while (newLength <= id) {
+            newLength *= 2;
+        }
+        AtomicReferenceArray<Object> newSlots = new AtomicReferenceArray<>(newLength);
+        for (int i = 0; i < currentSlots.length(); ++i) {
+            newSlots.set(i, currentSlots.get(i));
+        }
+        slots = newSlots;
+        return newSlots;
+    }
+}
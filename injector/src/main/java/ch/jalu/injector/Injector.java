@@ -1,9 +1,12 @@
 package ch.jalu.injector;
 
+import ch.jalu.injector.context.ResolutionType;
+
 import javax.annotation.Nullable;
 import javax.inject.Provider;
 import java.lang.annotation.Annotation;
 import java.util.Collection;
+import java.util.concurrent.Executor;
 
 /**
  * Dependency injector.
@@ -79,6 +82,31 @@ public interface Injector {
      */
     <T> T newInstance(Class<T> clazz);
 
+    /**
+     * Retrieves or creates an object of the given class with the given resolution type. With a
+     * {@link ch.jalu.injector.scopes.Scope scope}, the object is created once per storage of the scope.
+     *
+     * @param clazz the class to get the object for
+     * @param resolutionType the resolution type, e.g. a scope
+     * @param <T> the class' type
+     * @return object of the class' type, or null if the resolution type allows it
+     * @since 1.1
+     */
+    @Nullable
+    <T> T get(Class<T> clazz, ResolutionType resolutionType);
+
+    /**
+     * Returns a provider which creates a new instance of the given class on every call, equivalent to
+     * {@link #newInstance}. The provider may keep information about how the class is instantiated, which makes
+     * it preferable over calling {@link #newInstance} repeatedly.
+     *
+     * @param clazz the class to create instances of
+     * @param <T> the class' type
+     * @return provider of new instances of the class
+     * @since 1.1
+     */
+    <T> Provider<T> getProvider(Class<T> clazz);
+
     /**
      * Returns the singleton of the given class if available. This simply returns the instance if present, and
      * otherwise {@code null}. Calling this method will never create any new objects.
@@ -109,12 +137,54 @@ public interface Injector {
      * Returns all known singletons of the given type. Typically used
      * with interfaces in order to perform an action without knowing its concrete implementors.
      * Trivially, using {@link Object} as {@code clazz} will return all known singletons.
+     * <p>
+     * The returned collection is unmodifiable and does not change if further singletons are created.
+     * Repeated calls for the same type return the same collection as long as no matching singleton was added.
      *
      * @param clazz the class to retrieve singletons of
      * @param <T> the class' type
-     * @return list of singletons of the given type
+     * @return unmodifiable collection of the singletons of the given type
      * @since 0.1
      */
     <T> Collection<T> retrieveAllOfType(Class<T> clazz);
 
+    /**
+     * Creates the singletons of the given classes along with all singletons they depend on. Singletons which do
+     * not depend on each other are created in parallel with the given executor; a singleton is only created once
+     * all of its dependencies have been created. This method returns once all singletons have been created.
+     * <p>
+     * If the creation of a singleton fails, the singletons depending on it are not created and the exception is
+     * rethrown by this method once all other singletons have been processed.
+     *
+     * @param classes the classes to create the singletons of
+     * @param executor the executor to create the singletons with
+     * @since 1.1
+     */
+    void initializeAll(Collection<? extends Class<?>> classes, Executor executor);
+
+    /**
+     * Freezes the injector, typically once the application has started. Afterwards, no objects, providers or
+     * annotation values can be registered and the handlers can no longer be changed; the injector compacts its
+     * internal structures accordingly. Singletons and new instances can still be created as usual.
+     * <p>
+     * Freezing an injector which is already frozen has no effect.
+     *
+     * @since 1.1
+     */
+    void freeze();
+
+    /**
+     * Creates a child injector. The child injector has the same handlers as this injector and can access all of
+     * its singletons, including the ones created afterwards. Objects registered with the child injector and
+     * singletons which are created by it are only known to the child. Providers registered with the child injector
+     * are only used by the child and take precedence over the providers of its parents. Annotation values can only
+     * be provided to the root injector.
+     * <p>
+     * Creating a child injector is cheap and does not depend on the number of objects this injector has.
+     *
+     * @return the child injector
+     * @since 1.1
+     */
+    Injector createChild();
+
 }
\ No newline at end of file
@@ -6,6 +6,10 @@ import ch.jalu.injector.handlers.dependency.FactoryDependencyHandler;
 import ch.jalu.injector.handlers.dependency.SavedAnnotationsHandler;
 import ch.jalu.injector.handlers.dependency.SingletonStoreDependencyHandler;
 import ch.jalu.injector.handlers.instantiation.DefaultInjectionProvider;
+import ch.jalu.injector.handlers.instantiation.InstantiationCache;
+import ch.jalu.injector.handlers.instantiation.PrecompiledInjectionProvider;
+import ch.jalu.injector.handlers.instantiation.StandardInjectionStrategy;
+import ch.jalu.injector.handlers.instantiation.ValidationPolicy;
 import ch.jalu.injector.handlers.postconstruct.PostConstructMethodInvoker;
 import ch.jalu.injector.handlers.instantiation.ProviderHandler;
 import ch.jalu.injector.utils.InjectorUtils;
@@ -37,6 +41,19 @@ public class InjectorBuilder {
      * @see #addDefaultHandlers(String)
      */
     public static List<Handler> createDefaultHandlers(String rootPackage) {
+        return createDefaultHandlers(rootPackage, ValidationPolicy.STRICT);
+    }
+
+    /**
+     * Returns all handlers that are added to the injector by default.
+     *
+     * @param rootPackage the root package of the project (to limit injection and scanning to)
+     * @param validationPolicy the policy defining how the classes to instantiate are validated
+     * @return all default handlers
+     * @see #addDefaultHandlers(String, ValidationPolicy)
+     * @since 1.1
+     */
+    public static List<Handler> createDefaultHandlers(String rootPackage, ValidationPolicy validationPolicy) {
         InjectorUtils.checkNotNull(rootPackage, "root package may not be null");
         return new ArrayList<>(Arrays.asList(
             // (Annotation, Object) handler
@@ -47,7 +64,9 @@ public class InjectorBuilder {
             new SingletonStoreDependencyHandler(),
             // Instantiation provider
             new CyclicDependenciesDetector(),
-            new DefaultInjectionProvider(rootPackage),
+            new InstantiationCache(),
+            new PrecompiledInjectionProvider(rootPackage),
+            new DefaultInjectionProvider(rootPackage, StandardInjectionStrategy.REFLECTION, validationPolicy),
             // PostConstruct
             new PostConstructMethodInvoker()));
     }
@@ -62,12 +81,26 @@ public class InjectorBuilder {
      * @return default instantiation providers
      */
     public static List<Handler> createInstantiationProviders(String rootPackage) {
+        return createInstantiationProviders(rootPackage, ValidationPolicy.STRICT);
+    }
+
+    /**
+     * Creates all default handlers implementing {@link Handler#resolve}. Useful if you want to create your own
+     * preconstruct (etc.) handlers but want to use the default instantiation providers.
+     *
+     * @param rootPackage the root package of the project
+     * @param validationPolicy the policy defining how the classes to instantiate are validated
+     * @return default instantiation providers
+     * @since 1.1
+     */
+    public static List<Handler> createInstantiationProviders(String rootPackage, ValidationPolicy validationPolicy) {
         InjectorUtils.checkNotNull(rootPackage, "root package may not be null");
         return new ArrayList<>(Arrays.asList(
             new ProviderHandler(),
             new FactoryDependencyHandler(),
             new SingletonStoreDependencyHandler(),
-            new DefaultInjectionProvider(rootPackage)));
+            new PrecompiledInjectionProvider(rootPackage),
+            new DefaultInjectionProvider(rootPackage, StandardInjectionStrategy.REFLECTION, validationPolicy)));
     }
 
     /**
@@ -84,6 +117,20 @@ public class InjectorBuilder {
         return addHandlers(createDefaultHandlers(rootPackage));
     }
 
+    /**
+     * Adds all default handlers to the injector configuration, validating the classes to instantiate
+     * as defined by the given policy. Use {@link ValidationPolicy#TRUSTED} to skip the validation of the
+     * classes which have been verified at build time by the injector's annotation processor.
+     *
+     * @param rootPackage the root package of the project
+     * @param validationPolicy the policy defining how the classes to instantiate are validated
+     * @return the builder
+     * @since 1.1
+     */
+    public InjectorBuilder addDefaultHandlers(String rootPackage, ValidationPolicy validationPolicy) {
+        return addHandlers(createDefaultHandlers(rootPackage, validationPolicy));
+    }
+
     /**
      * Add handlers to the config. Note that <b>the order of the handlers matters.</b> Handlers are
      * separated by their subtype and then executed in the order as provided.
@@ -1,18 +1,58 @@
 package ch.jalu.injector;
 
+import ch.jalu.injector.context.AnnotationMasks;
+import ch.jalu.injector.context.ObjectIdentifier;
+import ch.jalu.injector.context.ResolutionContext;
 import ch.jalu.injector.handlers.Handler;
+import ch.jalu.injector.handlers.HandlerPhase;
 import ch.jalu.injector.utils.InjectorUtils;
 
+import javax.annotation.Nullable;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Injector configuration.
  */
 public class InjectorConfig {
 
-    private List<Handler> handlers = new ArrayList<>();
+    /**
+     * Whether the {@link Handler#getClaimedTypes claimed types} and the claimed annotation types, respectively,
+     * apply to the handlers of a class. Claims only apply if the claim method is declared by the class which
+     * declares {@link Handler#resolve} or by a subclass of it: a subclass which overrides resolve does not inherit
+     * the claims of its parent, as they may not hold for its own resolve method.
+     */
+    private static final ClassValue<boolean[]> APPLICABLE_CLAIMS = new ClassValue<boolean[]>() {
+        @Override
+        protected boolean[] computeValue(Class<?> type) {
+            try {
+                Class<?> resolveDeclarer = type.getMethod("resolve", ResolutionContext.class).getDeclaringClass();
+                return new boolean[]{
+                    resolveDeclarer.isAssignableFrom(type.getMethod("getClaimedTypes").getDeclaringClass()),
+                    resolveDeclarer.isAssignableFrom(type.getMethod("getClaimedAnnotationTypes").getDeclaringClass())
+                };
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    };
+
+    private final HandlerList handlers = new HandlerList();
+    private final AtomicInteger claimsVersion = new AtomicInteger();
+    private volatile HandlerArrays handlerArrays;
+    private volatile boolean frozen;
 
     /**
      * Use the {@link InjectorBuilder} instead of instantiating this.
@@ -22,10 +62,335 @@ public class InjectorConfig {
 
     public void addHandlers(Collection<? extends Handler> handlers) {
         InjectorUtils.checkNotNull(handlers, null);
-        this.handlers.addAll(handlers);
+        getHandlers().addAll(handlers);
     }
 
+    /**
+     * Returns the handlers. The list is unmodifiable once the configuration has been {@link #freeze frozen}.
+     *
+     * @return the handlers
+     */
     public List<Handler> getHandlers() {
-        return handlers;
+        return frozen ? Collections.unmodifiableList(handlers) : handlers;
+    }
+
+    /**
+     * Freezes the configuration: the handlers can no longer be changed and the arrays derived from them are
+     * no longer checked for changes.
+     */
+    void freeze() {
+        synchronized (handlers) {
+            handlerArrays = new HandlerArrays(getHandlersVersion(), handlers);
+            frozen = true;
+        }
+    }
+
+    /**
+     * Returns a number identifying the current state of the handlers list. The value changes whenever
+     * the list of handlers is modified or the handlers' claims are {@link #refreshHandlerClaims refreshed}.
+     *
+     * @return the version of the handlers list
+     */
+    int getHandlersVersion() {
+        return handlers.getVersion() + claimsVersion.get();
+    }
+
+    /**
+     * Signals that the {@link Handler#getClaimedTypes claims} of the handlers may have changed.
+     */
+    void refreshHandlerClaims() {
+        claimsVersion.incrementAndGet();
+    }
+
+    /**
+     * Returns the handlers which participate in the given phase, in the order of the handlers list.
+     *
+     * @param phase the phase
+     * @return the handlers of the phase
+     */
+    Handler[] getHandlers(HandlerPhase phase) {
+        return getHandlerArrays().handlersByPhase[phase.ordinal()];
+    }
+
+    /**
+     * Returns the handlers which process newly created objects, i.e. all handlers which participate in
+     * {@link HandlerPhase#POST_PROCESS}, in the order of the handlers list.
+     *
+     * @return the post processing handlers
+     */
+    Handler[] getPostProcessors() {
+        return getHandlers(HandlerPhase.POST_PROCESS);
+    }
+
+    /**
+     * Returns the handlers to call for the resolution of the given identifier, in the order of the handlers list.
+     * Handlers whose claims exclude the identifier's raw type are left out.
+     *
+     * @param identifier the identifier to resolve
+     * @return the handlers to resolve the identifier with
+     */
+    Resolvers getResolvers(ObjectIdentifier identifier) {
+        HandlerArrays arrays = getHandlerArrays();
+        Class<?> rawType = getRawType(identifier.getType());
+        return rawType == null
+            ? arrays.resolversForUnknownType
+            : arrays.resolversByType.computeIfAbsent(rawType, arrays::createResolvers);
+    }
+
+    private HandlerArrays getHandlerArrays() {
+        HandlerArrays arrays = handlerArrays;
+        if (frozen) {
+            return arrays;
+        }
+        final int version = getHandlersVersion();
+        if (arrays == null || arrays.version != version) {
+            arrays = new HandlerArrays(version, handlers);
+            handlerArrays = arrays;
+        }
+        return arrays;
+    }
+
+    @Nullable
+    private static Class<?> getRawType(Type type) {
+        if (type instanceof Class<?>) {
+            return (Class<?>) type;
+        } else if (type instanceof ParameterizedType && ((ParameterizedType) type).getRawType() instanceof Class<?>) {
+            return (Class<?>) ((ParameterizedType) type).getRawType();
+        }
+        return null;
+    }
+
+    /**
+     * Handlers to call for the resolution of identifiers of a given raw type. Handlers which claim annotation
+     * types but not the raw type must only be called if the identifier may have such an annotation.
+     * <p>
+     * Also remembers which {@link Handler#isDeterministic deterministic} handler resolved an identifier. As
+     * instances are recreated whenever the handlers or their claims change, the remembered handlers are
+     * discarded whenever a provider or an annotation value is registered.
+     */
+    static final class Resolvers {
+        /** Value of {@link #getResolvingHandlerIndex} if no handler is known for an identifier. */
+        static final int UNKNOWN_HANDLER = -1;
+
+        private final Handler[] handlers;
+        /** Position of each handler among all resolving handlers. */
+        private final int[] positions;
+        private final long[] requiredAnnotationMasks;
+        private final boolean[] deterministic;
+        private final ConcurrentMap<ObjectIdentifier, Integer> resolvingHandlerIndices = new ConcurrentHashMap<>();
+
+        Resolvers(Handler[] handlers, int[] positions, long[] requiredAnnotationMasks) {
+            this.handlers = handlers;
+            this.positions = positions;
+            this.requiredAnnotationMasks = requiredAnnotationMasks;
+            this.deterministic = new boolean[handlers.length];
+            for (int i = 0; i < handlers.length; ++i) {
+                deterministic[i] = handlers[i].isDeterministic();
+            }
+        }
+
+        /**
+         * @return the number of handlers
+         */
+        int size() {
+            return handlers.length;
+        }
+
+        Handler getHandler(int index) {
+            return handlers[index];
+        }
+
+        /**
+         * Returns whether the handler at the given index should be called for the given identifier.
+         *
+         * @param index the index of the handler
+         * @param identifier the identifier being resolved
+         * @return true if the handler should be called, false otherwise
+         */
+        boolean appliesTo(int index, ObjectIdentifier identifier) {
+            long mask = requiredAnnotationMasks[index];
+            return mask == 0 || identifier.mayHaveAnnotationOf(mask);
+        }
+
+        /**
+         * @param index the index of the handler
+         * @return true if the handler is deterministic, false otherwise
+         */
+        boolean isDeterministic(int index) {
+            return deterministic[index];
+        }
+
+        /**
+         * Returns the index of the deterministic handler which last resolved the given identifier.
+         *
+         * @param identifier the identifier
+         * @return index of the handler, or {@link #UNKNOWN_HANDLER} if not known
+         */
+        int getResolvingHandlerIndex(ObjectIdentifier identifier) {
+            Integer index = resolvingHandlerIndices.get(identifier);
+            return index == null ? UNKNOWN_HANDLER : index;
+        }
+
+        /**
+         * Saves the index of the handler which resolved the given identifier, or removes it if
+         * {@link #UNKNOWN_HANDLER} is given.
+         *
+         * @param identifier the identifier
+         * @param index index of the handler, or {@link #UNKNOWN_HANDLER}
+         */
+        void setResolvingHandlerIndex(ObjectIdentifier identifier, int index) {
+            if (index == UNKNOWN_HANDLER) {
+                resolvingHandlerIndices.remove(identifier);
+            } else {
+                resolvingHandlerIndices.put(identifier, index);
+            }
+        }
+
+        /**
+         * Returns the index of the first handler that comes after the handler at the given index of another
+         * {@code Resolvers} instance. Used to continue with the appropriate handlers when a handler has mapped
+         * the identifier to another type.
+         *
+         * @param other the resolvers the index belongs to
+         * @param index the index of the handler in the other resolvers
+         * @return index of the first handler in this instance which is positioned after the given handler
+         */
+        int indexAfter(Resolvers other, int index) {
+            final int position = other.positions[index];
+            int i = 0;
+            while (i < positions.length && positions[i] <= position) {
+                ++i;
+            }
+            return i;
+        }
+    }
+
+    /**
+     * Arrays of handlers derived from the handlers list.
+     */
+    private static final class HandlerArrays {
+        private final int version;
+        private final Handler[][] handlersByPhase;
+        /** Types claimed by the resolving handlers by index, null for handlers which do not claim anything. */
+        private final Set<Class<?>>[] claimedTypes;
+        private final long[] claimedAnnotationMasks;
+        private final ConcurrentMap<Class<?>, Resolvers> resolversByType = new ConcurrentHashMap<>();
+        private final Resolvers resolversForUnknownType;
+
+        @SuppressWarnings("unchecked")
+        HandlerArrays(int version, List<Handler> handlers) {
+            this.version = version;
+            List<List<Handler>> phaseLists = new ArrayList<>();
+            for (int i = 0; i < HandlerPhase.values().length; ++i) {
+                phaseLists.add(new ArrayList<>());
+            }
+            for (Handler handler : handlers) {
+                for (HandlerPhase phase : getPhases(handler)) {
+                    phaseLists.get(phase.ordinal()).add(handler);
+                }
+            }
+            this.handlersByPhase = phaseLists.stream()
+                .map(list -> list.toArray(new Handler[0]))
+                .toArray(Handler[][]::new);
+
+            Handler[] resolvers = handlersByPhase[HandlerPhase.RESOLVE.ordinal()];
+            @SuppressWarnings("unchecked")
+            Set<Class<?>>[] claimedTypesArray = (Set<Class<?>>[]) new Set<?>[resolvers.length];
+            this.claimedTypes = claimedTypesArray;
+            this.claimedAnnotationMasks = new long[resolvers.length];
+            for (int i = 0; i < resolvers.length; ++i) {
+                boolean[] applicableClaims = APPLICABLE_CLAIMS.get(resolvers[i].getClass());
+                Set<Class<?>> types = applicableClaims[0]
+                    ? resolvers[i].getClaimedTypes()
+                    : Collections.emptySet();
+                Set<Class<? extends Annotation>> annotationTypes = applicableClaims[1]
+                    ? resolvers[i].getClaimedAnnotationTypes()
+                    : Collections.emptySet();
+                if (!types.isEmpty() || !annotationTypes.isEmpty()) {
+                    claimedTypes[i] = new HashSet<>(types);
+                    for (Class<? extends Annotation> annotationType : annotationTypes) {
+                        claimedAnnotationMasks[i] |= AnnotationMasks.of(annotationType);
+                    }
+                }
+            }
+            this.resolversForUnknownType = createResolvers(null);
+        }
+
+        /**
+         * Returns the phases of the given handler. A handler without any phases is considered not to have
+         * declared its phases, e.g. if it is a mock, so the phases are taken from its overridden methods.
+         */
+        private static Set<HandlerPhase> getPhases(Handler handler) {
+            Set<HandlerPhase> phases = handler.getPhases();
+            return phases == null || phases.isEmpty()
+                ? HandlerPhase.getOverriddenPhases(handler.getClass())
+                : phases;
+        }
+
+        Resolvers createResolvers(@Nullable Class<?> rawType) {
+            Handler[] resolvers = handlersByPhase[HandlerPhase.RESOLVE.ordinal()];
+            List<Handler> applicableHandlers = new ArrayList<>(resolvers.length);
+            int[] positions = new int[resolvers.length];
+            long[] masks = new long[resolvers.length];
+            for (int i = 0; i < resolvers.length; ++i) {
+                if (claimedTypes[i] == null || claimedTypes[i].contains(rawType)) {
+                    positions[applicableHandlers.size()] = i;
+                    applicableHandlers.add(resolvers[i]);
+                } else if (claimedAnnotationMasks[i] != 0) {
+                    positions[applicableHandlers.size()] = i;
+                    masks[applicableHandlers.size()] = claimedAnnotationMasks[i];
+                    applicableHandlers.add(resolvers[i]);
+                }
+            }
+            int size = applicableHandlers.size();
+            return new Resolvers(applicableHandlers.toArray(new Handler[size]),
+                Arrays.copyOf(positions, size), Arrays.copyOf(masks, size));
+        }
+    }
+
+    /**
+     * List of handlers which keeps track of any modification made to it. The version is volatile, as the arrays
+     * derived from the handlers may be checked for changes by other threads than the one modifying the list.
+     */
+    private static final class HandlerList extends AbstractList<Handler> {
+
+        private final List<Handler> handlers = new ArrayList<>();
+        private volatile int version;
+
+        @Override
+        public Handler get(int index) {
+            return handlers.get(index);
+        }
+
+        @Override
+        public int size() {
+            return handlers.size();
+        }
+
+        @Override
+        public Handler set(int index, Handler element) {
+            Handler previous = handlers.set(index, element);
+            ++version;
+            return previous;
+        }
+
+        @Override
+        public void add(int index, Handler element) {
+            handlers.add(index, element);
+            ++modCount;
+            ++version;
+        }
+
+        @Override
+        public Handler remove(int index) {
+            Handler removed = handlers.remove(index);
+            ++modCount;
+            ++version;
+            return removed;
+        }
+
+        int getVersion() {
+            return version;
+        }
     }
 }
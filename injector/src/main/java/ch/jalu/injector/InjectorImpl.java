@@ -6,33 +6,71 @@ import ch.jalu.injector.context.ResolutionType;
 import ch.jalu.injector.context.StandardResolutionType;
 import ch.jalu.injector.exceptions.InjectorException;
 import ch.jalu.injector.handlers.Handler;
+import ch.jalu.injector.handlers.HandlerPhase;
+import ch.jalu.injector.handlers.instantiation.ProviderHandler;
 import ch.jalu.injector.handlers.instantiation.Resolution;
+import ch.jalu.injector.scopes.Scope;
 import ch.jalu.injector.utils.InjectorUtils;
+import ch.jalu.injector.utils.ReflectionUtils;
 
 import javax.annotation.Nullable;
 import javax.inject.Provider;
 import java.lang.annotation.Annotation;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
 
 import static ch.jalu.injector.context.StandardResolutionType.REQUEST_SCOPED;
 import static ch.jalu.injector.context.StandardResolutionType.REQUEST_SCOPED_IF_HAS_DEPENDENCIES;
 import static ch.jalu.injector.context.StandardResolutionType.SINGLETON;
 import static ch.jalu.injector.utils.InjectorUtils.checkNotNull;
-import static ch.jalu.injector.utils.InjectorUtils.containsNullValue;
 import static ch.jalu.injector.utils.InjectorUtils.firstNotNull;
 import static ch.jalu.injector.utils.InjectorUtils.rethrowException;
 
 /**
  * Implementation of {@link Injector}.
+ * <p>
+ * This implementation is thread-safe: existing singletons are retrieved without locking, and each singleton is
+ * guaranteed to be created only once, even if multiple threads request it at the same time. Singletons which
+ * do not depend on each other may be created in parallel.
+ * <p>
+ * Request-scoped and {@link Scope scoped} objects are created with a {@link ResolutionPlan} after they have been
+ * resolved once, which
+ * skips the handlers' resolve methods and only runs the handlers which actually post process objects.
+ * <p>
+ * {@link #createChild Child injectors} share the configuration of their parent and see the parent's singletons.
+ * Singletons, providers and plans of a child injector are only kept by the child.
  */
 public class InjectorImpl implements Injector {
 
-    protected Map<Class<?>, Object> objects;
+    /** Returned while resolving a context to signal that a frame was pushed for the object's creation. */
+    private static final Object PENDING = new Object();
+
+    @Nullable
+    private final InjectorImpl parent;
+    private final BindingTable objects;
+    private final SingletonTypeIndex typeIndex;
     protected InjectorConfig config;
+    private final SingletonCreationLocks creationLocks = new SingletonCreationLocks();
+    private volatile ConcurrentMap<Class<?>, ResolutionPlan> plans = new ConcurrentHashMap<>();
+    private volatile ConcurrentMap<ResolutionType, ConcurrentMap<Class<?>, ResolutionPlan>> scopedPlans =
+        new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, PlannedProvider<?>> providers = new ConcurrentHashMap<>();
+    private volatile boolean frozen;
+    // Providers registered with a child injector; null for the root injector, whose providers go to the handlers
+    @Nullable
+    private final ProviderHandler childProviders;
 
     /**
      * Constructor.
@@ -41,34 +79,60 @@ public class InjectorImpl implements Injector {
      * @see InjectorBuilder
      */
     protected InjectorImpl(InjectorConfig config) {
+        this(config, null);
+    }
+
+    private InjectorImpl(InjectorConfig config, @Nullable InjectorImpl parent) {
         this.config = config;
-        this.objects = new HashMap<>();
-        this.objects.put(Injector.class, this);
+        this.parent = parent;
+        this.objects = new BindingTable(parent == null ? null : parent.objects);
+        this.typeIndex = new SingletonTypeIndex(parent == null ? null : parent.typeIndex);
+        this.childProviders = parent == null ? null : new ProviderHandler();
+        this.objects.putIfAbsent(Injector.class, this);
+        this.typeIndex.add(this);
     }
 
     @Override
     public <T> void register(Class<? super T> clazz, T object) {
-        if (objects.containsKey(clazz)) {
+        checkNotFrozen();
+        registerObject(clazz, object);
+    }
+
+    private <T> void registerObject(Class<? super T> clazz, T object) {
+        if (objects.get(clazz) != null) {
             throw new InjectorException("There is already an object present for " + clazz);
         }
         checkNotNull(object);
-        objects.put(clazz, object);
+        if (objects.putIfAbsent(clazz, object) != null) {
+            throw new InjectorException("There is already an object present for " + clazz);
+        }
+        typeIndex.add(object);
     }
 
     @Override
     public void provide(Class<? extends Annotation> clazz, Object object) {
         checkNotNull(clazz, "Provided annotation may not be null");
+        checkIsRootInjector();
+        checkNotFrozen();
         try {
-            for (Handler handler : config.getHandlers()) {
+            for (Handler handler : config.getHandlers(HandlerPhase.ON_ANNOTATION)) {
                 handler.onAnnotation(clazz, object);
             }
         } catch (Exception e) {
             rethrowException(e);
+        } finally {
+            config.refreshHandlerClaims();
+            discardPlans();
         }
     }
 
     @Override
     public <T> T getSingleton(Class<T> clazz) {
+        // Fast path for existing singletons: look up the object before creating any context objects
+        Object knownSingleton = clazz == null ? null : objects.get(clazz);
+        if (knownSingleton != null) {
+            return clazz.cast(knownSingleton);
+        }
         return resolve(SINGLETON, clazz);
     }
 
@@ -77,6 +141,19 @@ public class InjectorImpl implements Injector {
         return resolve(REQUEST_SCOPED, clazz);
     }
 
+    @Override
+    public <T> T get(Class<T> clazz, ResolutionType resolutionType) {
+        checkNotNull(resolutionType, "Resolution type may not be null");
+        return resolve(resolutionType, clazz);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Provider<T> getProvider(Class<T> clazz) {
+        checkNotNull(clazz, "Class may not be null");
+        return (Provider<T>) providers.computeIfAbsent(clazz, PlannedProvider::new);
+    }
+
     @Override
     public <T> T getIfAvailable(Class<T> clazz) {
         return clazz.cast(objects.get(clazz));
@@ -89,25 +166,59 @@ public class InjectorImpl implements Injector {
 
     @Override
     public <T> Collection<T> retrieveAllOfType(Class<T> clazz) {
-        List<T> instances = new ArrayList<>();
-        for (Object object : objects.values()) {
-            if (clazz.isInstance(object)) {
-                instances.add(clazz.cast(object));
+        return typeIndex.getAllOfType(clazz);
+    }
+
+    @Override
+    public void initializeAll(Collection<? extends Class<?>> classes, Executor executor) {
+        checkNotNull(classes, "Classes may not be null");
+        checkNotNull(executor, "Executor may not be null");
+
+        Map<Class<?>, CompletableFuture<Void>> creations = new HashMap<>();
+        Set<Class<?>> visitedClasses = new HashSet<>();
+        List<CompletableFuture<Void>> requestedCreations = new ArrayList<>();
+        for (Class<?> clazz : classes) {
+            requestedCreations.add(scheduleSingletonCreation(clazz, creations, visitedClasses, executor));
+        }
+
+        try {
+            CompletableFuture.allOf(requestedCreations.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            Throwable cause = e;
+            while (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
             }
+            rethrowException((Exception) cause);
         }
-        return instances;
     }
 
     @Override
     public <T> void registerProvider(Class<T> clazz, Provider<? extends T> provider) {
         checkNotNull(clazz, "Class may not be null");
         checkNotNull(provider, "Provider may not be null");
+        checkNotFrozen();
+        if (childProviders != null) {
+            try {
+                childProviders.onProvider(clazz, provider);
+            } catch (Exception e) {
+                rethrowException(e);
+            } finally {
+                discardPlans();
+            }
+            return;
+        }
         try {
-            for (Handler handler : config.getHandlers()) {
+            for (Handler handler : config.getHandlers(HandlerPhase.ON_PROVIDER)) {
                 handler.onProvider(clazz, provider);
             }
         } catch (Exception e) {
             rethrowException(e);
+        } finally {
+            config.refreshHandlerClaims();
+            discardPlans();
         }
     }
 
@@ -115,19 +226,75 @@ public class InjectorImpl implements Injector {
     public <T, P extends Provider<? extends T>> void registerProvider(Class<T> clazz, Class<P> providerClass) {
         checkNotNull(clazz, "Class may not be null");
         checkNotNull(providerClass, "Provider class may not be null");
+        checkNotFrozen();
+        if (childProviders != null) {
+            try {
+                childProviders.onProviderClass(clazz, providerClass);
+            } catch (Exception e) {
+                rethrowException(e);
+            } finally {
+                discardPlans();
+            }
+            return;
+        }
         try {
-            for (Handler handler : config.getHandlers()) {
+            for (Handler handler : config.getHandlers(HandlerPhase.ON_PROVIDER_CLASS)) {
                 handler.onProviderClass(clazz, providerClass);
             }
         } catch (Exception e) {
             rethrowException(e);
+        } finally {
+            config.refreshHandlerClaims();
+            discardPlans();
         }
     }
 
+    @Override
+    public synchronized void freeze() {
+        if (frozen) {
+            return;
+        }
+        frozen = true;
+        if (parent == null) {
+            // The configuration belongs to the root injector
+            try {
+                for (Handler handler : config.getHandlers(HandlerPhase.ON_FREEZE)) {
+                    handler.onFreeze();
+                }
+            } catch (Exception e) {
+                rethrowException(e);
+            }
+            config.freeze();
+        } else {
+            childProviders.onFreeze();
+        }
+        objects.trimToSize();
+        typeIndex.trimToSize();
+    }
+
+    @Override
+    public Injector createChild() {
+        return new InjectorImpl(config, this);
+    }
+
     public InjectorConfig getConfig() {
         return config;
     }
 
+    private void checkIsRootInjector() {
+        if (parent != null) {
+            throw new InjectorException("Annotation values can only be provided to the root injector, as child "
+                + "injectors share its handlers");
+        }
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new InjectorException("The injector is frozen: no objects, providers or annotation values can be "
+                + "registered anymore");
+        }
+    }
+
     @SuppressWarnings("unchecked")
     private <T> T resolve(ResolutionType resolutionType, Class<?> clazz) {
         return (T) resolveContext(
@@ -136,18 +303,97 @@ public class InjectorImpl implements Injector {
 
     /**
      * Returns the object as defined by the given context.
+     * <p>
+     * Dependencies are resolved with an explicit stack of {@link ResolutionFrame frames}: the depth of the
+     * dependency graph does not affect the depth of the call stack.
      *
      * @param context the context to resolve the object for
      * @return the resolved object, {@code null} if the context specifies it is optional and some criteria is not met
      */
     @Nullable
     protected Object resolveContext(ResolutionContext context) {
+        final Deque<ResolutionFrame> stack = new ArrayDeque<>();
+        try {
+            return resolveFrames(beginResolution(context, stack), stack);
+        } finally {
+            // Only non-empty if an exception was thrown
+            for (ResolutionFrame frame : stack) {
+                frame.releaseCreation(creationLocks);
+            }
+        }
+    }
+
+    /**
+     * Creates the object of the given context with the given plan, skipping the lookup of the plan.
+     *
+     * @param context the resolution context
+     * @param plan the plan to create the object with
+     * @return the created object
+     */
+    @Nullable
+    private Object resolveContextWithPlan(ResolutionContext context, ResolutionPlan plan) {
+        final Deque<ResolutionFrame> stack = new ArrayDeque<>();
+        try {
+            return resolveFrames(pushPlannedFrame(context, plan, stack), stack);
+        } finally {
+            for (ResolutionFrame frame : stack) {
+                frame.releaseCreation(creationLocks);
+            }
+        }
+    }
+
+    /**
+     * Processes the frames on the stack until it is empty.
+     *
+     * @param initialValue the value returned by the resolution of the initial context
+     * @param stack the stack of frames being resolved
+     * @return the object of the first frame that was pushed onto the stack, or the initial value if the stack is empty
+     */
+    @Nullable
+    private Object resolveFrames(@Nullable Object initialValue, Deque<ResolutionFrame> stack) {
+        Object value = initialValue;
+        ResolutionFrame frame;
+        while ((frame = stack.peek()) != null) {
+            if (frame.isAwaitingDependency()) {
+                frame.acceptDependency(value);
+            }
+            ObjectIdentifier dependency = frame.nextDependency(objects);
+            if (dependency == null) {
+                stack.pop();
+                value = completeResolution(frame);
+            } else {
+                value = beginResolution(frame.getContext().createChildContext(dependency), stack);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Resolves the object of the given context if it can be returned right away, otherwise pushes a frame for its
+     * creation onto the stack.
+     *
+     * @param context the resolution context
+     * @param stack the stack of frames being resolved
+     * @return the resolved object (may be null), or {@link #PENDING} if a frame was pushed
+     */
+    @Nullable
+    private Object beginResolution(ResolutionContext context, Deque<ResolutionFrame> stack) {
         // TODO #49: Convert singleton store to a Handler impl.
-        if (context.getIdentifier().getResolutionType() == StandardResolutionType.SINGLETON) {
+        final ResolutionType resolutionType = context.getIdentifier().getResolutionType();
+        if (resolutionType == StandardResolutionType.SINGLETON) {
             Object knownSingleton = objects.get(context.getIdentifier().getTypeAsClass());
             if (knownSingleton != null) {
                 return knownSingleton;
             }
+        } else if (resolutionType instanceof Scope) {
+            Object scopedObject = ((Scope) resolutionType).getStorage().get(context.getIdentifier().getTypeAsClass());
+            if (scopedObject != null) {
+                return scopedObject;
+            }
+        }
+
+        if (isPlannable(context)) {
+            return beginResolutionWithPlan(context, stack);
         }
 
         Resolution<?> resolution = findResolutionOrFail(context);
@@ -155,42 +401,265 @@ public class InjectorImpl implements Injector {
             return null;
         }
 
-        Object[] resolvedDependencies = resolveDependencies(context, resolution);
-        if (containsNullValue(resolvedDependencies)) {
-            throwForUnexpectedNullDependency(context);
+        ResolutionFrame frame = new ResolutionFrame(context, resolution);
+        if (resolution.isInstantiation() && context.getIdentifier().getResolutionType() == SINGLETON) {
+            return beginSingletonCreation(frame, stack);
+        }
+        stack.push(frame);
+        return PENDING;
+    }
+
+    /**
+     * Schedules the creation of the singleton of the given class on the executor once all of its singleton
+     * dependencies have been created, whose creation is scheduled first.
+     *
+     * @param clazz the class to create the singleton of
+     * @param creations the singleton creations scheduled so far, by class
+     * @param visitedClasses classes whose dependencies have been or are being processed
+     * @param executor the executor to create the singleton with
+     * @return future of the singleton creation, or null if the class is already being processed (cyclic dependency)
+     */
+    @Nullable
+    private CompletableFuture<Void> scheduleSingletonCreation(Class<?> clazz,
+                                                              Map<Class<?>, CompletableFuture<Void>> creations,
+                                                              Set<Class<?>> visitedClasses, Executor executor) {
+        CompletableFuture<Void> creation = creations.get(clazz);
+        if (creation != null) {
+            return creation;
+        } else if (objects.get(clazz) != null) {
+            creation = CompletableFuture.completedFuture(null);
+            creations.put(clazz, creation);
+            return creation;
+        } else if (!visitedClasses.add(clazz)) {
+            // Cyclic dependency: don't wait for the class so that the cycle is reported when it's being created
             return null;
         }
 
-        Object object = runPostConstructHandlers(resolution.instantiateWith(resolvedDependencies), context, resolution);
-        if (resolution.isInstantiation() && context.getIdentifier().getResolutionType() == SINGLETON) {
-            register((Class) context.getOriginalIdentifier().getTypeAsClass(), object);
+        ResolutionContext context = new ResolutionContext(this, new ObjectIdentifier(SINGLETON, clazz));
+        List<CompletableFuture<Void>> dependencyCreations = new ArrayList<>();
+        for (ObjectIdentifier dependency : findResolutionOrFail(context).getDependencies()) {
+            if (isInstantiatedSingleton(context, dependency)) {
+                CompletableFuture<Void> dependencyCreation = scheduleSingletonCreation(
+                    (Class<?>) dependency.getType(), creations, visitedClasses, executor);
+                if (dependencyCreation != null) {
+                    dependencyCreations.add(dependencyCreation);
+                }
+            }
+        }
+
+        creation = CompletableFuture.allOf(dependencyCreations.toArray(new CompletableFuture<?>[0]))
+            .thenRunAsync(() -> getSingleton(clazz), executor);
+        creations.put(clazz, creation);
+        return creation;
+    }
+
+    /**
+     * Returns whether the given dependency is a singleton which the handlers instantiate, i.e. whose creation can
+     * be scheduled by its class. All other dependencies (e.g. annotated ones, which are typically resolved by
+     * annotation handlers) are left to be resolved during the creation of the object which depends on them.
+     *
+     * @param context the context of the object with the dependency
+     * @param dependency the dependency to process
+     * @return true if the dependency's singleton can be created independently, false otherwise
+     */
+    private boolean isInstantiatedSingleton(ResolutionContext context, ObjectIdentifier dependency) {
+        if (dependency.getResolutionType() != SINGLETON || !(dependency.getType() instanceof Class<?>)
+            || !dependency.getAnnotations().isEmpty()) {
+            return false;
+        }
+        try {
+            return findResolutionOrFail(context.createChildContext(dependency)).isInstantiation();
+        } catch (InjectorException e) {
+            // Reported when the dependency is resolved for the object which depends on it
+            return false;
         }
-        return object;
     }
 
     /**
-     * Resolves the dependencies as defined by the given resolution.
-     * If a dependency is resolved to {@code null}, the process is aborted and the remaining dependencies
-     * are not resolved.
+     * Returns whether the object of the given context may be created with a {@link ResolutionPlan}. Plans are
+     * only used for request-scoped and scoped objects that are requested directly from the injector by class,
+     * i.e. where the handlers have no information to base their resolution on besides the class and the
+     * resolution type.
      *
      * @param context the resolution context
-     * @param resolution the resolution whose dependencies should be provided
-     * @return array with the dependencies, in the same order as given by the resolution
+     * @return true if a plan can be used, false otherwise
      */
-    protected Object[] resolveDependencies(ResolutionContext context, Resolution<?> resolution) {
-        final int totalDependencies = resolution.getDependencies().size();
-        final Object[] resolvedDependencies = new Object[totalDependencies];
+    private static boolean isPlannable(ResolutionContext context) {
+        ObjectIdentifier identifier = context.getIdentifier();
+        return (identifier.getResolutionType() == REQUEST_SCOPED || identifier.getResolutionType() instanceof Scope)
+            && identifier.getType() instanceof Class<?>
+            && identifier.getAnnotations().isEmpty()
+            && context.getParent() == null;
+    }
 
-        int index = 0;
-        for (ObjectIdentifier dependencyId : resolution.getDependencies()) {
-            Object dependency = resolveContext(context.createChildContext(dependencyId));
-            if (dependency == null) {
-                break;
+    /**
+     * Pushes a frame for the creation of the object of the given context with the plan that was compiled for its
+     * class. If no valid plan exists, the object is resolved with the handlers and the frame is set up to compile
+     * a plan for subsequent requests.
+     *
+     * @param context the resolution context
+     * @param stack the stack of frames being resolved
+     * @return {@link #PENDING}
+     */
+    private Object beginResolutionWithPlan(ResolutionContext context, Deque<ResolutionFrame> stack) {
+        final ResolutionType resolutionType = context.getIdentifier().getResolutionType();
+        final ConcurrentMap<Class<?>, ResolutionPlan> currentPlans = getPlans(resolutionType);
+        final int handlersVersion = config.getHandlersVersion();
+        final Class<?> clazz = context.getIdentifier().getTypeAsClass();
+
+        ResolutionPlan plan = findPlan(currentPlans, clazz, handlersVersion);
+        if (plan != null) {
+            return pushPlannedFrame(context, plan, stack);
+        }
+        ResolutionFrame frame = new ResolutionFrame(context, findResolutionOrFail(context));
+        frame.savePlanOnCompletion(currentPlans, handlersVersion);
+        stack.push(frame);
+        return PENDING;
+    }
+
+    private static Object pushPlannedFrame(ResolutionContext context, ResolutionPlan plan,
+                                           Deque<ResolutionFrame> stack) {
+        if (plan.getMappedIdentifier() != context.getIdentifier()) {
+            context.setIdentifier(plan.getMappedIdentifier());
+        }
+        stack.push(new ResolutionFrame(context, plan));
+        return PENDING;
+    }
+
+    /**
+     * Returns the plans of this injector for objects of the given resolution type. Plans are not shared with child
+     * injectors: a plan keeps the resolutions and post-processors of the injector that compiled it, whereas a child
+     * may resolve a class differently (e.g. with a provider registered only with the child).
+     *
+     * @param resolutionType the resolution type ({@link StandardResolutionType#REQUEST_SCOPED} or a scope)
+     * @return the plans by class
+     */
+    private ConcurrentMap<Class<?>, ResolutionPlan> getPlans(ResolutionType resolutionType) {
+        if (resolutionType == REQUEST_SCOPED) {
+            return plans;
+        }
+        final ConcurrentMap<ResolutionType, ConcurrentMap<Class<?>, ResolutionPlan>> currentScopedPlans = scopedPlans;
+        ConcurrentMap<Class<?>, ResolutionPlan> plansOfScope = currentScopedPlans.get(resolutionType);
+        return plansOfScope == null
+            ? currentScopedPlans.computeIfAbsent(resolutionType, type -> new ConcurrentHashMap<>())
+            : plansOfScope;
+    }
+
+    /**
+     * Returns the valid plan for the given class.
+     *
+     * @param plansByClass the plans to look up
+     * @param clazz the class to get the plan for
+     * @param handlersVersion the current version of the handlers
+     * @return the plan, or null if there is no valid plan
+     */
+    @Nullable
+    private static ResolutionPlan findPlan(ConcurrentMap<Class<?>, ResolutionPlan> plansByClass, Class<?> clazz,
+                                           int handlersVersion) {
+        ResolutionPlan plan = plansByClass.get(clazz);
+        return plan != null && plan.isValidFor(handlersVersion) ? plan : null;
+    }
+
+    /**
+     * Discards all compiled plans, e.g. because a handler may resolve objects differently after it has been
+     * notified of a new provider.
+     */
+    private void discardPlans() {
+        plans = new ConcurrentHashMap<>();
+        scopedPlans = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Claims the creation of the singleton of the given frame and pushes the frame onto the stack. Makes sure that
+     * only one thread creates the singleton: if another thread is already creating it, the current thread waits
+     * for it and returns the singleton that was created.
+     *
+     * @param frame the frame of the singleton to create
+     * @param stack the stack of frames being resolved
+     * @return the singleton if it was created in the meantime, otherwise {@link #PENDING}
+     */
+    private Object beginSingletonCreation(ResolutionFrame frame, Deque<ResolutionFrame> stack) {
+        final Class<?> clazz = frame.getContext().getOriginalIdentifier().getTypeAsClass();
+        while (true) {
+            Object singleton = objects.get(clazz);
+            if (singleton != null) {
+                return singleton;
+            }
+
+            SingletonCreationLocks.Creation creation = creationLocks.acquire(clazz);
+            if (creation != null) {
+                // Check again as the singleton might have been created just before we acquired the lock
+                singleton = objects.get(clazz);
+                if (singleton != null) {
+                    creationLocks.release(creation);
+                    return singleton;
+                }
+                frame.setCreation(creation);
+                stack.push(frame);
+                return PENDING;
             }
-            resolvedDependencies[index] = dependency;
-            ++index;
         }
-        return resolvedDependencies;
+    }
+
+    /**
+     * Creates the object of the given frame, whose dependencies have been resolved, and runs the post construct
+     * handlers. Newly created singletons are registered.
+     *
+     * @param frame the frame to complete
+     * @return the created object, or null if a dependency was resolved to null
+     */
+    @Nullable
+    private Object completeResolution(ResolutionFrame frame) {
+        final ResolutionContext context = frame.getContext();
+        final Resolution<?> resolution = frame.getResolution();
+        try {
+            if (frame.hasNullDependency()) {
+                throwForUnexpectedNullDependency(context);
+                return null;
+            }
+
+            Handler[] postProcessors = frame.getPostProcessors() == null
+                ? config.getPostProcessors()
+                : frame.getPostProcessors();
+            Object object = runPostConstructHandlers(resolution.instantiateWith(frame.getResolvedDependencies()),
+                context, resolution, postProcessors);
+            final ResolutionType resolutionType = context.getIdentifier().getResolutionType();
+            if (resolution.isInstantiation() && resolutionType == SINGLETON) {
+                registerObject((Class) context.getOriginalIdentifier().getTypeAsClass(), object);
+            } else if (resolution.isInstantiation() && resolutionType instanceof Scope) {
+                // Another thread of the scope may have created the object in the meantime
+                object = ((Scope) resolutionType).getStorage()
+                    .putIfAbsent(context.getOriginalIdentifier().getTypeAsClass(), object);
+            }
+            if (frame.getPlansToSaveTo() != null && resolution.isInstantiation()) {
+                // Plans are only saved after a successful creation, so validation errors are always thrown again
+                frame.getPlansToSaveTo().put(context.getOriginalIdentifier().getTypeAsClass(),
+                    new ResolutionPlan(context.getIdentifier(), resolution, resolution.getDependencies(),
+                        getPostProcessorsFor(resolution), frame.getHandlersVersion()));
+            }
+            return object;
+        } finally {
+            frame.releaseCreation(creationLocks);
+        }
+    }
+
+    /**
+     * Returns the post processing handlers which need to process the objects created by the given resolution.
+     *
+     * @param resolution the resolution a plan is compiled for
+     * @return the handlers to keep in the plan
+     */
+    private Handler[] getPostProcessorsFor(Resolution<?> resolution) {
+        Handler[] postProcessors = config.getPostProcessors();
+        List<Handler> applicablePostProcessors = new ArrayList<>(postProcessors.length);
+        for (Handler handler : postProcessors) {
+            if (handler.isPostProcessorFor(resolution)) {
+                applicablePostProcessors.add(handler);
+            }
+        }
+        return applicablePostProcessors.size() == postProcessors.length
+            ? postProcessors
+            : applicablePostProcessors.toArray(new Handler[0]);
     }
 
     /**
@@ -210,8 +679,8 @@ public class InjectorImpl implements Injector {
     }
 
     private static boolean isContextChildOfOptionalRequest(ResolutionContext context) {
-        return !context.getParents().isEmpty()
-            && context.getParents().get(0).getIdentifier().getResolutionType() == REQUEST_SCOPED_IF_HAS_DEPENDENCIES;
+        return context.getParent() != null
+            && context.getRoot().getIdentifier().getResolutionType() == REQUEST_SCOPED_IF_HAS_DEPENDENCIES;
     }
 
     /**
@@ -222,12 +691,46 @@ public class InjectorImpl implements Injector {
      * @return the resolution
      */
     protected Resolution<?> findResolutionOrFail(ResolutionContext context) {
+        if (childProviders != null) {
+            Resolution<?> childResolution = resolveWithChildProviders(context);
+            if (childResolution != null) {
+                return childResolution;
+            }
+        }
+        final ObjectIdentifier requestedIdentifier = context.getIdentifier();
+        ObjectIdentifier identifier = requestedIdentifier;
+        InjectorConfig.Resolvers resolvers = config.getResolvers(identifier);
+        // Index of the deterministic handler that resolved the identifier previously. The deterministic handlers
+        // before it are skipped; should it not resolve the identifier anymore, they are called in a second pass.
+        int knownIndex = resolvers.getResolvingHandlerIndex(identifier);
+        boolean isSecondPass = false;
         try {
-            for (Handler handler : config.getHandlers()) {
-                Resolution<?> resolution = handler.resolve(context);
-                if (resolution != null) {
-                    return resolution;
+            int i = 0;
+            while (i < resolvers.size()) {
+                if (!isSkippedHandler(resolvers, i, knownIndex, isSecondPass)
+                    && resolvers.appliesTo(i, identifier)) {
+                    Resolution<?> resolution = resolvers.getHandler(i).resolve(context);
+                    if (resolution != null) {
+                        if (identifier == requestedIdentifier && i != knownIndex && resolvers.isDeterministic(i)) {
+                            resolvers.setResolvingHandlerIndex(identifier, i);
+                        }
+                        return resolution;
+                    } else if (context.getIdentifier() != identifier) {
+                        // The identifier was mapped: continue with the handlers that apply to the new identifier
+                        identifier = context.getIdentifier();
+                        InjectorConfig.Resolvers previousResolvers = resolvers;
+                        resolvers = config.getResolvers(identifier);
+                        i = resolvers.indexAfter(previousResolvers, i);
+                        knownIndex = InjectorConfig.Resolvers.UNKNOWN_HANDLER;
+                        continue;
+                    } else if (i == knownIndex && !isSecondPass) {
+                        resolvers.setResolvingHandlerIndex(identifier, InjectorConfig.Resolvers.UNKNOWN_HANDLER);
+                        isSecondPass = true;
+                        i = 0;
+                        continue;
+                    }
                 }
+                ++i;
             }
         } catch (Exception e) {
             rethrowException(e);
@@ -250,6 +753,45 @@ public class InjectorImpl implements Injector {
             + "require the default constructor");
     }
 
+    /**
+     * Resolves the given context with the providers registered with this child injector, if one of them
+     * is responsible for the requested type (or for the type of a requested {@link Provider}).
+     *
+     * @param context the resolution context
+     * @return the resolution, or null if no provider of this child injector applies
+     */
+    @Nullable
+    private Resolution<?> resolveWithChildProviders(ResolutionContext context) {
+        ObjectIdentifier identifier = context.getIdentifier();
+        Class<?> type = Provider.class.equals(identifier.getTypeAsClass())
+            ? ReflectionUtils.getGenericType(identifier.getType())
+            : identifier.getTypeAsClass();
+        return type != null && childProviders.hasProvider(type) ? childProviders.resolve(context) : null;
+    }
+
+    /**
+     * Returns whether the handler at the given index should be skipped while resolving an identifier whose
+     * resolving handler is known. In the first pass, the deterministic handlers before the known handler are
+     * skipped. In the second pass, which is done if the known handler did not resolve the identifier, only
+     * these handlers and the ones after the known handler are called.
+     *
+     * @param resolvers the handlers
+     * @param index index of the handler to check
+     * @param knownIndex index of the handler known to resolve the identifier, or
+     *                   {@link InjectorConfig.Resolvers#UNKNOWN_HANDLER}
+     * @param isSecondPass whether it is the second pass
+     * @return true if the handler should not be called, false otherwise
+     */
+    private static boolean isSkippedHandler(InjectorConfig.Resolvers resolvers, int index, int knownIndex,
+                                            boolean isSecondPass) {
+        if (index > knownIndex) {
+            return false;
+        } else if (isSecondPass) {
+            return index == knownIndex || !resolvers.isDeterministic(index);
+        }
+        return index < knownIndex && resolvers.isDeterministic(index);
+    }
+
     /**
      * Invokes the handler's post construct method when appropriate. Returns the object as returned by the
      * handlers, which may be different from the provided one.
@@ -261,13 +803,18 @@ public class InjectorImpl implements Injector {
      * @return the object to use (as post construct methods may change it)
      */
     protected <T> T runPostConstructHandlers(T instance, ResolutionContext context, Resolution<?> resolution) {
+        return runPostConstructHandlers(instance, context, resolution, config.getPostProcessors());
+    }
+
+    private <T> T runPostConstructHandlers(T instance, ResolutionContext context, Resolution<?> resolution,
+                                           Handler[] postProcessors) {
         if (!resolution.isInstantiation()) {
             return instance;
         }
 
         T object = instance;
         try {
-            for (Handler handler : config.getHandlers()) {
+            for (Handler handler : postProcessors) {
                 object = firstNotNull(handler.postProcess(object, context, resolution), object);
             }
         } catch (Exception e) {
@@ -275,4 +822,33 @@ public class InjectorImpl implements Injector {
         }
         return object;
     }
+
+    /**
+     * Provider which creates new instances of a class. It keeps the plan of the class once it has been compiled,
+     * so that subsequent calls only check that the plan is still valid before creating the object with it.
+     *
+     * @param <T> the object type
+     */
+    private final class PlannedProvider<T> implements Provider<T> {
+        private final Class<T> clazz;
+        private final ObjectIdentifier identifier;
+        private volatile ResolutionPlan plan;
+
+        PlannedProvider(Class<T> clazz) {
+            this.clazz = clazz;
+            this.identifier = new ObjectIdentifier(REQUEST_SCOPED, clazz);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get() {
+            ResolutionPlan currentPlan = plan;
+            if (currentPlan != null && currentPlan.isValidFor(config.getHandlersVersion())) {
+                return (T) resolveContextWithPlan(new ResolutionContext(InjectorImpl.this, identifier), currentPlan);
+            }
+            T object = newInstance(clazz);
+            plan = findPlan(plans, clazz, config.getHandlersVersion());
+            return object;
+        }
+    }
 }
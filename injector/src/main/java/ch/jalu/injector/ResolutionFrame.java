@@ -0,0 +1,181 @@
+package ch.jalu.injector;
+
+import ch.jalu.injector.context.ObjectIdentifier;
+import ch.jalu.injector.context.ResolutionContext;
+import ch.jalu.injector.handlers.Handler;
+import ch.jalu.injector.handlers.instantiation.Resolution;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Object whose dependencies are being resolved by the injector. Frames are kept on an explicit stack instead of
+ * resolving dependencies recursively, so that deep dependency graphs do not need a deep call stack.
+ */
+final class ResolutionFrame {
+
+    private final ResolutionContext context;
+    private final Resolution<?> resolution;
+    private final List<ObjectIdentifier> dependencies;
+    @Nullable
+    private final int[] singletonIds;
+    @Nullable
+    private final Handler[] postProcessors;
+    private final Object[] resolvedDependencies;
+    private int index;
+    private boolean awaitingDependency;
+    private boolean hasNullDependency;
+
+    @Nullable
+    private SingletonCreationLocks.Creation creation;
+    @Nullable
+    private ConcurrentMap<Class<?>, ResolutionPlan> plansToSaveTo;
+    private int handlersVersion;
+
+    /**
+     * Constructor.
+     *
+     * @param context the context of the object to create
+     * @param resolution the resolution to create the object with
+     */
+    ResolutionFrame(ResolutionContext context, Resolution<?> resolution) {
+        this.context = context;
+        this.resolution = resolution;
+        this.dependencies = resolution.getDependencies();
+        this.singletonIds = null;
+        this.postProcessors = null;
+        this.resolvedDependencies = new Object[dependencies.size()];
+    }
+
+    /**
+     * Constructor for objects created with a plan.
+     *
+     * @param context the context of the object to create
+     * @param plan the plan to create the object with
+     */
+    ResolutionFrame(ResolutionContext context, ResolutionPlan plan) {
+        this.context = context;
+        this.resolution = plan.getResolution();
+        this.dependencies = Arrays.asList(plan.getDependencies());
+        this.singletonIds = plan.getSingletonIds();
+        this.postProcessors = plan.getPostProcessors();
+        this.resolvedDependencies = new Object[dependencies.size()];
+    }
+
+    ResolutionContext getContext() {
+        return context;
+    }
+
+    Resolution<?> getResolution() {
+        return resolution;
+    }
+
+    /**
+     * @return the post processors to run as defined by the plan, null if the configured ones should be used
+     */
+    @Nullable
+    Handler[] getPostProcessors() {
+        return postProcessors;
+    }
+
+    Object[] getResolvedDependencies() {
+        return resolvedDependencies;
+    }
+
+    /**
+     * @return true if a dependency was resolved to null, in which case the remaining ones are not resolved
+     */
+    boolean hasNullDependency() {
+        return hasNullDependency;
+    }
+
+    /**
+     * @return true if the last identifier returned by {@link #nextDependency} is still waiting for its value
+     */
+    boolean isAwaitingDependency() {
+        return awaitingDependency;
+    }
+
+    /**
+     * Returns the next dependency to resolve, or null if all dependencies have been resolved. Singleton dependencies
+     * of plans are taken directly from the given binding table if they exist. The value of the returned dependency
+     * must be passed to {@link #acceptDependency}.
+     *
+     * @param objects the injector's singletons
+     * @return the next dependency to resolve, null if there is none
+     */
+    @Nullable
+    ObjectIdentifier nextDependency(BindingTable objects) {
+        while (!hasNullDependency && index < resolvedDependencies.length) {
+            if (singletonIds != null && singletonIds[index] != ResolutionPlan.NO_SINGLETON_ID) {
+                Object singleton = objects.get(singletonIds[index]);
+                if (singleton != null) {
+                    resolvedDependencies[index] = singleton;
+                    ++index;
+                    continue;
+                }
+            }
+            awaitingDependency = true;
+            return dependencies.get(index);
+        }
+        return null;
+    }
+
+    /**
+     * Sets the value of the dependency last returned by {@link #nextDependency}.
+     *
+     * @param dependency the resolved dependency
+     */
+    void acceptDependency(@Nullable Object dependency) {
+        awaitingDependency = false;
+        if (dependency == null) {
+            hasNullDependency = true;
+        } else {
+            resolvedDependencies[index] = dependency;
+            ++index;
+        }
+    }
+
+    /**
+     * Sets the singleton creation claimed for this frame, which is released with {@link #releaseCreation}.
+     *
+     * @param creation the claimed creation
+     */
+    void setCreation(SingletonCreationLocks.Creation creation) {
+        this.creation = creation;
+    }
+
+    /**
+     * Releases the singleton creation of this frame, if applicable.
+     *
+     * @param creationLocks the locks the creation was claimed from
+     */
+    void releaseCreation(SingletonCreationLocks creationLocks) {
+        if (creation != null) {
+            creationLocks.release(creation);
+            creation = null;
+        }
+    }
+
+    /**
+     * Defines that a plan should be saved to the given map once the object has been created successfully.
+     *
+     * @param plans the map to save the plan to
+     * @param handlersVersion the version of the handlers the resolution was found with
+     */
+    void savePlanOnCompletion(ConcurrentMap<Class<?>, ResolutionPlan> plans, int handlersVersion) {
+        this.plansToSaveTo = plans;
+        this.handlersVersion = handlersVersion;
+    }
+
+    @Nullable
+    ConcurrentMap<Class<?>, ResolutionPlan> getPlansToSaveTo() {
+        return plansToSaveTo;
+    }
+
+    int getHandlersVersion() {
+        return handlersVersion;
+    }
+}
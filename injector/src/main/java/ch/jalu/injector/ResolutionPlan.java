@@ -0,0 +1,77 @@
+package ch.jalu.injector;
+
+import ch.jalu.injector.context.ObjectIdentifier;
+import ch.jalu.injector.handlers.Handler;
+import ch.jalu.injector.handlers.instantiation.Resolution;
+
+import java.util.List;
+
+import static ch.jalu.injector.context.StandardResolutionType.SINGLETON;
+
+/**
+ * Plan to create an object, compiled the first time the object was resolved successfully. It contains the
+ * outcome of the handler chain so that subsequent requests for the same object can skip the handlers' resolve
+ * methods: the identifier the request was mapped to, the resolution to instantiate with, the dependencies of
+ * the resolution and the handlers which post process the newly created object. Singleton dependencies keep the
+ * {@link BindingTable binding ID} of their class so that existing singletons can be retrieved directly.
+ * <p>
+ * A plan is only valid as long as the handlers it was created with have not changed.
+ */
+final class ResolutionPlan {
+
+    /** Entry in {@link #getSingletonIds()} for dependencies which are not singletons identified by class. */
+    static final int NO_SINGLETON_ID = -1;
+
+    private final ObjectIdentifier mappedIdentifier;
+    private final Resolution<?> resolution;
+    private final ObjectIdentifier[] dependencies;
+    private final int[] singletonIds;
+    private final Handler[] postProcessors;
+    private final int handlersVersion;
+
+    ResolutionPlan(ObjectIdentifier mappedIdentifier, Resolution<?> resolution, List<ObjectIdentifier> dependencies,
+                   Handler[] postProcessors, int handlersVersion) {
+        this.mappedIdentifier = mappedIdentifier;
+        this.resolution = resolution;
+        this.dependencies = dependencies.toArray(new ObjectIdentifier[0]);
+        this.singletonIds = new int[this.dependencies.length];
+        for (int i = 0; i < this.dependencies.length; ++i) {
+            ObjectIdentifier dependency = this.dependencies[i];
+            singletonIds[i] = dependency.getResolutionType() == SINGLETON && dependency.getType() instanceof Class<?>
+                ? BindingTable.getId((Class<?>) dependency.getType())
+                : NO_SINGLETON_ID;
+        }
+        this.postProcessors = postProcessors;
+        this.handlersVersion = handlersVersion;
+    }
+
+    ObjectIdentifier getMappedIdentifier() {
+        return mappedIdentifier;
+    }
+
+    Resolution<?> getResolution() {
+        return resolution;
+    }
+
+    ObjectIdentifier[] getDependencies() {
+        return dependencies;
+    }
+
+    /**
+     * Returns the binding ID of each dependency's class if the dependency is a singleton identified by class,
+     * otherwise {@link #NO_SINGLETON_ID}. The entries correspond to {@link #getDependencies()} by index.
+     *
+     * @return binding IDs of the singleton dependencies
+     */
+    int[] getSingletonIds() {
+        return singletonIds;
+    }
+
+    Handler[] getPostProcessors() {
+        return postProcessors;
+    }
+
+    boolean isValidFor(int currentHandlersVersion) {
+        return handlersVersion == currentHandlersVersion;
+    }
+}
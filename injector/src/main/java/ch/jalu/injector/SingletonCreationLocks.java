@@ -0,0 +1,96 @@
+package ch.jalu.injector;
+
+import ch.jalu.injector.exceptions.InjectorException;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Keeps track of the singletons that are currently being created. Guarantees that a singleton is only created by
+ * one thread at a time while the creation of different singletons can happen in parallel.
+ * <p>
+ * A thread which requests a singleton that is being created by another thread waits until the creation has
+ * finished. Waiting threads are tracked so that cross-thread deadlocks (thread A creates X and waits for Y,
+ * while thread B creates Y and waits for X) are detected and reported with an exception.
+ */
+final class SingletonCreationLocks {
+
+    private final ConcurrentMap<Class<?>, Creation> creations = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Thread, Creation> awaitedCreations = new ConcurrentHashMap<>();
+
+    /**
+     * Claims the creation of the singleton of the given class for the current thread. If another thread is
+     * currently creating the singleton, this method blocks until it has finished and returns {@code null}.
+     * In that case the caller should check again whether the singleton exists and claim it anew otherwise.
+     *
+     * @param clazz the class of the singleton to create
+     * @return the claimed creation, which must be {@link #release released}, or null if the thread had to wait
+     */
+    @Nullable
+    Creation acquire(Class<?> clazz) {
+        final Thread currentThread = Thread.currentThread();
+        Creation ownCreation = new Creation(clazz, currentThread);
+        Creation existingCreation = creations.putIfAbsent(clazz, ownCreation);
+        if (existingCreation == null) {
+            return ownCreation;
+        } else if (existingCreation.owner == currentThread) {
+            throw new InjectorException("Singleton of '" + clazz + "' is requested while it is being created by the "
+                + "same thread. Do you have a cyclic dependency (e.g. via a Provider)?");
+        }
+        awaitCompletion(existingCreation, currentThread);
+        return null;
+    }
+
+    /**
+     * Releases the given creation, allowing threads which are waiting for it to continue.
+     *
+     * @param creation the creation to release
+     */
+    void release(Creation creation) {
+        creations.remove(creation.clazz, creation);
+        creation.latch.countDown();
+    }
+
+    private void awaitCompletion(Creation creation, Thread currentThread) {
+        awaitedCreations.put(currentThread, creation);
+        try {
+            // The wait is registered before checking, so at least one thread of a deadlock is guaranteed to detect it
+            verifyWaitingWouldNotDeadlock(creation, currentThread);
+            creation.latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InjectorException("Interrupted while waiting for the creation of '" + creation.clazz + "'", e);
+        } finally {
+            awaitedCreations.remove(currentThread);
+        }
+    }
+
+    private void verifyWaitingWouldNotDeadlock(Creation awaitedCreation, Thread currentThread) {
+        Creation creation = awaitedCreation;
+        // The chain of waiting threads can have at most as many elements as there are waiting threads
+        for (int i = 0; i <= awaitedCreations.size() && creation != null; ++i) {
+            if (creation.owner == currentThread) {
+                throw new InjectorException("Deadlock detected: thread '" + currentThread.getName() + "' is waiting"
+                    + " for the creation of '" + awaitedCreation.clazz + "', which in turn waits for '"
+                    + creation.clazz + "' being created by the same thread");
+            }
+            creation = awaitedCreations.get(creation.owner);
+        }
+    }
+
+    /**
+     * Creation of a singleton by a given thread.
+     */
+    static final class Creation {
+        private final Class<?> clazz;
+        private final Thread owner;
+        private final CountDownLatch latch = new CountDownLatch(1);
+
+        Creation(Class<?> clazz, Thread owner) {
+            this.clazz = clazz;
+            this.owner = owner;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package ch.jalu.injector;
+
+import javax.annotation.Nullable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Index of singletons by type, backing {@link Injector#retrieveAllOfType}. The singletons of a type are collected
+ * the first time the type is queried; afterwards, the list is kept up to date as singletons are added, so that
+ * subsequent queries return the same unmodifiable list without going over all singletons.
+ * <p>
+ * Queries for types that are already indexed do not lock. The lists returned for a type are never modified;
+ * adding a matching singleton replaces the type's list with a new one. The singletons of each type are kept in
+ * an array which is only appended to, so that the new list does not need to copy the previous ones.
+ * <p>
+ * An index may have a parent index, whose singletons are returned before the index's own singletons.
+ */
+final class SingletonTypeIndex {
+
+    @Nullable
+    private final SingletonTypeIndex parent;
+    private final ArrayList<Object> singletons = new ArrayList<>();
+    private final ConcurrentMap<Class<?>, List<?>> singletonsByType = new ConcurrentHashMap<>();
+    /** Arrays of the singletons by type, backing the lists of {@link #singletonsByType}. Guarded by singletons. */
+    private final Map<Class<?>, SingletonArray> singletonArraysByType = new HashMap<>();
+    /** Combined lists of the parent's and the own singletons, by type. Only used if there is a parent. */
+    private final ConcurrentMap<Class<?>, CombinedList> combinedListsByType = new ConcurrentHashMap<>();
+
+    SingletonTypeIndex() {
+        this(null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param parent the index whose singletons should be included, null if not applicable
+     */
+    SingletonTypeIndex(@Nullable SingletonTypeIndex parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * Adds the given singleton to the index.
+     *
+     * @param singleton the singleton to add
+     */
+    void add(Object singleton) {
+        synchronized (singletons) {
+            singletons.add(singleton);
+            for (Map.Entry<Class<?>, SingletonArray> entry : singletonArraysByType.entrySet()) {
+                if (entry.getKey().isInstance(singleton)) {
+                    singletonsByType.put(entry.getKey(), entry.getValue().append(singleton));
+                }
+            }
+        }
+    }
+
+    /**
+     * Releases unused capacity of the index.
+     */
+    void trimToSize() {
+        synchronized (singletons) {
+            singletons.trimToSize();
+            singletonArraysByType.values().forEach(SingletonArray::trimToSize);
+        }
+    }
+
+    /**
+     * Returns all singletons of the given type.
+     *
+     * @param type the type to get the singletons of
+     * @param <T> the type
+     * @return unmodifiable list with all singletons of the given type
+     */
+    @SuppressWarnings("unchecked")
+    <T> List<T> getAllOfType(Class<T> type) {
+        List<T> ownSingletons = getOwnSingletonsOfType(type);
+        if (parent == null) {
+            return ownSingletons;
+        }
+
+        List<T> parentSingletons = parent.getAllOfType(type);
+        if (ownSingletons.isEmpty()) {
+            return parentSingletons;
+        } else if (parentSingletons.isEmpty()) {
+            return ownSingletons;
+        }
+        CombinedList combinedList = combinedListsByType.get(type);
+        if (combinedList == null
+            || combinedList.parentList != parentSingletons || combinedList.ownList != ownSingletons) {
+            combinedList = new CombinedList(parentSingletons, ownSingletons);
+            combinedListsByType.put(type, combinedList);
+        }
+        return (List<T>) combinedList.list;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> List<T> getOwnSingletonsOfType(Class<T> type) {
+        List<?> singletonsOfType = singletonsByType.get(type);
+        if (singletonsOfType == null) {
+            synchronized (singletons) {
+                singletonsOfType = singletonsByType.computeIfAbsent(type, this::collectSingletonsOfType);
+            }
+        }
+        return (List<T>) singletonsOfType;
+    }
+
+    private List<?> collectSingletonsOfType(Class<?> type) {
+        SingletonArray singletonsOfType = new SingletonArray();
+        List<?> list = singletonsOfType.getList();
+        for (Object singleton : singletons) {
+            if (type.isInstance(singleton)) {
+                list = singletonsOfType.append(singleton);
+            }
+        }
+        singletonArraysByType.put(type, singletonsOfType);
+        return list;
+    }
+
+    /**
+     * Array of the singletons of a type which is only appended to, while holding the lock of the index. Each
+     * state is exposed as an unmodifiable list over the elements appended so far: as elements are never
+     * overwritten, these lists do not change when further elements are appended.
+     */
+    private static final class SingletonArray {
+        private Object[] elements = new Object[0];
+        private int size;
+
+        List<?> append(Object element) {
+            if (size == elements.length) {
+                elements = Arrays.copyOf(elements, Math.max(4, size * 2));
+            }
+            elements[size] = element;
+            ++size;
+            return getList();
+        }
+
+        List<?> getList() {
+            return new ArrayPrefixList(elements, size);
+        }
+
+        void trimToSize() {
+            if (size < elements.length) {
+                elements = Arrays.copyOf(elements, size);
+            }
+        }
+    }
+
+    /**
+     * Unmodifiable list of the first elements of an array.
+     */
+    private static final class ArrayPrefixList extends AbstractList<Object> implements RandomAccess {
+        private final Object[] elements;
+        private final int size;
+
+        ArrayPrefixList(Object[] elements, int size) {
+            this.elements = elements;
+            this.size = size;
+        }
+
+        @Override
+        public Object get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+            }
+            return elements[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Concatenation of the parent's and the own singletons of a type, along with the lists it was created from.
+     */
+    private static final class CombinedList {
+        private final List<?> parentList;
+        private final List<?> ownList;
+        private final List<?> list;
+
+        CombinedList(List<?> parentList, List<?> ownList) {
+            this.parentList = parentList;
+            this.ownList = ownList;
+            List<Object> list = new ArrayList<>(parentList.size() + ownList.size());
+            list.addAll(parentList);
+            list.addAll(ownList);
+            this.list = Collections.unmodifiableList(list);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package ch.jalu.injector.context;
+
+import java.lang.annotation.Annotation;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Maps annotation types to bits of a {@code long}, so that the annotation types of an {@link ObjectIdentifier}
+ * can be compared with the types a handler is interested in with a single bit operation.
+ * <p>
+ * Each annotation type is assigned a bit the first time it is requested. As there are only 64 bits, annotation
+ * types beyond the 63rd share the last bit: a set bit therefore means that an annotation type <i>may</i> be
+ * present, while an unset bit guarantees that it is absent.
+ */
+public final class AnnotationMasks {
+
+    private static final int SHARED_BIT = Long.SIZE - 1;
+    private static final AtomicInteger NEXT_BIT = new AtomicInteger();
+
+    private static final ClassValue<Long> MASKS = new ClassValue<Long>() {
+        @Override
+        protected Long computeValue(Class<?> type) {
+            return 1L << Math.min(NEXT_BIT.getAndIncrement(), SHARED_BIT);
+        }
+    };
+
+    private AnnotationMasks() {
+    }
+
+    /**
+     * Returns the mask of the given annotation type.
+     *
+     * @param annotationType the annotation type
+     * @return the mask with the annotation type's bit set
+     */
+    public static long of(Class<? extends Annotation> annotationType) {
+        return MASKS.get(annotationType);
+    }
+
+    /**
+     * Returns the mask with the bits of all annotation types of the given annotations.
+     *
+     * @param annotations the annotations to process
+     * @return the combined mask of the annotations' types
+     */
+    public static long of(Collection<? extends Annotation> annotations) {
+        long mask = 0;
+        for (Annotation annotation : annotations) {
+            mask |= of(annotation.annotationType());
+        }
+        return mask;
+    }
+}
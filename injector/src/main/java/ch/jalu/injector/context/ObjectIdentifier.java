@@ -2,25 +2,81 @@ package ch.jalu.injector.context;
 
 import ch.jalu.injector.exceptions.InjectorException;
 
+import javax.inject.Inject;
 import java.lang.annotation.Annotation;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
 
 /**
  * Identifies objects.
+ * <p>
+ * Identifiers are equal if they have the same resolution type, type and annotations, so they may be used as keys.
+ * The {@link Inject} annotation is not kept as it is irrelevant for the resolution of an object. Use
+ * {@link #of} to obtain a shared instance for identifiers which are kept for a long time, such as the
+ * dependencies of resolutions.
  */
 public class ObjectIdentifier {
 
+    /** Number of maps the interned identifiers are distributed to by hash code (power of two). */
+    private static final int INTERNED_STRIPES = 32;
+    /** Interned identifiers, each map guarded by its own monitor so that interning threads rarely contend. */
+    private static final List<Map<ObjectIdentifier, WeakReference<ObjectIdentifier>>> INTERNED =
+        createInternedStripes();
+
     private final ResolutionType resolutionType;
     private final Type type;
     private final List<Annotation> annotations;
+    private final long annotationMask;
+    private final int hashCode;
 
     public ObjectIdentifier(ResolutionType resolutionType, Type type, Annotation... annotations) {
         this.resolutionType = resolutionType;
         this.type = type;
-        this.annotations = Arrays.asList(annotations);
+        this.annotations = toRelevantAnnotations(annotations);
+        this.annotationMask = AnnotationMasks.of(this.annotations);
+        this.hashCode = 31 * (31 * Objects.hashCode(resolutionType) + Objects.hashCode(type))
+            + this.annotations.hashCode();
+    }
+
+    /**
+     * Returns an identifier with the given values. Equal identifiers that are obtained with this method are the
+     * same instance as long as the identifier is referenced somewhere.
+     *
+     * @param resolutionType the resolution type
+     * @param type the type of the object
+     * @param annotations the annotations of the object
+     * @return the identifier
+     */
+    public static ObjectIdentifier of(ResolutionType resolutionType, Type type, Annotation... annotations) {
+        ObjectIdentifier identifier = new ObjectIdentifier(resolutionType, type, annotations);
+        int hash = identifier.hashCode;
+        Map<ObjectIdentifier, WeakReference<ObjectIdentifier>> stripe =
+            INTERNED.get((hash ^ (hash >>> 16)) & (INTERNED_STRIPES - 1));
+        synchronized (stripe) {
+            WeakReference<ObjectIdentifier> reference = stripe.get(identifier);
+            ObjectIdentifier interned = reference == null ? null : reference.get();
+            if (interned == null) {
+                stripe.put(identifier, new WeakReference<>(identifier));
+                return identifier;
+            }
+            return interned;
+        }
+    }
+
+    private static List<Map<ObjectIdentifier, WeakReference<ObjectIdentifier>>> createInternedStripes() {
+        List<Map<ObjectIdentifier, WeakReference<ObjectIdentifier>>> stripes = new ArrayList<>(INTERNED_STRIPES);
+        for (int i = 0; i < INTERNED_STRIPES; ++i) {
+            stripes.add(new WeakHashMap<>());
+        }
+        return stripes;
     }
 
     /**
@@ -73,8 +129,56 @@ public class ObjectIdentifier {
         return annotations;
     }
 
+    /**
+     * Returns whether this identifier may have an annotation of any type that is part of the given mask. If this
+     * method returns false, the identifier is guaranteed to have no annotation of the given types.
+     *
+     * @param mask the mask of annotation types to check, see {@link AnnotationMasks}
+     * @return true if there may be an annotation of the mask's types, false otherwise
+     */
+    public boolean mayHaveAnnotationOf(long mask) {
+        return (annotationMask & mask) != 0;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        } else if (!(obj instanceof ObjectIdentifier)) {
+            return false;
+        }
+        ObjectIdentifier other = (ObjectIdentifier) obj;
+        return hashCode == other.hashCode
+            && Objects.equals(resolutionType, other.resolutionType)
+            && Objects.equals(type, other.type)
+            && annotations.equals(other.annotations);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
     @Override
     public String toString() {
         return "ObjId[type=" + type + ", annotations=" + annotations + "]";
     }
+
+    private static List<Annotation> toRelevantAnnotations(Annotation[] annotations) {
+        Annotation[] relevantAnnotations = new Annotation[annotations.length];
+        int size = 0;
+        for (Annotation annotation : annotations) {
+            if (annotation.annotationType() != Inject.class) {
+                relevantAnnotations[size] = annotation;
+                ++size;
+            }
+        }
+
+        if (size == 0) {
+            return Collections.emptyList();
+        } else if (size == 1) {
+            return Collections.singletonList(relevantAnnotations[0]);
+        }
+        return Collections.unmodifiableList(Arrays.asList(Arrays.copyOf(relevantAnnotations, size)));
+    }
 }
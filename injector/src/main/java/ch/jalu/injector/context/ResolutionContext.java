@@ -3,20 +3,36 @@ package ch.jalu.injector.context;
 import ch.jalu.injector.Injector;
 import ch.jalu.injector.exceptions.InjectorException;
 
-import java.util.ArrayList;
+import javax.annotation.Nullable;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Resolution context: contains data about the object that is requested, such as identifying
  * information about the object to retrieve or construct and the context in which it is being
  * requested.
+ * <p>
+ * Contexts form a chain: each child context references its parent, so creating a child context is
+ * independent of the number of parents. All contexts of a chain share a record of the parents which
+ * are currently being resolved, which allows to look up a parent by type in constant time (see
+ * {@link #findParentOfType}).
  */
 public class ResolutionContext {
 
     private final Injector injector;
     private final ObjectIdentifier originalIdentifier;
     private ObjectIdentifier identifier;
-    private List<ResolutionContext> parents = new ArrayList<>();
+    @Nullable
+    private final ResolutionContext parent;
+    private final ResolutionContext root;
+    private final int depth;
+    /** Set on the root context once it has a child. */
+    @Nullable
+    private Traversal traversal;
 
     /**
      * Creates a new resolution context with no predecessors.
@@ -25,9 +41,16 @@ public class ResolutionContext {
      * @param identifier the identifier of the object to create
      */
     public ResolutionContext(Injector injector, ObjectIdentifier identifier) {
+        this(injector, identifier, null);
+    }
+
+    private ResolutionContext(Injector injector, ObjectIdentifier identifier, @Nullable ResolutionContext parent) {
         this.injector = injector;
         this.originalIdentifier = identifier;
         this.identifier = identifier;
+        this.parent = parent;
+        this.root = parent == null ? this : parent.root;
+        this.depth = parent == null ? 0 : parent.depth + 1;
     }
 
     /**
@@ -45,8 +68,69 @@ public class ResolutionContext {
         return identifier;
     }
 
+    /**
+     * Returns all parents of this context, starting with the root context. The list is created on each call;
+     * prefer {@link #getParent}, {@link #getRoot} or {@link #findParentOfType} where possible.
+     *
+     * @return the parents of this context (unmodifiable)
+     */
     public List<ResolutionContext> getParents() {
-        return parents;
+        if (parent == null) {
+            return Collections.emptyList();
+        }
+        ResolutionContext[] parents = new ResolutionContext[depth];
+        ResolutionContext context = parent;
+        for (int i = depth - 1; i >= 0; --i) {
+            parents[i] = context;
+            context = context.parent;
+        }
+        return Collections.unmodifiableList(Arrays.asList(parents));
+    }
+
+    /**
+     * @return the context this context was created from, or null if this is a root context
+     */
+    @Nullable
+    public ResolutionContext getParent() {
+        return parent;
+    }
+
+    /**
+     * @return the root context of the chain this context belongs to (this context if it has no parent)
+     */
+    public ResolutionContext getRoot() {
+        return root;
+    }
+
+    /**
+     * @return the number of parents of this context
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Returns the parent of this context whose identifier has the given type, in constant time.
+     * <p>
+     * Contexts are expected to be resolved depth-first, as done by the injector: once a context has created
+     * a child, no other context on the same depth may create children until the context and all of its children
+     * have been resolved. Parents are registered with the identifier they have when they create their first child.
+     *
+     * @param type the type to look for
+     * @return the parent with the given type, or null if there is none
+     */
+    @Nullable
+    public ResolutionContext findParentOfType(Type type) {
+        Traversal rootTraversal = root.traversal;
+        if (parent == null || rootTraversal == null) {
+            return null;
+        }
+        ResolutionContext candidate = rootTraversal.contextsByType.get(type);
+        if (candidate != null && candidate.depth < depth && rootTraversal.path[candidate.depth] == candidate
+            && candidate.identifier.getType().equals(type)) {
+            return candidate;
+        }
+        return null;
     }
 
     /**
@@ -70,9 +154,28 @@ public class ResolutionContext {
      * @return the child context
      */
     public ResolutionContext createChildContext(ObjectIdentifier identifier) {
-        ResolutionContext child = new ResolutionContext(injector, identifier);
-        child.parents.addAll(this.parents);
-        child.parents.add(this);
-        return child;
+        if (root.traversal == null) {
+            root.traversal = new Traversal();
+        }
+        root.traversal.register(this);
+        return new ResolutionContext(injector, identifier, this);
+    }
+
+    /**
+     * Record of the contexts of a chain which have children, shared by all contexts of the chain. As the contexts
+     * are resolved depth-first, the context on each depth which most recently created a child is a parent of the
+     * context currently being resolved.
+     */
+    private static final class Traversal {
+        private ResolutionContext[] path = new ResolutionContext[16];
+        private final Map<Type, ResolutionContext> contextsByType = new HashMap<>();
+
+        void register(ResolutionContext context) {
+            if (context.depth >= path.length) {
+                path = Arrays.copyOf(path, path.length * 2);
+            }
+            path[context.depth] = context;
+            contextsByType.put(context.identifier.getType(), context);
+        }
     }
 }
@@ -4,6 +4,7 @@ package ch.jalu.injector.context;
  * Resolution type: defines in what scope / context an object should be retrieved or instantiated.
  *
  * @see StandardResolutionType for standard types the injector supports by default
+ * @see ch.jalu.injector.scopes.Scope for resolution types which keep the objects they create
  */
 public interface ResolutionType {
 }
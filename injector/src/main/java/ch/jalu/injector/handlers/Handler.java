@@ -6,6 +6,8 @@ import ch.jalu.injector.handlers.instantiation.Resolution;
 import javax.annotation.Nullable;
 import javax.inject.Provider;
 import java.lang.annotation.Annotation;
+import java.util.Collections;
+import java.util.Set;
 
 /**
  * Handlers may modify the injection process at different moments.
@@ -13,6 +15,10 @@ import java.lang.annotation.Annotation;
  *
  * Handlers are executed in the order that they are given to {@link ch.jalu.injector.InjectorBuilder}, so more important
  * handlers should come first.
+ * <p>
+ * Handlers may declare the {@link #getPhases phases} they participate in and the {@link #getClaimedTypes types}
+ * they resolve, so that the injector only calls them where they are relevant. Declarations never change
+ * the order in which handlers are called.
  */
 public interface Handler {
 
@@ -47,6 +53,19 @@ public interface Handler {
         return null;
     }
 
+    /**
+     * Returns whether the handler needs to post process the objects created by the given resolution. When the
+     * injector compiles a plan for a class, it only keeps the post processing handlers which return true, so
+     * that objects created with the plan are not passed to handlers which have nothing to do with them. By default,
+     * handlers post process all objects.
+     *
+     * @param resolution the resolution the plan creates objects with
+     * @return true if {@link #postProcess} must be called for the objects of the resolution, false otherwise
+     */
+    default boolean isPostProcessorFor(Resolution<?> resolution) {
+        return true;
+    }
+
     /**
      * Processes the annotation type and the associated object.
      *
@@ -80,4 +99,63 @@ public interface Handler {
     default <T, P extends Provider<? extends T>> void onProviderClass(Class<T> clazz,
                                                                       Class<P> providerClass) throws Exception {
     }
+
+    /**
+     * Called when the injector is {@link ch.jalu.injector.Injector#freeze frozen}. No providers or annotation
+     * values are registered afterwards, so handlers may compact or release the state they keep for them.
+     *
+     * @throws Exception for failed validations
+     */
+    default void onFreeze() throws Exception {
+    }
+
+    /**
+     * Returns the phases the handler participates in, i.e. which of the other methods of this interface
+     * the injector calls. By default, these are the phases whose method is overridden by the handler's class.
+     *
+     * @return the phases of the handler
+     */
+    default Set<HandlerPhase> getPhases() {
+        return HandlerPhase.getOverriddenPhases(getClass());
+    }
+
+    /**
+     * Returns whether the handler is deterministic: for equal identifiers, {@link #resolve} always returns null or
+     * always returns a resolution, independently of the context's other properties (such as its parents) and of
+     * previous calls, until a provider or an annotation value is registered with the injector.
+     * <p>
+     * The injector remembers which deterministic handler resolved an identifier and calls it first the next
+     * time, skipping the deterministic handlers before it. Handlers which are not deterministic (default) are
+     * always called.
+     *
+     * @return true if the handler is deterministic, false otherwise
+     */
+    default boolean isDeterministic() {
+        return false;
+    }
+
+    /**
+     * Returns the raw types this handler resolves. If this method or {@link #getClaimedAnnotationTypes} returns
+     * a non-empty set, {@link #resolve} is only called for identifiers whose raw type is one of the claimed types,
+     * or which have an annotation of a claimed annotation type. An empty set (default) means the handler may
+     * resolve any identifier.
+     * <p>
+     * The claims are read when the handler is added and again after a provider or an annotation value has been
+     * registered with the injector. Claims are not inherited by subclasses which override {@link #resolve}: they
+     * only apply if this method is declared by the class which declares {@code resolve} or by one of its subclasses.
+     *
+     * @return the raw types the handler resolves
+     */
+    default Set<Class<?>> getClaimedTypes() {
+        return Collections.emptySet();
+    }
+
+    /**
+     * Returns the annotation types this handler resolves identifiers by. See {@link #getClaimedTypes}.
+     *
+     * @return the annotation types the handler resolves identifiers by
+     */
+    default Set<Class<? extends Annotation>> getClaimedAnnotationTypes() {
+        return Collections.emptySet();
+    }
 }
@@ -0,0 +1,70 @@
+package ch.jalu.injector.handlers;
+
+import ch.jalu.injector.context.ResolutionContext;
+import ch.jalu.injector.handlers.instantiation.Resolution;
+
+import javax.inject.Provider;
+import java.lang.annotation.Annotation;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The phases of the injection process in which {@link Handler handlers} are called. Each phase corresponds to
+ * a method of the handler interface.
+ */
+public enum HandlerPhase {
+
+    /** Resolution of objects: {@link Handler#resolve}. */
+    RESOLVE("resolve", ResolutionContext.class),
+
+    /** Processing of newly created objects: {@link Handler#postProcess}. */
+    POST_PROCESS("postProcess", Object.class, ResolutionContext.class, Resolution.class),
+
+    /** Registration of annotation values: {@link Handler#onAnnotation}. */
+    ON_ANNOTATION("onAnnotation", Class.class, Object.class),
+
+    /** Registration of providers: {@link Handler#onProvider}. */
+    ON_PROVIDER("onProvider", Class.class, Provider.class),
+
+    /** Registration of provider classes: {@link Handler#onProviderClass}. */
+    ON_PROVIDER_CLASS("onProviderClass", Class.class, Class.class),
+
+    /** Freezing of the injector: {@link Handler#onFreeze}. */
+    ON_FREEZE("onFreeze");
+
+    private static final ClassValue<Set<HandlerPhase>> OVERRIDDEN_PHASES = new ClassValue<Set<HandlerPhase>>() {
+        @Override
+        protected Set<HandlerPhase> computeValue(Class<?> type) {
+            Set<HandlerPhase> phases = EnumSet.noneOf(HandlerPhase.class);
+            for (HandlerPhase phase : values()) {
+                try {
+                    if (type.getMethod(phase.methodName, phase.parameterTypes).getDeclaringClass() != Handler.class) {
+                        phases.add(phase);
+                    }
+                } catch (NoSuchMethodException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return Collections.unmodifiableSet(phases);
+        }
+    };
+
+    private final String methodName;
+    private final Class<?>[] parameterTypes;
+
+    HandlerPhase(String methodName, Class<?>... parameterTypes) {
+        this.methodName = methodName;
+        this.parameterTypes = parameterTypes;
+    }
+
+    /**
+     * Returns the phases whose method the given handler class overrides.
+     *
+     * @param handlerClass the handler class to process
+     * @return the phases whose method is overridden (unmodifiable)
+     */
+    public static Set<HandlerPhase> getOverriddenPhases(Class<? extends Handler> handlerClass) {
+        return OVERRIDDEN_PHASES.get(handlerClass);
+    }
+}
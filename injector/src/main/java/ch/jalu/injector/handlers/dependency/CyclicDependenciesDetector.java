@@ -7,9 +7,6 @@ import ch.jalu.injector.handlers.Handler;
 import ch.jalu.injector.handlers.instantiation.Resolution;
 
 import javax.annotation.Nullable;
-import java.lang.reflect.Type;
-import java.util.HashSet;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -32,14 +29,10 @@ public class CyclicDependenciesDetector implements Handler {
 
     @Nullable
     private static ObjectIdentifier findRepeatedIdentifier(ResolutionContext context) {
-        Set<Type> types = new HashSet<>();
-        types.add(context.getIdentifier().getType());
-        for (ResolutionContext parent : context.getParents()) {
-            if (!types.add(parent.getIdentifier().getType())) {
-                return parent.getIdentifier();
-            }
-        }
-        return null;
+        // Every context is checked against its parents when it is resolved, so a cycle is always detected
+        // with the context that closes it and the parents never need to be compared among each other
+        ResolutionContext parent = context.findParentOfType(context.getIdentifier().getType());
+        return parent == null ? null : parent.getIdentifier();
     }
 
     private static String buildParentsList(ResolutionContext context) {
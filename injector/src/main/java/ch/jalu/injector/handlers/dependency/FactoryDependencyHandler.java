@@ -9,11 +9,29 @@ import ch.jalu.injector.handlers.instantiation.Resolution;
 import ch.jalu.injector.handlers.instantiation.SimpleResolution;
 import ch.jalu.injector.utils.ReflectionUtils;
 
+import javax.inject.Provider;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 /**
- * Dependency handler that builds {@link Factory} objects.
+ * Dependency handler that builds {@link Factory} objects. One factory is shared per generic type.
  */
 public class FactoryDependencyHandler implements Handler {
 
+    private final ConcurrentMap<Class<?>, FactoryImpl<?>> factories = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
+    @Override
+    public Set<Class<?>> getClaimedTypes() {
+        return Collections.singleton(Factory.class);
+    }
+
     @Override
     public Resolution<?> resolve(ResolutionContext context) {
         final Class<?> clazz = context.getIdentifier().getTypeAsClass();
@@ -24,15 +42,28 @@ public class FactoryDependencyHandler implements Handler {
                     + "Cannot get generic type for field in '" + context.getIdentifier().getTypeAsClass() + "'");
             }
 
-            return new SimpleResolution<>(new FactoryImpl<>(genericType, context.getInjector()));
+            return new SimpleResolution<>(getFactory(genericType, context.getInjector()));
         }
         return null;
     }
 
+    private Factory<?> getFactory(Class<?> parentClass, Injector injector) {
+        FactoryImpl<?> factory = factories.computeIfAbsent(parentClass, clz -> new FactoryImpl<>(clz, injector));
+        // Handlers are typically not shared between injectors, but don't hand out factories of another injector
+        return factory.injector == injector ? factory : new FactoryImpl<>(parentClass, injector);
+    }
+
+    /**
+     * Factory implementation. Keeps the provider of each class it has created so that the subtype check is only
+     * performed once and new instances are created with the provider's cached plan.
+     *
+     * @param <P> the parent type
+     */
     private static final class FactoryImpl<P> implements Factory<P> {
 
         private final Injector injector;
         private final Class<P> parentClass;
+        private final ConcurrentMap<Class<?>, Provider<?>> providers = new ConcurrentHashMap<>();
 
         FactoryImpl(Class<P> parentClass, Injector injector) {
             this.parentClass = parentClass;
@@ -40,11 +71,16 @@ public class FactoryDependencyHandler implements Handler {
         }
 
         @Override
+        @SuppressWarnings("unchecked")
         public <C extends P> C newInstance(Class<C> clazz) {
-            if (parentClass.isAssignableFrom(clazz)) {
-                return injector.newInstance(clazz);
+            Provider<?> provider = providers.get(clazz);
+            if (provider == null) {
+                if (!parentClass.isAssignableFrom(clazz)) {
+                    throw new InjectorException(clazz + " not child of " + parentClass);
+                }
+                provider = providers.computeIfAbsent(clazz, injector::getProvider);
             }
-            throw new InjectorException(clazz + " not child of " + parentClass);
+            return (C) provider.get();
         }
     }
 }
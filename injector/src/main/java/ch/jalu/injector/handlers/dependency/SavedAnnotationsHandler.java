@@ -1,5 +1,6 @@
 package ch.jalu.injector.handlers.dependency;
 
+import ch.jalu.injector.context.AnnotationMasks;
 import ch.jalu.injector.context.ResolutionContext;
 import ch.jalu.injector.exceptions.InjectorException;
 import ch.jalu.injector.handlers.Handler;
@@ -9,7 +10,10 @@ import ch.jalu.injector.utils.InjectorUtils;
 
 import java.lang.annotation.Annotation;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Simple handler that allows you to save a value for a custom annotation. Use this
@@ -22,10 +26,15 @@ import java.util.Map;
  */
 public class SavedAnnotationsHandler implements Handler {
 
-    private Map<Class<?>, Object> storedValues = new HashMap<>();
+    private volatile Map<Class<?>, Object> storedValues = new ConcurrentHashMap<>();
+    /** Mask of all annotation types with a stored value, see {@link AnnotationMasks}. */
+    private volatile long storedAnnotationsMask;
 
     @Override
     public Resolution<?> resolve(ResolutionContext context) {
+        if (!context.getIdentifier().mayHaveAnnotationOf(storedAnnotationsMask)) {
+            return null;
+        }
         Object o;
         for (Annotation annotation : context.getIdentifier().getAnnotations()) {
             if ((o = storedValues.get(annotation.annotationType())) != null) {
@@ -35,12 +44,35 @@ public class SavedAnnotationsHandler implements Handler {
         return null;
     }
 
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Set<Class<? extends Annotation>> getClaimedAnnotationTypes() {
+        Set<Class<? extends Annotation>> annotationTypes = new HashSet<>();
+        for (Class<?> annotationType : storedValues.keySet()) {
+            annotationTypes.add((Class<? extends Annotation>) annotationType);
+        }
+        return annotationTypes;
+    }
+
+    @Override
+    public void onFreeze() {
+        // No more values are registered, so the map no longer needs to support concurrent modifications
+        storedValues = new HashMap<>(storedValues);
+    }
+
     @Override
     public void onAnnotation(Class<? extends Annotation> annotation, Object object) {
         InjectorUtils.checkNotNull(object, "Object may not be null");
-        if (storedValues.containsKey(annotation)) {
+        if (storedValues.putIfAbsent(annotation, object) != null) {
             throw new InjectorException("Value already registered for @" + annotation.getSimpleName());
         }
-        storedValues.put(annotation, object);
+        synchronized (this) {
+            storedAnnotationsMask |= AnnotationMasks.of(annotation);
+        }
     }
 }
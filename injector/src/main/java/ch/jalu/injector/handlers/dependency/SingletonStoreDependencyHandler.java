@@ -10,12 +10,28 @@ import ch.jalu.injector.handlers.instantiation.SimpleResolution;
 import ch.jalu.injector.utils.ReflectionUtils;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
- * Dependency handler that builds {@link SingletonStore} objects.
+ * Dependency handler that builds {@link SingletonStore} objects. One store is shared per generic type.
  */
 public class SingletonStoreDependencyHandler implements Handler {
 
+    private final ConcurrentMap<Class<?>, SingletonStoreImpl<?>> stores = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
+    @Override
+    public Set<Class<?>> getClaimedTypes() {
+        return Collections.singleton(SingletonStore.class);
+    }
+
     @Override
     public Resolution<?> resolve(ResolutionContext context) {
         if (SingletonStore.class.equals(context.getIdentifier().getTypeAsClass())) {
@@ -25,11 +41,18 @@ public class SingletonStoreDependencyHandler implements Handler {
                     + "Cannot get generic type for field in '" + context.getIdentifier().getTypeAsClass() + "'");
             }
 
-            return new SimpleResolution<>(new SingletonStoreImpl<>(genericType, context.getInjector()));
+            return new SimpleResolution<>(getStore(genericType, context.getInjector()));
         }
         return null;
     }
 
+    private SingletonStore<?> getStore(Class<?> parentClass, Injector injector) {
+        SingletonStoreImpl<?> store =
+            stores.computeIfAbsent(parentClass, clz -> new SingletonStoreImpl<>(clz, injector));
+        // Handlers are typically not shared between injectors, but don't hand out stores of another injector
+        return store.injector == injector ? store : new SingletonStoreImpl<>(parentClass, injector);
+    }
+
     private static final class SingletonStoreImpl<P> implements SingletonStore<P> {
 
         private final Injector injector;
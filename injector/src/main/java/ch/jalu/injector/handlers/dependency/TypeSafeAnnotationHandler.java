@@ -1,11 +1,14 @@
 package ch.jalu.injector.handlers.dependency;
 
+import ch.jalu.injector.context.AnnotationMasks;
 import ch.jalu.injector.context.ResolutionContext;
 import ch.jalu.injector.handlers.Handler;
 import ch.jalu.injector.handlers.instantiation.Resolution;
 
 import javax.annotation.Nullable;
 import java.lang.annotation.Annotation;
+import java.util.Collections;
+import java.util.Set;
 
 /**
  * Type safe annotation handler base, which will fire the resolve method only if
@@ -13,8 +16,20 @@ import java.lang.annotation.Annotation;
  */
 public abstract class TypeSafeAnnotationHandler<T extends Annotation> implements Handler {
 
+    /** Mask of the annotation type (see {@link AnnotationMasks}), zero until it has been determined. */
+    private volatile long annotationMask;
+
     @Override
     public final Resolution<?> resolve(ResolutionContext context) throws Exception {
+        long mask = annotationMask;
+        if (mask == 0) {
+            mask = AnnotationMasks.of(getAnnotationType());
+            annotationMask = mask;
+        }
+        if (!context.getIdentifier().mayHaveAnnotationOf(mask)) {
+            return null;
+        }
+
         final Class<T> type = getAnnotationType();
         for (Annotation annotation : context.getIdentifier().getAnnotations()) {
             if (type.isInstance(annotation)) {
@@ -24,6 +39,11 @@ public abstract class TypeSafeAnnotationHandler<T extends Annotation> implements
         return null;
     }
 
+    @Override
+    public Set<Class<? extends Annotation>> getClaimedAnnotationTypes() {
+        return Collections.singleton(getAnnotationType());
+    }
+
     /**
      * Returns the class of the annotation the handler can process.
      *
@@ -21,21 +21,51 @@ import java.util.List;
 public class DefaultInjectionProvider extends StandardInjectionProvider {
 
     private final String rootPackage;
+    private final ValidationVerdicts packageVerdicts = new ValidationVerdicts();
 
     public DefaultInjectionProvider(String rootPackage) {
         this.rootPackage = rootPackage;
     }
 
+    /**
+     * Constructor.
+     *
+     * @param rootPackage the package classes must belong to in order to be instantiated
+     * @param injectionStrategy the strategy to create the resolutions with
+     */
+    public DefaultInjectionProvider(String rootPackage, InjectionStrategy injectionStrategy) {
+        super(injectionStrategy);
+        this.rootPackage = rootPackage;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param rootPackage the package classes must belong to in order to be instantiated
+     * @param injectionStrategy the strategy to create the resolutions with
+     * @param validationPolicy the policy defining how classes are validated
+     */
+    public DefaultInjectionProvider(String rootPackage, InjectionStrategy injectionStrategy,
+                                    ValidationPolicy validationPolicy) {
+        super(injectionStrategy, validationPolicy);
+        this.rootPackage = rootPackage;
+    }
+
+    @Override
+    public void onFreeze() {
+        super.onFreeze();
+        packageVerdicts.releaseValidVerdicts();
+    }
+
     @Override
     public <T> Resolution<T> safeGet(Class<T> clazz) {
-        verifyIsClassPackageAllowed(clazz);
+        packageVerdicts.validate(clazz, () -> verifyIsClassPackageAllowed(clazz));
         return super.safeGet(clazz);
     }
 
     @Override
     protected void validateInjection(Class<?> clazz, Constructor<?> constructor, List<Field> fields) {
         super.validateInjection(clazz, constructor, fields);
-        verifyIsClassPackageAllowed(clazz);
 
         final boolean hasConstructionInjection = constructor.isAnnotationPresent(Inject.class);
         for (Field field : fields) {
@@ -51,6 +81,12 @@ public class DefaultInjectionProvider extends StandardInjectionProvider {
         }
     }
 
+    /**
+     * Verifies that the given class is in the allowed root package. Unlike {@link #validateInjection}, this check
+     * is performed for all classes, including the ones verified at build time.
+     *
+     * @param clazz the class to process
+     */
     protected void verifyIsClassPackageAllowed(Class<?> clazz) {
         String packageName = clazz.getPackage().getName();
         if (!packageName.startsWith(rootPackage)) {
@@ -0,0 +1,102 @@
+package ch.jalu.injector.handlers.instantiation;
+
+import ch.jalu.injector.exceptions.InjectorException;
+import ch.jalu.injector.exceptions.InjectorReflectionException;
+import ch.jalu.injector.utils.InjectorUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Standard injection which creates objects with a class generated at runtime, which invokes the constructor
+ * and assigns the fields directly, without any reflection. Fields which the generated class cannot access
+ * (i.e. private fields) are set with method handles.
+ *
+ * @param <T> the type of the objects to create
+ * @see GeneratedInjectionStrategy
+ */
+public class GeneratedInjection<T> extends StandardInjection<T> {
+
+    private final Class<T> declaringClass;
+    private final int totalDependencies;
+    private final Instantiator instantiator;
+    private final int[] otherFieldIndices;
+    private final MethodHandle[] otherFieldSetters;
+
+    /**
+     * Constructor.
+     *
+     * @param constructor the constructor to create objects with
+     * @param fields the fields to inject after instantiation
+     * @param instantiator the generated instantiator which invokes the constructor and sets the fields
+     * @param fieldsSetByInstantiator the fields which are set by the instantiator; the other fields are set
+     *                                with method handles
+     */
+    public GeneratedInjection(Constructor<T> constructor, List<Field> fields, Instantiator instantiator,
+                              Collection<Field> fieldsSetByInstantiator) {
+        super(constructor, fields);
+        this.declaringClass = constructor.getDeclaringClass();
+        this.totalDependencies = constructor.getParameterCount() + fields.size();
+        this.instantiator = instantiator;
+
+        List<Integer> indices = new ArrayList<>();
+        List<MethodHandle> setters = new ArrayList<>();
+        int index = constructor.getParameterCount();
+        for (Field field : fields) {
+            if (!fieldsSetByInstantiator.contains(field)) {
+                indices.add(index);
+                setters.add(MethodHandleInjection.createFieldSetter(field));
+            }
+            ++index;
+        }
+        this.otherFieldIndices = indices.stream().mapToInt(Integer::intValue).toArray();
+        this.otherFieldSetters = setters.toArray(new MethodHandle[0]);
+    }
+
+    @Override
+    public T instantiateWith(Object... values) {
+        InjectorUtils.checkArgument(values.length == totalDependencies,
+            "Number of values does not correspond to the expected number");
+        final T instance;
+        try {
+            instance = declaringClass.cast(instantiator.instantiate(values));
+        } catch (Throwable e) {
+            // The generated class calls the constructor directly, so it may also throw checked exceptions
+            throw new InjectorReflectionException("Could not create object of '" + declaringClass
+                + "' with the generated instantiator", new InvocationTargetException(e));
+        }
+
+        for (int i = 0; i < otherFieldSetters.length; ++i) {
+            try {
+                otherFieldSetters[i].invokeExact((Object) instance, values[otherFieldIndices[i]]);
+            } catch (RuntimeException e) {
+                // Thrown if the value cannot be converted to the field's type
+                throw new InjectorReflectionException("Could not set field for " + instance, e);
+            } catch (Throwable e) {
+                throw new InjectorException("Could not set field for " + instance, e);
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Instantiator implemented by the generated classes. Public so that classes generated in other packages
+     * may implement it; not meant to be implemented otherwise.
+     */
+    public interface Instantiator {
+
+        /**
+         * Creates an object with the given values for the constructor parameters, followed by the values of
+         * the fields to inject.
+         *
+         * @param values the values to create the object with
+         * @return the created object
+         */
+        Object instantiate(Object[] values);
+    }
+}
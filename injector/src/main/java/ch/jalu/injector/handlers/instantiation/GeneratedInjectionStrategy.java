@@ -0,0 +1,283 @@
+package ch.jalu.injector.handlers.instantiation;
+
+import javassist.CannotCompileException;
+import javassist.ClassClassPath;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtNewConstructor;
+import javassist.CtNewMethod;
+import javassist.LoaderClassPath;
+import javassist.NotFoundException;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Injection strategy which generates a class per injectable type, invoking the constructor and assigning the
+ * fields directly ({@link GeneratedInjection}). Creating an object is thus as cheap as a hand-written
+ * {@code new} statement followed by field assignments.
+ * <p>
+ * The classes are generated with javassist, which is an optional dependency of the injector and must be
+ * present on the classpath to use this strategy. The generated class is defined in the class loader and
+ * package of the type it creates, so it cannot access private members: private fields are set with method
+ * handles. If the constructor is not accessible, or whenever a class cannot be generated, the fallback strategy
+ * is used.
+ * <p>
+ * A class is generated once per constructor and set of fields: the instantiators are shared by all instances
+ * of this strategy, so that repeated resolutions of a type do not define new classes.
+ */
+public class GeneratedInjectionStrategy implements InjectionStrategy {
+
+    private static final String CLASS_NAME_SUFFIX = "$$GeneratedInjection$";
+    private static final AtomicInteger GENERATED_CLASSES_COUNTER = new AtomicInteger();
+    /**
+     * Generated instantiators by constructor and fields (in this order), per class they create. Empty if no class
+     * could be generated. The generated classes belong to the class loader of the class they create, so keeping
+     * them in a class value does not prevent the class loader from being collected.
+     */
+    private static final ClassValue<ConcurrentMap<List<Member>, Optional<GeneratedInjection.Instantiator>>>
+        INSTANTIATORS = new ClassValue<ConcurrentMap<List<Member>, Optional<GeneratedInjection.Instantiator>>>() {
+            @Override
+            protected ConcurrentMap<List<Member>, Optional<GeneratedInjection.Instantiator>> computeValue(
+                Class<?> type) {
+                return new ConcurrentHashMap<>();
+            }
+        };
+
+    private final InjectionStrategy fallbackStrategy;
+
+    /**
+     * Constructor. Falls back to {@link StandardInjectionStrategy#METHOD_HANDLES method handles}.
+     */
+    public GeneratedInjectionStrategy() {
+        this(StandardInjectionStrategy.METHOD_HANDLES);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param fallbackStrategy the strategy to use for types no class can be generated for
+     */
+    public GeneratedInjectionStrategy(InjectionStrategy fallbackStrategy) {
+        this.fallbackStrategy = fallbackStrategy;
+    }
+
+    @Override
+    public <T> Resolution<T> createResolution(Constructor<T> constructor, List<Field> fields) {
+        if (canGenerateInstantiator(constructor)) {
+            List<Field> accessibleFields = fields.stream()
+                .filter(field -> isFieldAccessible(field, constructor.getDeclaringClass()))
+                .collect(Collectors.toList());
+            List<Member> members = new ArrayList<>(fields.size() + 1);
+            members.add(constructor);
+            members.addAll(fields);
+            Optional<GeneratedInjection.Instantiator> instantiator = INSTANTIATORS.get(constructor.getDeclaringClass())
+                .computeIfAbsent(members, key -> tryGenerateInstantiator(constructor, fields, accessibleFields));
+            if (instantiator.isPresent()) {
+                return new GeneratedInjection<>(constructor, fields, instantiator.get(), accessibleFields);
+            }
+        }
+        return fallbackStrategy.createResolution(constructor, fields);
+    }
+
+    /**
+     * Returns whether a class can be generated to create objects with the given constructor, i.e. whether
+     * a class in the same package and class loader can access the constructor and its parameter types.
+     *
+     * @param constructor the constructor to create objects with
+     * @return true if the instantiator can be generated, false otherwise
+     */
+    protected boolean canGenerateInstantiator(Constructor<?> constructor) {
+        final Class<?> targetClass = constructor.getDeclaringClass();
+        if (targetClass.getClassLoader() == null || !isInstantiatorVisible(targetClass.getClassLoader())
+            || !isMemberAccessible(constructor, targetClass)) {
+            return false;
+        }
+        for (Class<?> parameterType : constructor.getParameterTypes()) {
+            if (!isTypeAccessible(parameterType, targetClass)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether the generated class may set the given field. Fields which are not accessible are set
+     * with method handles instead.
+     *
+     * @param field the field to inject
+     * @param targetClass the class of the objects to create
+     * @return true if the field is accessible to the generated class, false otherwise
+     */
+    protected boolean isFieldAccessible(Field field, Class<?> targetClass) {
+        return isMemberAccessible(field, targetClass) && isTypeAccessible(field.getType(), targetClass);
+    }
+
+    /**
+     * Defines the generated class in the class loader and package of the class it creates objects of.
+     *
+     * @param generatedClass the generated class to define
+     * @param targetClass the class of the objects to create
+     * @return the defined class
+     * @throws CannotCompileException if the class could not be defined
+     */
+    protected Class<?> defineClass(CtClass generatedClass, Class<?> targetClass) throws CannotCompileException {
+        return generatedClass.toClass(targetClass.getClassLoader(), targetClass.getProtectionDomain());
+    }
+
+    private Optional<GeneratedInjection.Instantiator> tryGenerateInstantiator(Constructor<?> constructor,
+                                                                              List<Field> fields,
+                                                                              List<Field> accessibleFields) {
+        try {
+            return Optional.of(generateInstantiator(constructor, fields, accessibleFields));
+        } catch (CannotCompileException | NotFoundException | ReflectiveOperationException
+                 | RuntimeException | LinkageError e) {
+            // Generating the class is an optimization: use the fallback strategy if anything goes wrong. Notably,
+            // newer JDKs may not allow to define the class in the class loader of the target class
+            return Optional.empty();
+        }
+    }
+
+    private GeneratedInjection.Instantiator generateInstantiator(Constructor<?> constructor, List<Field> fields,
+                                                                 List<Field> accessibleFields)
+                                                                 throws CannotCompileException, NotFoundException,
+                                                                        ReflectiveOperationException {
+        final Class<?> targetClass = constructor.getDeclaringClass();
+        final ClassPool pool = new ClassPool(true);
+        pool.appendClassPath(new LoaderClassPath(targetClass.getClassLoader()));
+        pool.appendClassPath(new ClassClassPath(GeneratedInjection.Instantiator.class));
+
+        CtClass generatedClass = pool.makeClass(
+            targetClass.getName() + CLASS_NAME_SUFFIX + GENERATED_CLASSES_COUNTER.incrementAndGet());
+        try {
+            generatedClass.addInterface(pool.get(GeneratedInjection.Instantiator.class.getName()));
+            generatedClass.addConstructor(CtNewConstructor.defaultConstructor(generatedClass));
+            generatedClass.addMethod(CtNewMethod.make(
+                createInstantiateMethodSource(constructor, fields, accessibleFields), generatedClass));
+
+            Class<?> instantiatorClass = defineClass(generatedClass, targetClass);
+            return (GeneratedInjection.Instantiator) instantiatorClass.getDeclaredConstructor().newInstance();
+        } finally {
+            generatedClass.detach();
+        }
+    }
+
+    private static String createInstantiateMethodSource(Constructor<?> constructor, List<Field> fields,
+                                                        List<Field> accessibleFields) {
+        final String targetClassName = getSourceName(constructor.getDeclaringClass());
+        final Class<?>[] parameterTypes = constructor.getParameterTypes();
+
+        StringBuilder source = new StringBuilder("public Object instantiate(Object[] values) { ")
+            .append(targetClassName).append(" object = new ").append(targetClassName).append('(');
+        for (int i = 0; i < parameterTypes.length; ++i) {
+            source.append(i == 0 ? "" : ", ").append(createValueExpression(parameterTypes[i], i));
+        }
+        source.append("); ");
+
+        int index = parameterTypes.length - 1;
+        for (Field field : fields) {
+            ++index;
+            if (!accessibleFields.contains(field)) {
+                continue;
+            }
+            final String declaringClassName = getSourceName(field.getDeclaringClass());
+            if (Modifier.isStatic(field.getModifiers())) {
+                source.append(declaringClassName);
+            } else {
+                // Cast to the declaring class in case a field of the same name is declared in a child class
+                source.append("((").append(declaringClassName).append(") object)");
+            }
+            source.append('.').append(field.getName()).append(" = ")
+                .append(createValueExpression(field.getType(), index)).append("; ");
+        }
+        return source.append("return object; }").toString();
+    }
+
+    private static String createValueExpression(Class<?> type, int index) {
+        final String value = "values[" + index + "]";
+        if (type.isPrimitive()) {
+            String wrapperType = getWrapperType(type).getName();
+            return "((" + wrapperType + ") " + value + ")." + type.getName() + "Value()";
+        }
+        return "(" + getSourceName(type) + ") " + value;
+    }
+
+    private static Class<?> getWrapperType(Class<?> primitiveType) {
+        if (primitiveType == int.class) {
+            return Integer.class;
+        } else if (primitiveType == long.class) {
+            return Long.class;
+        } else if (primitiveType == boolean.class) {
+            return Boolean.class;
+        } else if (primitiveType == double.class) {
+            return Double.class;
+        } else if (primitiveType == float.class) {
+            return Float.class;
+        } else if (primitiveType == short.class) {
+            return Short.class;
+        } else if (primitiveType == byte.class) {
+            return Byte.class;
+        } else if (primitiveType == char.class) {
+            return Character.class;
+        }
+        throw new IllegalArgumentException("Unsupported primitive type '" + primitiveType + "'");
+    }
+
+    private static String getSourceName(Class<?> type) {
+        return type.isArray() ? getSourceName(type.getComponentType()) + "[]" : type.getName();
+    }
+
+    private static boolean isInstantiatorVisible(ClassLoader classLoader) {
+        try {
+            return Class.forName(GeneratedInjection.Instantiator.class.getName(), false, classLoader)
+                == GeneratedInjection.Instantiator.class;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static boolean isMemberAccessible(Member member, Class<?> targetClass) {
+        return !Modifier.isPrivate(member.getModifiers())
+            && isTypeAccessible(member.getDeclaringClass(), targetClass)
+            && (Modifier.isPublic(member.getModifiers()) || isInSamePackage(member.getDeclaringClass(), targetClass));
+    }
+
+    private static boolean isTypeAccessible(Class<?> type, Class<?> targetClass) {
+        if (type.isPrimitive()) {
+            return true;
+        } else if (type.isArray()) {
+            return isTypeAccessible(type.getComponentType(), targetClass);
+        }
+
+        // Private nested classes are declared with package visibility in the bytecode, but stay on the safe side
+        Class<?> currentClass = type;
+        while (currentClass != null) {
+            if (Modifier.isPrivate(currentClass.getModifiers())
+                || !Modifier.isPublic(currentClass.getModifiers()) && !isInSamePackage(currentClass, targetClass)) {
+                return false;
+            }
+            currentClass = currentClass.getDeclaringClass();
+        }
+        return true;
+    }
+
+    private static boolean isInSamePackage(Class<?> type, Class<?> targetClass) {
+        return type.getClassLoader() == targetClass.getClassLoader()
+            && getPackageName(type).equals(getPackageName(targetClass));
+    }
+
+    private static String getPackageName(Class<?> type) {
+        final String name = type.getName();
+        final int lastDot = name.lastIndexOf('.');
+        return lastDot < 0 ? "" : name.substring(0, lastDot);
+    }
+}
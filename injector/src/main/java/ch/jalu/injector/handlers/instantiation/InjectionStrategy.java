@@ -0,0 +1,24 @@
+package ch.jalu.injector.handlers.instantiation;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.List;
+
+/**
+ * Defines how objects are created and injected once the constructor and the fields to inject have been
+ * determined, e.g. by {@link StandardInjectionProvider}.
+ *
+ * @see StandardInjectionStrategy for the strategies supported by default
+ */
+public interface InjectionStrategy {
+
+    /**
+     * Creates a resolution which instantiates objects with the given constructor and injects the given fields.
+     *
+     * @param constructor the constructor to create objects with
+     * @param fields the fields to inject after instantiation
+     * @param <T> the type of the objects to create
+     * @return resolution injecting the constructor and fields
+     */
+    <T> Resolution<T> createResolution(Constructor<T> constructor, List<Field> fields);
+}
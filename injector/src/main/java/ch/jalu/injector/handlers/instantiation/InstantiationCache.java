@@ -1,42 +1,131 @@
 package ch.jalu.injector.handlers.instantiation;
 
+import ch.jalu.injector.context.ObjectIdentifier;
 import ch.jalu.injector.context.ResolutionContext;
 import ch.jalu.injector.context.StandardResolutionType;
 import ch.jalu.injector.handlers.Handler;
+import ch.jalu.injector.utils.InjectorUtils;
 
 import javax.annotation.Nullable;
+import javax.inject.Provider;
+import java.lang.annotation.Annotation;
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
 import java.lang.ref.WeakReference;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * Primitive "cache" for instantiation methods. It is recommended to use a more suitable
- * cache structure instead, e.g. with Guava's CacheBuilder. As such, this handler is not
- * included by default.
+ * Cache for the resolutions of request-scoped objects. Resolutions are cached by the full object identifier,
+ * i.e. its type (including generic information), annotations and resolution type. The cache holds a limited
+ * number of resolutions and evicts the least recently used ones once the limit is reached.
+ * <p>
+ * Looking up resolutions never locks. The recency of entries is tracked approximately: an entry is stamped with
+ * the number of insertions when it is accessed. The entries are also kept in an access-ordered map, which is
+ * only updated while holding a lock when a new resolution is added: entries which have been accessed since
+ * they were last ordered are moved to the end before the eldest entry is evicted.
+ * <p>
+ * The cache is cleared whenever a provider or an annotation value is registered, as other handlers may resolve
+ * objects differently afterwards. It should be placed after handlers which must always be consulted (such as
+ * {@link ch.jalu.injector.handlers.dependency.CyclicDependenciesDetector}) and before the instantiation providers.
  */
 public class InstantiationCache implements Handler {
 
-    protected Map<Class, WeakReference<Resolution>> entries = new ConcurrentHashMap<>();
+    /** Maximum number of resolutions kept by the cache created with the default constructor. */
+    public static final int DEFAULT_MAXIMUM_SIZE = 1024;
+
+    private final ReferenceStrength referenceStrength;
+    private final int maximumSize;
+    private final ConcurrentMap<ObjectIdentifier, Entry> entries = new ConcurrentHashMap<>();
+    /** Number of insertions, used to stamp the entries when they are accessed. */
+    private final AtomicLong insertions = new AtomicLong();
+    private final Object evictionLock = new Object();
+    /** Entries from least to most recently used, as far as known when adding an entry. Guarded by evictionLock. */
+    private final Map<ObjectIdentifier, Entry> evictionOrder = new LinkedHashMap<ObjectIdentifier, Entry>(
+        16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ObjectIdentifier, Entry> eldest) {
+            if (size() > maximumSize) {
+                if (entries.remove(eldest.getKey(), eldest.getValue())) {
+                    evictions.increment();
+                }
+                return true;
+            }
+            return false;
+        }
+    };
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache which strongly references up to {@link #DEFAULT_MAXIMUM_SIZE} resolutions.
+     */
+    public InstantiationCache() {
+        this(ReferenceStrength.STRONG, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param referenceStrength how the cached resolutions are referenced
+     * @param maximumSize the maximum number of resolutions to keep
+     */
+    public InstantiationCache(ReferenceStrength referenceStrength, int maximumSize) {
+        InjectorUtils.checkNotNull(referenceStrength, "reference strength may not be null");
+        InjectorUtils.checkArgument(maximumSize > 0, "Maximum size must be positive");
+        this.referenceStrength = referenceStrength;
+        this.maximumSize = maximumSize;
+    }
 
     @Override
     public Resolution<?> resolve(ResolutionContext context) {
-        return getInstantiation(context);
+        if (!shouldCacheMethod(context)) {
+            return null;
+        }
+        Resolution<?> resolution = get(context.getIdentifier());
+        if (resolution == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return resolution;
     }
 
     @Override
     public <T> T postProcess(T object, ResolutionContext context, Resolution<?> resolution) {
-        if (shouldCacheMethod(context) && getInstantiation(context) == null) {
-            // TODO #48: Refine this to go over the entire object identifier
-            entries.put(context.getIdentifier().getTypeAsClass(), new WeakReference<>(resolution));
+        if (shouldCacheMethod(context)) {
+            ObjectIdentifier key = context.getIdentifier();
+            if (get(key) == null) {
+                add(key, resolution);
+            }
         }
         return null;
     }
 
-    @Nullable
-    @SuppressWarnings("unchecked")
-    private <T> Resolution<? extends T> getInstantiation(ResolutionContext context) {
-        WeakReference<Resolution> instantiation = entries.get(context.getIdentifier().getTypeAsClass());
-        return instantiation == null ? null : instantiation.get();
+    @Override
+    public boolean isPostProcessorFor(Resolution<?> resolution) {
+        // Objects created with a plan are not resolved with the handlers, so their resolution needn't be cached
+        return false;
+    }
+
+    @Override
+    public void onAnnotation(Class<? extends Annotation> annotationType, @Nullable Object object) {
+        clear();
+    }
+
+    @Override
+    public <T> void onProvider(Class<T> clazz, Provider<? extends T> provider) {
+        clear();
+    }
+
+    @Override
+    public <T, P extends Provider<? extends T>> void onProviderClass(Class<T> clazz, Class<P> providerClass) {
+        clear();
     }
 
     /**
@@ -48,4 +137,150 @@ public class InstantiationCache implements Handler {
     protected boolean shouldCacheMethod(ResolutionContext context) {
         return context.getIdentifier().getResolutionType() == StandardResolutionType.REQUEST_SCOPED;
     }
+
+    /**
+     * Removes all cached resolutions. Does not reset the counters.
+     */
+    public void clear() {
+        synchronized (evictionLock) {
+            entries.clear();
+            evictionOrder.clear();
+        }
+    }
+
+    /**
+     * @return the number of resolutions currently in the cache (may include garbage collected ones)
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the number of times a resolution was found in the cache
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of times a cacheable resolution was not found in the cache
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of resolutions that were removed because the size limit was reached or because
+     *         they were garbage collected
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    @Nullable
+    private Resolution<?> get(ObjectIdentifier key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        Resolution<?> resolution = referenceStrength.unwrap(entry.value);
+        if (resolution == null) {
+            synchronized (evictionLock) {
+                if (entries.remove(key, entry)) {
+                    evictionOrder.remove(key, entry);
+                    evictions.increment();
+                }
+            }
+        } else {
+            entry.markAccessed(insertions.get());
+        }
+        return resolution;
+    }
+
+    private void add(ObjectIdentifier key, Resolution<?> resolution) {
+        synchronized (evictionLock) {
+            Entry entry = new Entry(referenceStrength.wrap(resolution), insertions.getAndIncrement());
+            if (entries.putIfAbsent(key, entry) == null) {
+                if (evictionOrder.size() >= maximumSize) {
+                    reorderAccessedEntries();
+                }
+                // Evicts the eldest entry if the maximum size is exceeded
+                evictionOrder.put(key, entry);
+            }
+        }
+    }
+
+    /**
+     * Moves the entries at the start of the eviction order to its end as long as they have been accessed since
+     * they were last ordered, so that the eldest entry is the least recently used one. As no entries are inserted
+     * while the lock is held, accesses in the meantime do not make a moved entry count as accessed again: no entry
+     * is moved twice.
+     */
+    private void reorderAccessedEntries() {
+        while (!evictionOrder.isEmpty()) {
+            Map.Entry<ObjectIdentifier, Entry> eldest = evictionOrder.entrySet().iterator().next();
+            Entry entry = eldest.getValue();
+            if (entry.lastAccess <= entry.orderedAccess) {
+                return;
+            }
+            entry.orderedAccess = insertions.get();
+            evictionOrder.get(eldest.getKey()); // moves the entry to the end
+        }
+    }
+
+    /**
+     * Cached resolution along with the stamp of its last access.
+     */
+    private static final class Entry {
+        private final Object value;
+        private volatile long lastAccess;
+        /** Stamp at which the entry was last put at the end of the eviction order. */
+        private long orderedAccess;
+
+        Entry(Object value, long lastAccess) {
+            this.value = value;
+            this.lastAccess = lastAccess;
+            this.orderedAccess = lastAccess;
+        }
+
+        void markAccessed(long stamp) {
+            // Avoid writing to the entry if nothing has been inserted since its last access
+            if (lastAccess != stamp) {
+                lastAccess = stamp;
+            }
+        }
+    }
+
+    /**
+     * Defines how the cache references the resolutions it holds.
+     */
+    public enum ReferenceStrength {
+
+        /** Resolutions are kept until they are evicted. */
+        STRONG,
+
+        /** Resolutions may be garbage collected when memory is low. */
+        SOFT,
+
+        /** Resolutions may be garbage collected as soon as they are not used anywhere else. */
+        WEAK;
+
+        Object wrap(Resolution<?> resolution) {
+            switch (this) {
+                case SOFT:
+                    return new SoftReference<>(resolution);
+                case WEAK:
+                    return new WeakReference<>(resolution);
+                default:
+                    return resolution;
+            }
+        }
+
+        @Nullable
+        Resolution<?> unwrap(Object value) {
+            return value instanceof Reference<?>
+                ? (Resolution<?>) ((Reference<?>) value).get()
+                : (Resolution<?>) value;
+        }
+    }
 }
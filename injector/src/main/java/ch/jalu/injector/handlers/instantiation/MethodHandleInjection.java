@@ -0,0 +1,160 @@
+package ch.jalu.injector.handlers.instantiation;
+
+import ch.jalu.injector.exceptions.InjectorException;
+import ch.jalu.injector.exceptions.InjectorReflectionException;
+import ch.jalu.injector.utils.InjectorUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Standard injection which invokes the constructor and sets the fields with method handles. The handles are
+ * created once and adapted to exact types, so no access checks or reflective lookups are performed when
+ * objects are created.
+ *
+ * @param <T> the type of the objects to create
+ */
+public class MethodHandleInjection<T> extends StandardInjection<T> {
+
+    private static final MethodType FIELD_SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final Class<T> declaringClass;
+    private final Class<?>[] constructorParameterTypes;
+    private final int constructorParameterCount;
+    private final MethodHandle constructorHandle;
+    private final Field[] fields;
+    private final MethodHandle[] fieldSetters;
+
+    /**
+     * Constructor.
+     *
+     * @param constructor the constructor to create objects with
+     * @param fields the fields to inject after instantiation
+     */
+    public MethodHandleInjection(Constructor<T> constructor, List<Field> fields) {
+        super(constructor, fields);
+        this.declaringClass = constructor.getDeclaringClass();
+        this.constructorParameterTypes = constructor.getParameterTypes();
+        this.constructorParameterCount = constructorParameterTypes.length;
+        this.constructorHandle = createConstructorHandle(constructor);
+        this.fields = fields.toArray(new Field[0]);
+        this.fieldSetters = new MethodHandle[this.fields.length];
+        for (int i = 0; i < this.fields.length; ++i) {
+            fieldSetters[i] = createFieldSetter(this.fields[i]);
+        }
+    }
+
+    @Override
+    public T instantiateWith(Object... values) {
+        InjectorUtils.checkArgument(values.length == constructorParameterCount + fieldSetters.length,
+            "Number of values does not correspond to the expected number");
+
+        final Object[] constructorValues = fieldSetters.length == 0
+            ? values
+            : Arrays.copyOfRange(values, 0, constructorParameterCount);
+        final T instance;
+        try {
+            instance = declaringClass.cast((Object) constructorHandle.invokeExact(constructorValues));
+        } catch (Throwable e) {
+            throw createConstructorException(e, constructorValues);
+        }
+
+        for (int i = 0; i < fieldSetters.length; ++i) {
+            try {
+                fieldSetters[i].invokeExact((Object) instance, values[i + constructorParameterCount]);
+            } catch (RuntimeException e) {
+                // Thrown if the value cannot be converted to the field's type
+                throw new InjectorReflectionException(
+                    "Could not set field '" + fields[i].getName() + "' for " + instance, e);
+            } catch (Throwable e) {
+                throw new InjectorException("Could not set field '" + fields[i].getName() + "' for " + instance, e);
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Creates the exception to throw for a throwable that was thrown while invoking the constructor handle. Values
+     * which cannot be converted to the constructor's parameter types make the handle fail before the constructor
+     * is called: only throwables of the constructor itself are wrapped in an {@link InvocationTargetException}.
+     *
+     * @param e the thrown throwable
+     * @param constructorValues the values the constructor handle was invoked with
+     * @return the exception to throw
+     */
+    private InjectorReflectionException createConstructorException(Throwable e, Object[] constructorValues) {
+        if (e instanceof RuntimeException) {
+            for (int i = 0; i < constructorParameterCount; ++i) {
+                if (!isConvertible(constructorValues[i], constructorParameterTypes[i])) {
+                    return new InjectorReflectionException("Invalid value for parameter " + i
+                        + " of the constructor of class '" + declaringClass + "'", (RuntimeException) e);
+                }
+            }
+        }
+        return new InjectorReflectionException("Could not invoke constructor of class '"
+            + declaringClass + "'", new InvocationTargetException(e));
+    }
+
+    /**
+     * Returns whether the given value can be passed for a parameter of the given type, i.e. whether the method
+     * handle adapter can convert it.
+     *
+     * @param value the value to check
+     * @param type the parameter type
+     * @return true if the value is valid for the type, false otherwise
+     */
+    private static boolean isConvertible(Object value, Class<?> type) {
+        if (!type.isPrimitive()) {
+            return value == null || type.isInstance(value);
+        }
+        try {
+            // Apply the same conversion as the constructor handle (unboxing, followed by a widening conversion)
+            Object convertedValue = MethodHandles.identity(Object.class)
+                .asType(MethodType.methodType(type, Object.class))
+                .invoke(value);
+            return convertedValue != null;
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+
+    private static MethodHandle createConstructorHandle(Constructor<?> constructor) {
+        constructor.setAccessible(true);
+        try {
+            return MethodHandles.lookup().unreflectConstructor(constructor)
+                .asType(MethodType.genericMethodType(constructor.getParameterCount()))
+                .asSpreader(Object[].class, constructor.getParameterCount());
+        } catch (IllegalAccessException e) {
+            throw new InjectorReflectionException("Could not access constructor of class '"
+                + constructor.getDeclaringClass() + "'", e);
+        }
+    }
+
+    /**
+     * Creates a method handle which sets the given field. The handle is of type {@code (Object, Object)void},
+     * taking the instance and the value; for static fields, the instance is ignored.
+     *
+     * @param field the field to create the setter for
+     * @return method handle setting the field
+     */
+    static MethodHandle createFieldSetter(Field field) {
+        field.setAccessible(true);
+        try {
+            MethodHandle setter = MethodHandles.lookup().unreflectSetter(field);
+            if (Modifier.isStatic(field.getModifiers())) {
+                // Static setters do not take an instance, so add an ignored parameter for the uniform signature
+                setter = MethodHandles.dropArguments(setter, 0, Object.class);
+            }
+            return setter.asType(FIELD_SETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new InjectorReflectionException("Could not access field '" + field + "'", e);
+        }
+    }
+}
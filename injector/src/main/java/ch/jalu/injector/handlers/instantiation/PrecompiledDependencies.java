@@ -0,0 +1,70 @@
+package ch.jalu.injector.handlers.instantiation;
+
+import ch.jalu.injector.context.ObjectIdentifier;
+import ch.jalu.injector.exceptions.InjectorException;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+
+import static ch.jalu.injector.context.StandardResolutionType.SINGLETON;
+
+/**
+ * Creates the dependency identifiers of {@link PrecompiledResolution precompiled resolutions}. Used by the code
+ * generated by the injector's annotation processor.
+ * <p>
+ * Dependencies of a simple type and without any annotations can be created directly. For dependencies with
+ * generic type information or annotations, the type and annotations are read from the member, since they
+ * cannot be represented in generated code otherwise.
+ */
+public final class PrecompiledDependencies {
+
+    private PrecompiledDependencies() {
+    }
+
+    /**
+     * Creates an identifier for a dependency of the given type without any annotations.
+     *
+     * @param type the type of the dependency
+     * @return the identifier
+     */
+    public static ObjectIdentifier of(Class<?> type) {
+        return ObjectIdentifier.of(SINGLETON, type);
+    }
+
+    /**
+     * Creates an identifier for the dependency represented by the given field.
+     *
+     * @param declaringClass the class declaring the field
+     * @param fieldName the name of the field
+     * @return the identifier
+     */
+    public static ObjectIdentifier ofField(Class<?> declaringClass, String fieldName) {
+        try {
+            Field field = declaringClass.getDeclaredField(fieldName);
+            return ObjectIdentifier.of(SINGLETON, field.getGenericType(), field.getAnnotations());
+        } catch (NoSuchFieldException e) {
+            throw new InjectorException("Could not find field '" + fieldName + "' in '" + declaringClass
+                + "'. Was the class changed without recompiling it?", e);
+        }
+    }
+
+    /**
+     * Creates an identifier for the dependency represented by a constructor parameter.
+     *
+     * @param declaringClass the class declaring the constructor
+     * @param index the index of the parameter
+     * @param parameterTypes the parameter types of the constructor
+     * @return the identifier
+     */
+    public static ObjectIdentifier ofConstructorParameter(Class<?> declaringClass, int index,
+                                                          Class<?>... parameterTypes) {
+        try {
+            Constructor<?> constructor = declaringClass.getDeclaredConstructor(parameterTypes);
+            return ObjectIdentifier.of(SINGLETON, constructor.getGenericParameterTypes()[index],
+                constructor.getParameterAnnotations()[index]);
+        } catch (NoSuchMethodException e) {
+            throw new InjectorException("Could not find constructor of '" + declaringClass
+                + "'. Was the class changed without recompiling it?", e);
+        }
+    }
+}
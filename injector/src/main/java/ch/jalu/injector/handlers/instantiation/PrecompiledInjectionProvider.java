@@ -0,0 +1,60 @@
+package ch.jalu.injector.handlers.instantiation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * Instantiation provider which supplies the {@link PrecompiledResolution resolutions} generated at compile time
+ * by the injector's annotation processor ({@code injector-processor}). Classes for which no precompiled resolution
+ * exists are left to the next handler, typically the {@link DefaultInjectionProvider}.
+ * <p>
+ * Precompiled resolutions have been validated by the annotation processor and neither scan the class nor use
+ * reflection to instantiate it, which reduces the startup cost of an application considerably.
+ */
+public class PrecompiledInjectionProvider extends DirectInstantiationProvider {
+
+    private final String rootPackage;
+    private final List<PrecompiledInjectionRegistry> registries = new ArrayList<>();
+
+    /**
+     * Constructor. Loads all {@link PrecompiledInjectionRegistry registries} which are available as service.
+     *
+     * @param rootPackage the package classes must belong to in order to be instantiated
+     */
+    public PrecompiledInjectionProvider(String rootPackage) {
+        this(rootPackage, ServiceLoader.load(PrecompiledInjectionRegistry.class));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param rootPackage the package classes must belong to in order to be instantiated
+     * @param registries the registries to take the precompiled resolutions from
+     */
+    public PrecompiledInjectionProvider(String rootPackage,
+                                        Iterable<? extends PrecompiledInjectionRegistry> registries) {
+        this.rootPackage = rootPackage;
+        registries.forEach(this.registries::add);
+    }
+
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
+    @Override
+    protected <T> Resolution<T> safeGet(Class<T> clazz) {
+        if (registries.isEmpty() || !clazz.getPackage().getName().startsWith(rootPackage)) {
+            // Classes outside of the root package are left to the next handler, which may report them
+            return null;
+        }
+        for (PrecompiledInjectionRegistry registry : registries) {
+            PrecompiledResolution<T> resolution = registry.getResolution(clazz);
+            if (resolution != null) {
+                return resolution;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,35 @@
+package ch.jalu.injector.handlers.instantiation;
+
+import javax.annotation.Nullable;
+
+/**
+ * Registry of the {@link PrecompiledResolution precompiled resolutions} of a compilation unit. Implementations
+ * are generated by the injector's annotation processor and are registered as service, so that they can be
+ * loaded with {@link java.util.ServiceLoader}.
+ *
+ * @see PrecompiledInjectionProvider
+ */
+public interface PrecompiledInjectionRegistry {
+
+    /**
+     * Returns a new precompiled resolution for the given class, or null if the registry does not have any.
+     *
+     * @param clazz the class to get the resolution for
+     * @param <T> the class' type
+     * @return resolution instantiating the class, or null if not available
+     */
+    @Nullable
+    <T> PrecompiledResolution<T> getResolution(Class<T> clazz);
+
+    /**
+     * Returns whether the given class has been verified by the annotation processor. This includes classes
+     * for which no resolution could be generated, e.g. because they have private {@code @Inject} fields.
+     *
+     * @param clazz the class to check
+     * @return true if the class has been verified at build time, false otherwise
+     */
+    default boolean isVerified(Class<?> clazz) {
+        return getResolution(clazz) != null;
+    }
+
+}
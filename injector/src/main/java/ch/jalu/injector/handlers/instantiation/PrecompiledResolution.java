@@ -0,0 +1,34 @@
+package ch.jalu.injector.handlers.instantiation;
+
+/**
+ * Resolution generated at compile time by the injector's annotation processor. It instantiates a class and
+ * invokes its {@link javax.annotation.PostConstruct} methods without any reflection.
+ *
+ * @param <T> the type of the class the resolution instantiates
+ * @see PrecompiledInjectionProvider
+ */
+public interface PrecompiledResolution<T> extends Resolution<T> {
+
+    /**
+     * @return the class which is instantiated by this resolution
+     */
+    Class<T> getType();
+
+    /**
+     * Invokes the {@code @PostConstruct} methods of the given object in the same order as they would be
+     * invoked reflectively, i.e. the methods of parent classes are invoked first.
+     *
+     * @param object the object to process (exactly of type {@link #getType()})
+     */
+    void invokePostConstructMethods(T object);
+
+    @Override
+    default boolean isInstantiation() {
+        return true;
+    }
+
+    @Override
+    default Class<?> getCreatedType() {
+        return getType();
+    }
+}
@@ -1,5 +1,6 @@
 package ch.jalu.injector.handlers.instantiation;
 
+import ch.jalu.injector.Injector;
 import ch.jalu.injector.context.ObjectIdentifier;
 import ch.jalu.injector.context.ResolutionContext;
 import ch.jalu.injector.exceptions.InjectorException;
@@ -9,10 +10,15 @@ import ch.jalu.injector.utils.ReflectionUtils;
 
 import javax.annotation.Nullable;
 import javax.inject.Provider;
+import java.lang.ref.WeakReference;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static ch.jalu.injector.context.StandardResolutionType.SINGLETON;
 import static ch.jalu.injector.utils.InjectorUtils.checkArgument;
@@ -23,18 +29,48 @@ import static ch.jalu.injector.utils.InjectorUtils.checkArgument;
  */
 public class ProviderHandler implements Handler {
 
-    protected Map<Class<?>, ProviderBasedInstantiation<?>> providers = new HashMap<>();
+    protected volatile Map<Class<?>, ProviderBasedInstantiation<?>> providers = new ConcurrentHashMap<>();
 
     @Override
     public <T> void onProvider(Class<T> clazz, Provider<? extends T> provider) {
-        checkArgument(!providers.containsKey(clazz), "Provider already registered for " + clazz);
-        providers.put(clazz, new InstantiationByProvider<>(provider));
+        registerInstantiation(clazz, new InstantiationByProvider<>(provider));
     }
 
     @Override
     public <T, P extends Provider<? extends T>> void onProviderClass(Class<T> clazz, Class<P> providerClass) {
-        checkArgument(!providers.containsKey(clazz), "Provider already registered for " + clazz);
-        providers.put(clazz, new InstantiationByProviderClass<>(providerClass));
+        registerInstantiation(clazz, new InstantiationByProviderClass<>(providerClass));
+    }
+
+    @Override
+    public void onFreeze() {
+        // No more providers are registered, so the map no longer needs to support concurrent modifications
+        providers = new HashMap<>(providers);
+    }
+
+    private void registerInstantiation(Class<?> clazz, ProviderBasedInstantiation<?> instantiation) {
+        checkArgument(providers.putIfAbsent(clazz, instantiation) == null, "Provider already registered for " + clazz);
+    }
+
+    /**
+     * Returns whether a provider or provider class has been registered for the given class.
+     *
+     * @param clazz the class to check
+     * @return true if the class is instantiated with a provider, false otherwise
+     */
+    public boolean hasProvider(Class<?> clazz) {
+        return providers.containsKey(clazz);
+    }
+
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
+    @Override
+    public Set<Class<?>> getClaimedTypes() {
+        Set<Class<?>> types = new HashSet<>(providers.keySet());
+        types.add(Provider.class);
+        return types;
     }
 
     @Override
@@ -42,7 +78,8 @@ public class ProviderHandler implements Handler {
         if (Provider.class.equals(context.getIdentifier().getTypeAsClass())) {
             return handleProviderRequest(context);
         }
-        return providers.get(context.getIdentifier().getTypeAsClass());
+        ProviderBasedInstantiation<?> instantiation = providers.get(context.getIdentifier().getTypeAsClass());
+        return instantiation == null ? null : instantiation.forInjector(context.getInjector());
     }
 
     @Nullable
@@ -53,10 +90,9 @@ public class ProviderHandler implements Handler {
         }
         ProviderBasedInstantiation<?> givenInstantiation = providers.get(genericType);
         if (givenInstantiation == null) {
-            Provider<?> defaultProvider = () -> context.getInjector().newInstance(genericType);
-            return new SimpleResolution<>(defaultProvider);
+            return new SimpleResolution<>(context.getInjector().getProvider(genericType));
         }
-        return givenInstantiation.createProviderResolution();
+        return givenInstantiation.forInjector(context.getInjector()).createProviderResolution();
     }
 
     /**
@@ -68,6 +104,16 @@ public class ProviderHandler implements Handler {
 
         Resolution<Provider<? extends T>> createProviderResolution();
 
+        /**
+         * Returns the instantiation to use for the given injector. Instantiations may keep objects of the
+         * injector they were used with, which must not be used by other injectors (e.g. child injectors).
+         *
+         * @param injector the injector that is resolving
+         * @return the instantiation to use
+         */
+        default ProviderBasedInstantiation<T> forInjector(Injector injector) {
+            return this;
+        }
     }
 
     /**
@@ -105,28 +151,61 @@ public class ProviderHandler implements Handler {
     }
 
     /**
-     * Resolution of an object with a known provider class.
+     * Resolution of an object with a known provider class. The provider class is a dependency until its singleton
+     * has been created, after which the singleton is used directly. As the singleton belongs to an injector, the
+     * registered instantiation is only used by the first injector it is resolved for; other injectors get an
+     * instantiation of their own, which is kept for subsequent resolutions.
      *
      * @param <T> the object type
      */
     private static final class InstantiationByProviderClass<T> implements ProviderBasedInstantiation<T> {
         private final Class<? extends Provider<? extends T>> providerClass;
+        private final List<ObjectIdentifier> providerClassDependency;
+        private volatile Provider<? extends T> provider;
+        private volatile WeakReference<Injector> owner;
+        /**
+         * Instantiations of the other injectors. They are referenced weakly, as they keep the provider singleton
+         * of their injector, which may reference the injector. Guarded by this.
+         */
+        private final Map<Injector, WeakReference<InstantiationByProviderClass<T>>> instantiationsByInjector =
+            new WeakHashMap<>();
 
         InstantiationByProviderClass(Class<? extends Provider<? extends T>> providerClass) {
             this.providerClass = providerClass;
+            this.providerClassDependency = Collections.singletonList(ObjectIdentifier.of(SINGLETON, providerClass));
         }
 
         @Override
         public List<ObjectIdentifier> getDependencies() {
-            return Collections.singletonList(new ObjectIdentifier(SINGLETON, providerClass));
+            return provider == null ? providerClassDependency : Collections.emptyList();
         }
 
         @Override
-        @SuppressWarnings("unchecked")
         public T instantiateWith(Object... values) {
-            InjectorUtils.checkArgument(values.length == 1 && providerClass.isInstance(values[0]),
-                "Expected one dependency of type " + providerClass);
-            return ((Provider<? extends T>) values[0]).get();
+            return getProvider(values).get();
+        }
+
+        @Override
+        public ProviderBasedInstantiation<T> forInjector(Injector injector) {
+            if (owner == null) {
+                synchronized (this) {
+                    if (owner == null) {
+                        owner = new WeakReference<>(injector);
+                    }
+                }
+            }
+            return owner.get() == injector ? this : getInstantiationForOtherInjector(injector);
+        }
+
+        private synchronized InstantiationByProviderClass<T> getInstantiationForOtherInjector(Injector injector) {
+            WeakReference<InstantiationByProviderClass<T>> reference = instantiationsByInjector.get(injector);
+            InstantiationByProviderClass<T> instantiation = reference == null ? null : reference.get();
+            if (instantiation == null) {
+                instantiation = new InstantiationByProviderClass<>(providerClass);
+                instantiation.owner = new WeakReference<>(injector);
+                instantiationsByInjector.put(injector, new WeakReference<>(instantiation));
+            }
+            return instantiation;
         }
 
         @Override
@@ -136,6 +215,10 @@ public class ProviderHandler implements Handler {
 
         @Override
         public Resolution<Provider<? extends T>> createProviderResolution() {
+            if (provider != null) {
+                return new SimpleResolution<>(provider);
+            }
+
             // Workaround: return an Instantiation object that takes the actual class as dependency and simply returns
             // it as the result. This way whatever concrete class is mapped to function as Provider<T> is created as if
             // we did injector.getSingleton(providerClass) and it gets registered as such.
@@ -143,17 +226,33 @@ public class ProviderHandler implements Handler {
             return new Resolution<Provider<? extends T>>() {
                 @Override
                 public List<ObjectIdentifier> getDependencies() {
-                    return Collections.singletonList(new ObjectIdentifier(SINGLETON, providerClass));
+                    return providerClassDependency;
                 }
 
                 @Override
-                @SuppressWarnings("unchecked")
                 public Provider<? extends T> instantiateWith(Object... values) {
-                    InjectorUtils.checkArgument(values.length == 1 && providerClass.isInstance(values[0]),
-                        "Expected one dependency of type " + providerClass);
-                    return (Provider<? extends T>) values[0];
+                    return getProvider(values);
                 }
             };
         }
+
+        /**
+         * Returns the provider singleton, which is either the single given value or the provider that was
+         * given previously. The dependencies may still contain the provider class if it was resolved in parallel.
+         *
+         * @param values the resolved dependencies
+         * @return the provider
+         */
+        @SuppressWarnings("unchecked")
+        private Provider<? extends T> getProvider(Object... values) {
+            if (values.length == 0 && provider != null) {
+                return provider;
+            }
+            InjectorUtils.checkArgument(values.length == 1 && providerClass.isInstance(values[0]),
+                "Expected one dependency of type " + providerClass);
+            Provider<? extends T> givenProvider = (Provider<? extends T>) values[0];
+            provider = givenProvider;
+            return givenProvider;
+        }
     }
 }
@@ -2,6 +2,7 @@ package ch.jalu.injector.handlers.instantiation;
 
 import ch.jalu.injector.context.ObjectIdentifier;
 
+import javax.annotation.Nullable;
 import java.util.List;
 
 /**
@@ -41,4 +42,15 @@ public interface Resolution<T> {
     default boolean isInstantiation() {
         return false;
     }
+
+    /**
+     * Returns the class of the objects created by this resolution if all of them are exactly of this class,
+     * as is the case for resolutions which call a constructor.
+     *
+     * @return the class of all created objects, null if unknown or if the objects' classes may vary (default)
+     */
+    @Nullable
+    default Class<?> getCreatedType() {
+        return null;
+    }
 }
@@ -56,17 +56,18 @@ public class StandardInjection<T> implements Resolution<T> {
     @Override
     public T instantiateWith(Object... values) {
         // Check no null values & correct size
-        InjectorUtils.checkArgument(values.length == constructor.getParameterTypes().length + fields.size(),
+        final int constructorParams = constructor.getParameterCount();
+        InjectorUtils.checkArgument(values.length == constructorParams + fields.size(),
             "Number of values does not correspond to the expected number");
 
         // Constructor injection
-        final int constructorParams = constructor.getParameterTypes().length;
-        final List<Object> constructorValues = Arrays.asList(values).subList(0, constructorParams);
-        T instance = ReflectionUtils.newInstance(constructor, constructorValues.toArray());
+        T instance = ReflectionUtils.newInstance(constructor, Arrays.copyOfRange(values, 0, constructorParams));
 
         // Field injection
-        for (int i = 0; i < fields.size(); ++i) {
-            ReflectionUtils.setField(fields.get(i), instance, values[i + constructorParams]);
+        int index = constructorParams;
+        for (Field field : fields) {
+            ReflectionUtils.setField(field, instance, values[index]);
+            ++index;
         }
         return instance;
     }
@@ -76,20 +77,25 @@ public class StandardInjection<T> implements Resolution<T> {
         return true;
     }
 
+    @Override
+    public Class<?> getCreatedType() {
+        return constructor.getDeclaringClass();
+    }
+
     private List<ObjectIdentifier> buildConstructorDependencies() {
         final Type[] parameters = constructor.getGenericParameterTypes();
         final Annotation[][] annotations = constructor.getParameterAnnotations();
 
         List<ObjectIdentifier> dependencies = new ArrayList<>(parameters.length);
         for (int i = 0; i < parameters.length; ++i) {
-            dependencies.add(new ObjectIdentifier(SINGLETON, parameters[i], annotations[i]));
+            dependencies.add(ObjectIdentifier.of(SINGLETON, parameters[i], annotations[i]));
         }
         return dependencies;
     }
 
     private List<ObjectIdentifier> buildFieldDependencies() {
         return fields.stream()
-            .map(f -> new ObjectIdentifier(SINGLETON, f.getGenericType(), f.getAnnotations()))
+            .map(f -> ObjectIdentifier.of(SINGLETON, f.getGenericType(), f.getAnnotations()))
             .collect(Collectors.toList());
     }
 }
@@ -1,7 +1,7 @@
 package ch.jalu.injector.handlers.instantiation;
 
 import ch.jalu.injector.exceptions.InjectorException;
-import ch.jalu.injector.utils.ReflectionUtils;
+import ch.jalu.injector.utils.ClassMetadata;
 
 import javax.annotation.Nullable;
 import javax.inject.Inject;
@@ -9,8 +9,9 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.ServiceLoader;
 
 /**
  * Provider of {@link Resolution} objects that roughly follows the documentation as given in {@link Inject}.
@@ -29,9 +30,61 @@ import java.util.List;
  * any of its parents, an exception is thrown.
  * <p>
  * {@link ch.jalu.injector.annotations.NoMethodScan} and {@link ch.jalu.injector.annotations.NoFieldScan} are respected.
+ * <p>
+ * Each class is validated once; the outcome is remembered as defined by the {@link ValidationPolicy}.
  */
 public class StandardInjectionProvider extends DirectInstantiationProvider {
 
+    private final InjectionStrategy injectionStrategy;
+    private final ValidationPolicy validationPolicy;
+    private final List<PrecompiledInjectionRegistry> trustedRegistries = new ArrayList<>();
+    private final ValidationVerdicts validationVerdicts = new ValidationVerdicts();
+
+    /**
+     * Constructor. Objects are created with {@link StandardInjectionStrategy#REFLECTION reflection}.
+     */
+    public StandardInjectionProvider() {
+        this(StandardInjectionStrategy.REFLECTION);
+    }
+
+    /**
+     * Constructor. Classes are validated with the {@link ValidationPolicy#STRICT strict} policy.
+     *
+     * @param injectionStrategy the strategy to create the resolutions with
+     */
+    public StandardInjectionProvider(InjectionStrategy injectionStrategy) {
+        this(injectionStrategy, ValidationPolicy.STRICT);
+    }
+
+    /**
+     * Constructor. With the {@link ValidationPolicy#TRUSTED trusted} policy, the classes verified at build time
+     * are taken from the {@link PrecompiledInjectionRegistry registries} which are available as service.
+     *
+     * @param injectionStrategy the strategy to create the resolutions with
+     * @param validationPolicy the policy defining how classes are validated
+     */
+    public StandardInjectionProvider(InjectionStrategy injectionStrategy, ValidationPolicy validationPolicy) {
+        this.injectionStrategy = injectionStrategy;
+        this.validationPolicy = validationPolicy;
+        if (validationPolicy == ValidationPolicy.TRUSTED) {
+            ServiceLoader.load(PrecompiledInjectionRegistry.class).forEach(trustedRegistries::add);
+        }
+    }
+
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
+    /**
+     * Releases the verdicts of valid classes: once the injector is frozen, the classes it has created objects of
+     * are typically not resolved with the handlers anymore, as the injector keeps plans for them.
+     */
+    @Override
+    public void onFreeze() {
+        validationVerdicts.releaseValidVerdicts();
+    }
+
     @Override
     public <T> Resolution<T> safeGet(Class<T> clazz) {
         Constructor<T> constructor = getInjectionConstructor(clazz);
@@ -40,8 +93,22 @@ public class StandardInjectionProvider extends DirectInstantiationProvider {
         }
 
         List<Field> fields = getFieldsToInject(clazz);
-        validateInjection(clazz, constructor, fields);
-        return new StandardInjection<>(constructor, fields);
+        if (validationPolicy != ValidationPolicy.TRUSTED || !isVerifiedAtBuildTime(clazz)) {
+            validationVerdicts.validate(clazz, () -> validateInjection(clazz, constructor, fields));
+        }
+        return createResolution(constructor, fields);
+    }
+
+    /**
+     * Creates the resolution for the given constructor and fields, which have been validated.
+     *
+     * @param constructor the constructor to instantiate with
+     * @param fields the fields to inject
+     * @param <T> the class' type
+     * @return the resolution
+     */
+    protected <T> Resolution<T> createResolution(Constructor<T> constructor, List<Field> fields) {
+        return injectionStrategy.createResolution(constructor, fields);
     }
 
     // -------------
@@ -58,48 +125,7 @@ public class StandardInjectionProvider extends DirectInstantiationProvider {
      */
     @Nullable
     protected <T> Constructor<T> getInjectionConstructor(Class<T> clazz) {
-        Constructor<?>[] constructors = clazz.getDeclaredConstructors();
-        if (constructors.length == 1 && isSuitableNoArgsConstructor(constructors[0])) {
-            return (Constructor<T>) constructors[0];
-        }
-
-        Constructor<?> matchingConstructor = null;
-        for (Constructor<?> constructor : constructors) {
-            if (constructor.isAnnotationPresent(Inject.class)) {
-                if (matchingConstructor != null) {
-                    throw new InjectorException("Class '" + clazz + "' may not have multiple @Inject constructors");
-                }
-                matchingConstructor = constructor;
-            }
-        }
-
-        if (matchingConstructor == null) {
-            // Compatibility: If a class has at least one field with @Inject, take a non-public no-args constructor
-            return getNoArgsConstructorIfHasInjectField(clazz);
-        }
-        return (Constructor<T>) matchingConstructor;
-    }
-
-    private static boolean isSuitableNoArgsConstructor(Constructor<?> c) {
-        if (c.getParameterTypes().length > 0) {
-            return false;
-        }
-        return !Modifier.isPrivate(c.getModifiers()) || Modifier.isPrivate(c.getDeclaringClass().getModifiers());
-    }
-
-    @Nullable
-    private static <T> Constructor<T> getNoArgsConstructorIfHasInjectField(Class<T> clazz) {
-        try {
-            Constructor<?> constructor = clazz.getDeclaredConstructor();
-            for (Field field : ReflectionUtils.safeGetDeclaredFields(clazz)) {
-                if (field.isAnnotationPresent(Inject.class)) {
-                    return (Constructor<T>) constructor;
-                }
-            }
-        } catch (NoSuchMethodException e) {
-            // noop
-        }
-        return null;
+        return ClassMetadata.of(clazz).getInjectionConstructor();
     }
 
     // ------------
@@ -113,25 +139,32 @@ public class StandardInjectionProvider extends DirectInstantiationProvider {
      * @return the fields to inject
      */
     protected List<Field> getFieldsToInject(Class<?> clazz) {
-        List<Field> fields = new LinkedList<>();
-        Class<?> currentClass = clazz;
-        while (currentClass != null) {
-            for (Field f : ReflectionUtils.safeGetDeclaredFields(currentClass)) {
-                if (f.isAnnotationPresent(Inject.class)) {
-                    fields.add(f);
-                }
-            }
-            currentClass = currentClass.getSuperclass();
-        }
-        return fields;
+        return ClassMetadata.of(clazz).getInjectFields();
     }
 
     // ------------
     // Validation
     // ------------
 
+    /**
+     * Returns whether the given class has been verified at build time, in which case it is not validated
+     * if the {@link ValidationPolicy#TRUSTED trusted} validation policy is used.
+     *
+     * @param clazz the class to process
+     * @return true if the class does not need to be validated, false otherwise
+     */
+    protected boolean isVerifiedAtBuildTime(Class<?> clazz) {
+        for (PrecompiledInjectionRegistry registry : trustedRegistries) {
+            if (registry.isVerified(clazz)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Assures that the class and the members relevant for the instantiation form a valid combination.
+     * This method is called once per class: its outcome is remembered.
      *
      * @param clazz the class to instantiate
      * @param constructor the constructor to instantiate with
@@ -151,15 +184,11 @@ public class StandardInjectionProvider extends DirectInstantiationProvider {
     }
 
     private void validateHasNoInjectMethods(Class<?> clazz) {
-        Class<?> currentClass = clazz;
-        while (currentClass != null) {
-            for (Method m : ReflectionUtils.safeGetDeclaredMethods(currentClass)) {
-                if (m.isAnnotationPresent(Inject.class)) {
-                    throw new InjectorException("@Inject on methods is not supported, but found it on '" + m
-                        + "' while trying to instantiate '" + currentClass + "'");
-                }
-            }
-            currentClass = currentClass.getSuperclass();
+        List<Method> injectMethods = ClassMetadata.of(clazz).getInjectMethods();
+        if (!injectMethods.isEmpty()) {
+            Method method = injectMethods.get(0);
+            throw new InjectorException("@Inject on methods is not supported, but found it on '" + method
+                + "' while trying to instantiate '" + method.getDeclaringClass() + "'");
         }
     }
 }
@@ -0,0 +1,31 @@
+package ch.jalu.injector.handlers.instantiation;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.List;
+
+/**
+ * Injection strategies supported by default.
+ */
+public enum StandardInjectionStrategy implements InjectionStrategy {
+
+    /** Invokes the constructor and sets the fields with core reflection ({@link StandardInjection}). */
+    REFLECTION {
+        @Override
+        public <T> Resolution<T> createResolution(Constructor<T> constructor, List<Field> fields) {
+            return new StandardInjection<>(constructor, fields);
+        }
+    },
+
+    /**
+     * Binds the constructor and the fields to method handles once and invokes them for every new object
+     * ({@link MethodHandleInjection}).
+     */
+    METHOD_HANDLES {
+        @Override
+        public <T> Resolution<T> createResolution(Constructor<T> constructor, List<Field> fields) {
+            return new MethodHandleInjection<>(constructor, fields);
+        }
+    }
+
+}
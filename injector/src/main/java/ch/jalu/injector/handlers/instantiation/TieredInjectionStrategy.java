@@ -0,0 +1,182 @@
+package ch.jalu.injector.handlers.instantiation;
+
+import ch.jalu.injector.context.ObjectIdentifier;
+import ch.jalu.injector.utils.InjectorUtils;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Injection strategy which adapts to how often objects of a type are created. Objects are first created with the
+ * "cold" strategy, which is cheap to set up (by default {@link StandardInjectionStrategy#REFLECTION reflection}).
+ * Once the number of objects created for a type reaches the threshold, the type switches to the "hot" strategy,
+ * which is more expensive to set up but creates objects faster (e.g. {@link GeneratedInjectionStrategy}).
+ * This way, only the types which are created often pay the setup cost of the faster instantiation.
+ * <p>
+ * The invocations are counted per type across all resolutions created by this strategy. Counters can be
+ * retrieved with {@link #getInvocationCounts()}, and listeners can be registered to be notified when a type
+ * switches to the hot strategy.
+ */
+public class TieredInjectionStrategy implements InjectionStrategy {
+
+    private final long threshold;
+    private final InjectionStrategy coldStrategy;
+    private final InjectionStrategy hotStrategy;
+    private final ConcurrentMap<Class<?>, TypeTier<?>> tiersByType = new ConcurrentHashMap<>();
+    private final List<SwitchListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructor. Types are created with reflection and switch to method handles after the given threshold.
+     *
+     * @param threshold the number of objects to create with reflection before switching to method handles
+     */
+    public TieredInjectionStrategy(long threshold) {
+        this(threshold, StandardInjectionStrategy.REFLECTION, StandardInjectionStrategy.METHOD_HANDLES);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param threshold the number of objects to create with the cold strategy before switching to the hot one
+     * @param coldStrategy the strategy to create objects with initially
+     * @param hotStrategy the strategy to use once the threshold is reached
+     */
+    public TieredInjectionStrategy(long threshold, InjectionStrategy coldStrategy, InjectionStrategy hotStrategy) {
+        InjectorUtils.checkArgument(threshold > 0, "Threshold must be positive");
+        InjectorUtils.checkNotNull(coldStrategy, "Cold strategy may not be null");
+        InjectorUtils.checkNotNull(hotStrategy, "Hot strategy may not be null");
+        this.threshold = threshold;
+        this.coldStrategy = coldStrategy;
+        this.hotStrategy = hotStrategy;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Resolution<T> createResolution(Constructor<T> constructor, List<Field> fields) {
+        TypeTier<T> tier = (TypeTier<T>) tiersByType.computeIfAbsent(constructor.getDeclaringClass(),
+            type -> new TypeTier<>(constructor, fields, coldStrategy.createResolution(constructor, fields)));
+        return new TieredInjection<>(tier);
+    }
+
+    /**
+     * Adds a listener which is notified whenever a type switches to the hot strategy.
+     *
+     * @param listener the listener to add
+     */
+    public void addSwitchListener(SwitchListener listener) {
+        InjectorUtils.checkNotNull(listener, "Listener may not be null");
+        listeners.add(listener);
+    }
+
+    /**
+     * Returns the number of objects that have been created so far, by type.
+     *
+     * @return number of created objects by type
+     */
+    public Map<Class<?>, Long> getInvocationCounts() {
+        return tiersByType.entrySet().stream()
+            .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().invocations.get()));
+    }
+
+    /**
+     * Returns whether objects of the given type are created with the hot strategy.
+     *
+     * @param type the type to check
+     * @return true if the type has switched to the hot strategy, false otherwise
+     */
+    public boolean isHot(Class<?> type) {
+        TypeTier<?> tier = tiersByType.get(type);
+        return tier != null && tier.hot;
+    }
+
+    private void switchToHotStrategy(TypeTier<?> tier, long invocations) {
+        tier.switchTo(hotStrategy);
+        for (SwitchListener listener : listeners) {
+            listener.onSwitch(tier.constructor.getDeclaringClass(), invocations);
+        }
+    }
+
+    /**
+     * Listener notified when a type switches to the hot strategy.
+     */
+    @FunctionalInterface
+    public interface SwitchListener {
+
+        /**
+         * Called when the given type has switched to the hot strategy.
+         *
+         * @param type the type that has switched
+         * @param invocations the number of objects that had been created for the type at the time of the switch
+         */
+        void onSwitch(Class<?> type, long invocations);
+    }
+
+    /**
+     * Invocation counter and current resolution of a type.
+     *
+     * @param <T> the type
+     */
+    private static final class TypeTier<T> {
+        private final Constructor<T> constructor;
+        private final List<Field> fields;
+        private final AtomicLong invocations = new AtomicLong();
+        private volatile Resolution<T> resolution;
+        private volatile boolean hot;
+
+        TypeTier(Constructor<T> constructor, List<Field> fields, Resolution<T> coldResolution) {
+            this.constructor = constructor;
+            this.fields = fields;
+            this.resolution = coldResolution;
+        }
+
+        void switchTo(InjectionStrategy hotStrategy) {
+            resolution = hotStrategy.createResolution(constructor, fields);
+            hot = true;
+        }
+    }
+
+    /**
+     * Resolution which delegates to the current resolution of its type.
+     *
+     * @param <T> the type of the objects to create
+     */
+    private final class TieredInjection<T> implements Resolution<T> {
+        private final TypeTier<T> tier;
+
+        TieredInjection(TypeTier<T> tier) {
+            this.tier = tier;
+        }
+
+        @Override
+        public List<ObjectIdentifier> getDependencies() {
+            return tier.resolution.getDependencies();
+        }
+
+        @Override
+        public T instantiateWith(Object... values) {
+            T object = tier.resolution.instantiateWith(values);
+            long invocations = tier.invocations.incrementAndGet();
+            if (invocations == threshold) {
+                switchToHotStrategy(tier, invocations);
+            }
+            return object;
+        }
+
+        @Override
+        public boolean isInstantiation() {
+            return true;
+        }
+
+        @Override
+        public Class<?> getCreatedType() {
+            return tier.resolution.getCreatedType();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package ch.jalu.injector.handlers.instantiation;
+
+/**
+ * Defines how instantiation providers validate the classes they instantiate.
+ *
+ * @see StandardInjectionProvider
+ * @see ch.jalu.injector.InjectorBuilder#addDefaultHandlers(String, ValidationPolicy)
+ */
+public enum ValidationPolicy {
+
+    /**
+     * Every class is validated once by each provider. The outcome is remembered, i.e. a valid class is not checked
+     * again and an invalid class results in the same error without being checked again.
+     */
+    STRICT,
+
+    /**
+     * Classes which have been verified at build time by the injector's annotation processor (as reported by a
+     * {@link PrecompiledInjectionRegistry}) are not validated at all. Other classes are validated as with
+     * {@link #STRICT}.
+     */
+    TRUSTED
+
+}
@@ -0,0 +1,47 @@
+package ch.jalu.injector.handlers.instantiation;
+
+import ch.jalu.injector.exceptions.InjectorException;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Remembers the outcome of a validation per class: classes are only validated the first time, after which
+ * the validation is skipped for valid classes and the original exception is thrown anew for invalid classes,
+ * so that all failures for a class have the same type, message and cause.
+ */
+final class ValidationVerdicts {
+
+    private static final Object VALID = new Object();
+
+    private final ConcurrentMap<Class<?>, Object> verdicts = new ConcurrentHashMap<>();
+
+    /**
+     * Validates the given class with the validation, unless it has been validated before.
+     *
+     * @param clazz the class to validate
+     * @param validation the validation to perform, throwing an {@link InjectorException} if the class is invalid
+     */
+    void validate(Class<?> clazz, Runnable validation) {
+        Object verdict = verdicts.get(clazz);
+        if (verdict == null) {
+            try {
+                validation.run();
+            } catch (InjectorException e) {
+                verdicts.put(clazz, e);
+                throw e;
+            }
+            verdicts.put(clazz, VALID);
+        } else if (verdict != VALID) {
+            throw (InjectorException) verdict;
+        }
+    }
+
+    /**
+     * Forgets the classes which were found to be valid, keeping the errors of invalid classes. Valid classes
+     * are validated again should they be encountered anew.
+     */
+    void releaseValidVerdicts() {
+        verdicts.values().removeIf(verdict -> verdict == VALID);
+    }
+}
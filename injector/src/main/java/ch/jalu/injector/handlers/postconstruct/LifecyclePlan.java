@@ -0,0 +1,85 @@
+package ch.jalu.injector.handlers.postconstruct;
+
+import ch.jalu.injector.exceptions.InjectorReflectionException;
+import ch.jalu.injector.utils.ClassMetadata;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * The validated {@link javax.annotation.PostConstruct} methods of a class, ready to be invoked on its instances.
+ * A plan is created once per class; classes without any post construct methods share the {@link #NONE} plan.
+ */
+final class LifecyclePlan {
+
+    /** Plan of classes without any post construct methods. */
+    static final LifecyclePlan NONE = new LifecyclePlan(new String[0], new MethodHandle[0]);
+
+    private static final ClassValue<LifecyclePlan> PLANS = new ClassValue<LifecyclePlan>() {
+        @Override
+        protected LifecyclePlan computeValue(Class<?> type) {
+            return createPlan(type);
+        }
+    };
+    private static final MethodType POST_CONSTRUCT_TYPE = MethodType.methodType(void.class, Object.class);
+
+    private final String[] methodNames;
+    private final MethodHandle[] methods;
+
+    private LifecyclePlan(String[] methodNames, MethodHandle[] methods) {
+        this.methodNames = methodNames;
+        this.methods = methods;
+    }
+
+    /**
+     * Returns the lifecycle plan of the given class. Throws an exception if the class or any of its parents
+     * has an invalid post construct method.
+     *
+     * @param clazz the class to get the plan for
+     * @return the class' plan
+     */
+    static LifecyclePlan of(Class<?> clazz) {
+        return PLANS.get(clazz);
+    }
+
+    /**
+     * Invokes the post construct methods on the given object.
+     *
+     * @param object the object to process
+     */
+    void invoke(Object object) {
+        for (int i = 0; i < methods.length; ++i) {
+            try {
+                methods[i].invokeExact(object);
+            } catch (Throwable e) {
+                throw new InjectorReflectionException(
+                    "Could not invoke method '" + methodNames[i] + "' for " + object, new InvocationTargetException(e));
+            }
+        }
+    }
+
+    private static LifecyclePlan createPlan(Class<?> clazz) {
+        List<Method> postConstructMethods = ClassMetadata.of(clazz).getPostConstructMethods();
+        if (postConstructMethods.isEmpty()) {
+            return NONE;
+        }
+
+        String[] methodNames = new String[postConstructMethods.size()];
+        MethodHandle[] methods = new MethodHandle[postConstructMethods.size()];
+        for (int i = 0; i < methods.length; ++i) {
+            Method method = postConstructMethods.get(i);
+            methodNames[i] = method.getName();
+            method.setAccessible(true);
+            try {
+                methods[i] = MethodHandles.lookup().unreflect(method).asType(POST_CONSTRUCT_TYPE);
+            } catch (IllegalAccessException e) {
+                throw new InjectorReflectionException("Could not access method '" + method + "'", e);
+            }
+        }
+        return new LifecyclePlan(methodNames, methods);
+    }
+}
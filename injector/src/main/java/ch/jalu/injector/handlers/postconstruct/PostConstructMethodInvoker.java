@@ -1,66 +1,46 @@
 package ch.jalu.injector.handlers.postconstruct;
 
 import ch.jalu.injector.context.ResolutionContext;
-import ch.jalu.injector.exceptions.InjectorException;
 import ch.jalu.injector.handlers.Handler;
+import ch.jalu.injector.handlers.instantiation.PrecompiledResolution;
 import ch.jalu.injector.handlers.instantiation.Resolution;
-import ch.jalu.injector.utils.ReflectionUtils;
 
-import javax.annotation.Nullable;
 import javax.annotation.PostConstruct;
-import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Searches newly instantiated classes for {@link PostConstruct} method
- * and validates their usage before executing it.
+ * and validates their usage before executing it. The validated methods of a class are
+ * kept in a {@link LifecyclePlan} so that subsequent objects of the same class can be processed directly.
+ * <p>
+ * Objects created by a {@link PrecompiledResolution} are handled by the resolution itself, as their
+ * {@code @PostConstruct} methods have already been validated at compile time.
  */
 public class PostConstructMethodInvoker implements Handler {
 
     @Override
     public <T> T postProcess(T object, ResolutionContext context, Resolution<?> resolution) {
         Class<?> clazz = object.getClass();
-        List<Method> postConstructMethods = getPostConstructMethods(clazz);
-        for (int i = postConstructMethods.size() - 1; i >= 0; --i) {
-            ReflectionUtils.invokeMethod(postConstructMethods.get(i), object);
+        if (resolution instanceof PrecompiledResolution<?>
+            && ((PrecompiledResolution<?>) resolution).getType() == clazz) {
+            invokePrecompiledPostConstructMethods((PrecompiledResolution<?>) resolution, object);
+            return null;
+        }
+        LifecyclePlan plan = LifecyclePlan.of(clazz);
+        if (plan != LifecyclePlan.NONE) {
+            plan.invoke(object);
         }
         return null;
     }
 
-    private static List<Method> getPostConstructMethods(Class<?> clazz) {
-        List<Method> postConstructMethods = new ArrayList<>();
-        Class<?> currentClass = clazz;
-        while (currentClass != null) {
-            Method postConstruct = getAndValidatePostConstructMethod(currentClass);
-            if (postConstruct != null) {
-                postConstructMethods.add(postConstruct);
-            }
-            currentClass = currentClass.getSuperclass();
-        }
-        return postConstructMethods;
+    @Override
+    public boolean isPostProcessorFor(Resolution<?> resolution) {
+        Class<?> createdType = resolution.getCreatedType();
+        return createdType == null || resolution instanceof PrecompiledResolution<?>
+            || LifecyclePlan.of(createdType) != LifecyclePlan.NONE;
     }
 
-    @Nullable
-    private static Method getAndValidatePostConstructMethod(Class<?> clazz) {
-        Method postConstructMethod = null;
-        for (Method method : ReflectionUtils.safeGetDeclaredMethods(clazz)) {
-            if (method.isAnnotationPresent(PostConstruct.class)) {
-                if (postConstructMethod != null) {
-                    throw new InjectorException("Multiple methods with @PostConstruct in " + clazz);
-                } else if (method.getParameterTypes().length > 0 || Modifier.isStatic(method.getModifiers())) {
-                    throw new InjectorException("@PostConstruct method may not be static or have any parameters. "
-                        + "Invalid method in " + clazz);
-                } else if (method.getReturnType() != void.class) {
-                    throw new InjectorException("@PostConstruct method must have return type void. "
-                        + "Offending class: " + clazz);
-                } else {
-                    postConstructMethod = method;
-                }
-            }
-        }
-        return postConstructMethod;
+    private static <T> void invokePrecompiledPostConstructMethods(PrecompiledResolution<T> resolution,
+                                                                  Object object) {
+        resolution.invokePostConstructMethods(resolution.getType().cast(object));
     }
-
 }
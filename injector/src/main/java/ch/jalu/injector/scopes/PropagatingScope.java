@@ -0,0 +1,51 @@
+package ch.jalu.injector.scopes;
+
+import java.util.concurrent.Callable;
+
+/**
+ * {@link RequestScope Request scope} which propagates to child tasks: tasks {@link #wrap(Runnable) wrapped} by
+ * the scope use the same storage as the thread which wrapped them, on whichever thread they run. The scope is
+ * never propagated implicitly, e.g. to threads started while it is active. The objects are released when the
+ * entering thread exits the scope; wrapped tasks cannot request objects with the scope afterwards.
+ */
+public class PropagatingScope extends RequestScope {
+
+    /**
+     * Returns a task which runs the given task with the storage that is currently active.
+     *
+     * @param task the task to wrap
+     * @return task running in the current scope
+     */
+    public Runnable wrap(Runnable task) {
+        final ScopeStorage storage = getStorage();
+        return () -> {
+            ScopeStorage previousStorage = getCurrentStorage();
+            setCurrentStorage(storage);
+            try {
+                task.run();
+            } finally {
+                setCurrentStorage(previousStorage);
+            }
+        };
+    }
+
+    /**
+     * Returns a task which runs the given task with the storage that is currently active.
+     *
+     * @param task the task to wrap
+     * @param <V> the task's result type
+     * @return task running in the current scope
+     */
+    public <V> Callable<V> wrapCallable(Callable<V> task) {
+        final ScopeStorage storage = getStorage();
+        return () -> {
+            ScopeStorage previousStorage = getCurrentStorage();
+            setCurrentStorage(storage);
+            try {
+                return task.call();
+            } finally {
+                setCurrentStorage(previousStorage);
+            }
+        };
+    }
+}
@@ -0,0 +1,80 @@
+package ch.jalu.injector.scopes;
+
+import ch.jalu.injector.exceptions.InjectorException;
+
+import javax.annotation.Nullable;
+
+/**
+ * Scope which is explicitly entered and exited by a thread, e.g. around the handling of a request. Objects can
+ * only be requested with the scope while it is active.
+ * <p>
+ * Usage:
+ * <code>
+ *   requestScope.enter();
+ *   try {
+ *       injector.get(RequestData.class, requestScope);
+ *   } finally {
+ *       requestScope.exit();
+ *   }
+ * </code>
+ */
+public class RequestScope implements Scope {
+
+    private final ThreadLocal<ScopeStorage> currentStorage = new ThreadLocal<>();
+
+    /**
+     * Enters the scope on the current thread with a new storage.
+     *
+     * @return the storage of the entered scope
+     */
+    public ScopeStorage enter() {
+        if (isActive()) {
+            throw new InjectorException("Scope is already active on thread '" + Thread.currentThread().getName() + "'");
+        }
+        ScopeStorage storage = new ScopeStorage();
+        currentStorage.set(storage);
+        return storage;
+    }
+
+    /**
+     * Exits the scope on the current thread, releasing all of its objects.
+     */
+    public void exit() {
+        ScopeStorage storage = currentStorage.get();
+        if (storage == null) {
+            throw new InjectorException("Scope is not active on thread '" + Thread.currentThread().getName() + "'");
+        }
+        currentStorage.remove();
+        storage.close();
+    }
+
+    /**
+     * @return true if the scope is active on the current thread, false otherwise
+     */
+    public boolean isActive() {
+        ScopeStorage storage = currentStorage.get();
+        return storage != null && !storage.isClosed();
+    }
+
+    @Override
+    public ScopeStorage getStorage() {
+        ScopeStorage storage = currentStorage.get();
+        if (storage == null || storage.isClosed()) {
+            throw new InjectorException("Scope is not active on thread '" + Thread.currentThread().getName() + "'");
+        }
+        return storage;
+    }
+
+    @Nullable
+    ScopeStorage getCurrentStorage() {
+        return currentStorage.get();
+    }
+
+    void setCurrentStorage(@Nullable ScopeStorage storage) {
+        if (storage == null) {
+            currentStorage.remove();
+        } else {
+            currentStorage.set(storage);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package ch.jalu.injector.scopes;
+
+import ch.jalu.injector.context.ResolutionType;
+import ch.jalu.injector.exceptions.InjectorException;
+
+/**
+ * Resolution type which keeps the objects it creates in a {@link ScopeStorage storage} of its own. Objects
+ * requested with a scope are created once per storage; the scope decides which storage is used by the current
+ * thread. Objects requested with a scope are created like request-scoped objects, i.e. their dependencies are
+ * singletons.
+ *
+ * @see ch.jalu.injector.Injector#get(Class, ResolutionType)
+ */
+public interface Scope extends ResolutionType {
+
+    /**
+     * Returns the storage of the scope that is active for the current thread.
+     *
+     * @return the current storage
+     * @throws InjectorException if the scope is not active
+     */
+    ScopeStorage getStorage();
+
+}
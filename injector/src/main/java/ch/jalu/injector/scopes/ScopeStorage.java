@@ -0,0 +1,69 @@
+package ch.jalu.injector.scopes;
+
+import ch.jalu.injector.exceptions.InjectorException;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Storage of the objects of one instance of a {@link Scope}, e.g. of one request. All objects are released
+ * when the storage is closed.
+ */
+public final class ScopeStorage {
+
+    private final ConcurrentMap<Class<?>, Object> objects = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+    private volatile boolean closed;
+
+    /**
+     * Returns the object stored for the given class.
+     *
+     * @param clazz the class to look up
+     * @return the object of the class, null if there is none
+     */
+    @Nullable
+    public Object get(Class<?> clazz) {
+        return objects.get(clazz);
+    }
+
+    /**
+     * Stores the given object for the given class unless an object has already been stored for it, in which
+     * case the existing object is returned.
+     *
+     * @param clazz the class to store the object for
+     * @param object the object to store
+     * @return the object stored for the class
+     */
+    public Object putIfAbsent(Class<?> clazz, Object object) {
+        // Checked under the lock of close(): no object may be stored once the storage has been cleared
+        synchronized (lock) {
+            if (closed) {
+                throw new InjectorException("Cannot store object of '" + clazz + "' as the scope has been closed");
+            }
+            Object existing = objects.putIfAbsent(clazz, object);
+            return existing == null ? object : existing;
+        }
+    }
+
+    /**
+     * @return the number of stored objects
+     */
+    public int size() {
+        return objects.size();
+    }
+
+    /**
+     * Closes the storage, releasing all objects. No objects can be stored afterwards.
+     */
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+            objects.clear();
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+}
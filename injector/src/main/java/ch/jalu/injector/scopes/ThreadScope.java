@@ -0,0 +1,23 @@
+package ch.jalu.injector.scopes;
+
+/**
+ * Scope with one storage per thread. The scope is always active.
+ */
+public class ThreadScope implements Scope {
+
+    private final ThreadLocal<ScopeStorage> storage = ThreadLocal.withInitial(ScopeStorage::new);
+
+    @Override
+    public ScopeStorage getStorage() {
+        return storage.get();
+    }
+
+    /**
+     * Releases the objects of the current thread. A new storage is used if objects are requested by the thread
+     * afterwards.
+     */
+    public void close() {
+        storage.get().close();
+        storage.remove();
+    }
+}
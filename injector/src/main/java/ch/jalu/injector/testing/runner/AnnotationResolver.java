@@ -1,5 +1,6 @@
 package ch.jalu.injector.testing.runner;
 
+import ch.jalu.injector.context.AnnotationMasks;
 import ch.jalu.injector.context.ResolutionContext;
 import ch.jalu.injector.handlers.Handler;
 import ch.jalu.injector.handlers.instantiation.Resolution;
@@ -30,6 +31,8 @@ public class AnnotationResolver implements Handler {
     private final TestClass testClass;
     private final Object target;
     private final Set<Class<? extends Annotation>> ignoredAnnotations;
+    /** Mask of the annotation types that are present on the test class' fields and not ignored. */
+    private final long fieldAnnotationsMask;
 
     public AnnotationResolver(TestClass testClass, Object target) {
         this(testClass, target, Inject.class, InjectMocks.class, Mock.class, Spy.class, InjectDelayed.class);
@@ -40,10 +43,14 @@ public class AnnotationResolver implements Handler {
         this.testClass = testClass;
         this.target = target;
         this.ignoredAnnotations = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(ignoredAnnotations)));
+        this.fieldAnnotationsMask = createFieldAnnotationsMask(testClass, this.ignoredAnnotations);
     }
 
     @Override
     public Resolution<?> resolve(ResolutionContext context) {
+        if (!context.getIdentifier().mayHaveAnnotationOf(fieldAnnotationsMask)) {
+            return null;
+        }
         final Class<?> clazz = context.getIdentifier().getTypeAsClass();
         for (Annotation annotation : context.getIdentifier().getAnnotations()) {
             Object o = resolveByAnnotation(annotation.annotationType(), clazz);
@@ -66,4 +73,17 @@ public class AnnotationResolver implements Handler {
         }
         return null;
     }
+
+    private static long createFieldAnnotationsMask(TestClass testClass,
+                                                   Set<Class<? extends Annotation>> ignoredAnnotations) {
+        long mask = 0;
+        for (FrameworkField field : testClass.getAnnotatedFields()) {
+            for (Annotation annotation : field.getAnnotations()) {
+                if (!ignoredAnnotations.contains(annotation.annotationType())) {
+                    mask |= AnnotationMasks.of(annotation.annotationType());
+                }
+            }
+        }
+        return mask;
+    }
 }
@@ -0,0 +1,204 @@
+package ch.jalu.injector.utils;
+
+import ch.jalu.injector.exceptions.InjectorException;
+
+import javax.annotation.Nullable;
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reflection metadata of a class which is relevant for injection: its injection constructor, the fields and methods
+ * with {@link Inject} and its {@link PostConstruct} methods. {@link ch.jalu.injector.annotations.NoFieldScan} and
+ * {@link ch.jalu.injector.annotations.NoMethodScan} are respected.
+ * <p>
+ * Metadata is computed once per class and shared by all injectors. The metadata of a class only scans the class'
+ * own members and builds upon the metadata of its superclass. Invalid usages are not reported when the metadata is
+ * created but whenever the affected information is requested.
+ */
+public final class ClassMetadata {
+
+    private static final ClassValue<ClassMetadata> METADATA = new ClassValue<ClassMetadata>() {
+        @Override
+        protected ClassMetadata computeValue(Class<?> type) {
+            return new ClassMetadata(type);
+        }
+    };
+
+    private final Constructor<?> injectionConstructor;
+    private final String injectionConstructorError;
+    private final List<Field> injectFields;
+    private final List<Method> injectMethods;
+    private final List<Method> postConstructMethods;
+    private final String postConstructError;
+
+    private ClassMetadata(Class<?> clazz) {
+        final Class<?> superclass = clazz.getSuperclass();
+        final ClassMetadata parent = superclass == null ? null : of(superclass);
+        final Field[] fields = ReflectionUtils.safeGetDeclaredFields(clazz);
+        final Method[] methods = ReflectionUtils.safeGetDeclaredMethods(clazz);
+
+        // Fields and methods of the class come first, followed by the ones of the parents
+        List<Field> ownInjectFields = new ArrayList<>();
+        for (Field field : fields) {
+            if (field.isAnnotationPresent(Inject.class)) {
+                ownInjectFields.add(field);
+            }
+        }
+        this.injectFields = concat(ownInjectFields, parent == null ? null : parent.injectFields);
+
+        List<Method> ownInjectMethods = new ArrayList<>();
+        Method postConstructMethod = null;
+        String postConstructError = null;
+        for (Method method : methods) {
+            if (method.isAnnotationPresent(Inject.class)) {
+                ownInjectMethods.add(method);
+            }
+            if (method.isAnnotationPresent(PostConstruct.class) && postConstructError == null) {
+                postConstructError = validatePostConstructMethod(clazz, method, postConstructMethod);
+                postConstructMethod = method;
+            }
+        }
+        this.injectMethods = concat(ownInjectMethods, parent == null ? null : parent.injectMethods);
+
+        // Post construct methods of the parents are run first
+        if (postConstructError == null && parent != null) {
+            postConstructError = parent.postConstructError;
+        }
+        this.postConstructError = postConstructError;
+        this.postConstructMethods = postConstructMethod == null
+            ? (parent == null ? Collections.emptyList() : parent.postConstructMethods)
+            : concat(parent == null ? null : parent.postConstructMethods,
+                     Collections.singletonList(postConstructMethod));
+
+        Constructor<?> injectionConstructor = null;
+        String injectionConstructorError = null;
+        try {
+            injectionConstructor = findInjectionConstructor(clazz, !ownInjectFields.isEmpty());
+        } catch (InjectorException e) {
+            injectionConstructorError = e.getMessage();
+        }
+        this.injectionConstructor = injectionConstructor;
+        this.injectionConstructorError = injectionConstructorError;
+    }
+
+    /**
+     * Returns the metadata of the given class.
+     *
+     * @param clazz the class to get the metadata for
+     * @return the class' metadata
+     */
+    public static ClassMetadata of(Class<?> clazz) {
+        return METADATA.get(clazz);
+    }
+
+    /**
+     * Returns the constructor to be used for injection as documented in
+     * {@link ch.jalu.injector.handlers.instantiation.StandardInjectionProvider}. Throws an exception if there
+     * are multiple {@code @Inject} constructors.
+     *
+     * @param <T> the class' type
+     * @return the constructor, or {@code null} if there is no constructor suitable for injection
+     */
+    @Nullable
+    public <T> Constructor<T> getInjectionConstructor() {
+        if (injectionConstructorError != null) {
+            throw new InjectorException(injectionConstructorError);
+        }
+        return (Constructor<T>) injectionConstructor;
+    }
+
+    /**
+     * @return the fields with {@code @Inject} of the class, followed by the ones of its parents (unmodifiable)
+     */
+    public List<Field> getInjectFields() {
+        return injectFields;
+    }
+
+    /**
+     * @return the methods with {@code @Inject} of the class, followed by the ones of its parents (unmodifiable)
+     */
+    public List<Method> getInjectMethods() {
+        return injectMethods;
+    }
+
+    /**
+     * Returns the {@code @PostConstruct} methods of the class and its parents in the order they should be
+     * executed, i.e. the methods of parents come first. Throws an exception if the class or any of its parents
+     * has an invalid {@code @PostConstruct} method.
+     *
+     * @return the post construct methods (unmodifiable)
+     */
+    public List<Method> getPostConstructMethods() {
+        if (postConstructError != null) {
+            throw new InjectorException(postConstructError);
+        }
+        return postConstructMethods;
+    }
+
+    @Nullable
+    private static String validatePostConstructMethod(Class<?> clazz, Method method,
+                                                      @Nullable Method previousPostConstructMethod) {
+        if (previousPostConstructMethod != null) {
+            return "Multiple methods with @PostConstruct in " + clazz;
+        } else if (method.getParameterCount() > 0 || Modifier.isStatic(method.getModifiers())) {
+            return "@PostConstruct method may not be static or have any parameters. Invalid method in " + clazz;
+        } else if (method.getReturnType() != void.class) {
+            return "@PostConstruct method must have return type void. Offending class: " + clazz;
+        }
+        return null;
+    }
+
+    @Nullable
+    private static Constructor<?> findInjectionConstructor(Class<?> clazz, boolean hasInjectFields) {
+        Constructor<?>[] constructors = clazz.getDeclaredConstructors();
+        if (constructors.length == 1 && isSuitableNoArgsConstructor(constructors[0])) {
+            return constructors[0];
+        }
+
+        Constructor<?> matchingConstructor = null;
+        for (Constructor<?> constructor : constructors) {
+            if (constructor.isAnnotationPresent(Inject.class)) {
+                if (matchingConstructor != null) {
+                    throw new InjectorException("Class '" + clazz + "' may not have multiple @Inject constructors");
+                }
+                matchingConstructor = constructor;
+            }
+        }
+
+        if (matchingConstructor == null && hasInjectFields) {
+            // Compatibility: If a class has at least one field with @Inject, take a non-public no-args constructor
+            for (Constructor<?> constructor : constructors) {
+                if (constructor.getParameterCount() == 0) {
+                    return constructor;
+                }
+            }
+        }
+        return matchingConstructor;
+    }
+
+    private static boolean isSuitableNoArgsConstructor(Constructor<?> c) {
+        if (c.getParameterCount() > 0) {
+            return false;
+        }
+        return !Modifier.isPrivate(c.getModifiers()) || Modifier.isPrivate(c.getDeclaringClass().getModifiers());
+    }
+
+    private static <E> List<E> concat(@Nullable List<E> first, @Nullable List<E> second) {
+        if (first == null || first.isEmpty()) {
+            return second == null ? Collections.emptyList() : second;
+        } else if (second == null || second.isEmpty()) {
+            return Collections.unmodifiableList(first);
+        }
+        List<E> result = new ArrayList<>(first.size() + second.size());
+        result.addAll(first);
+        result.addAll(second);
+        return Collections.unmodifiableList(result);
+    }
+}
@@ -0,0 +1,146 @@
+package ch.jalu.injector;
+
+import ch.jalu.injector.samples.AlphaService;
+import ch.jalu.injector.samples.BetaManager;
+import ch.jalu.injector.samples.ProvidedClass;
+import org.junit.Test;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link BindingTable}.
+ */
+public class BindingTableTest {
+
+    @Test
+    public void shouldAssignSameIdToClass() {
+        // given / when
+        int alphaId1 = BindingTable.getId(AlphaService.class);
+        int betaId = BindingTable.getId(BetaManager.class);
+        int alphaId2 = BindingTable.getId(AlphaService.class);
+
+        // then
+        assertThat(alphaId1, equalTo(alphaId2));
+        assertThat(alphaId1, not(equalTo(betaId)));
+    }
+
+    @Test
+    public void shouldStoreAndRetrieveObjects() {
+        // given
+        BindingTable table = new BindingTable();
+        ProvidedClass providedClass = new ProvidedClass("");
+        AlphaService alphaService = AlphaService.newInstance(providedClass);
+
+        // when
+        Object previous1 = table.putIfAbsent(ProvidedClass.class, providedClass);
+        Object previous2 = table.putIfAbsent(AlphaService.class, alphaService);
+        Object previous3 = table.putIfAbsent(AlphaService.class, AlphaService.newInstance(providedClass));
+
+        // then
+        assertThat(previous1, nullValue());
+        assertThat(previous2, nullValue());
+        assertThat(previous3, sameInstance(alphaService));
+        assertThat(table.get(ProvidedClass.class), sameInstance(providedClass));
+        assertThat(table.get(BindingTable.getId(AlphaService.class)), sameInstance(alphaService));
+        assertThat(table.get(BetaManager.class), nullValue());
+    }
+
+    @Test
+    public void shouldGrowForHighIds() {
+        // given
+        BindingTable table = new BindingTable();
+        // Array classes of different dimensions are distinct classes, so this guarantees IDs beyond the initial capacity
+        List<Class<?>> classes = new ArrayList<>();
+        for (int dimensions = 1; dimensions <= 100; ++dimensions) {
+            classes.add(Array.newInstance(Object.class, new int[dimensions]).getClass());
+        }
+
+        // when
+        for (Class<?> clazz : classes) {
+            table.putIfAbsent(clazz, clazz.getName());
+        }
+
+        // then
+        for (Class<?> clazz : classes) {
+            assertThat(table.get(clazz), equalTo(clazz.getName()));
+        }
+        assertThat(table.get(Integer.MAX_VALUE), nullValue());
+    }
+
+    @Test
+    public void shouldKeepObjectsWhenTrimmed() {
+        // given
+        BindingTable table = new BindingTable();
+        ProvidedClass providedClass = new ProvidedClass("");
+        table.putIfAbsent(ProvidedClass.class, providedClass);
+        Class<?> highIdClass = Array.newInstance(Object.class, new int[120]).getClass();
+
+        // when
+        table.trimToSize();
+        Object previous = table.putIfAbsent(highIdClass, "high");
+
+        // then
+        assertThat(previous, nullValue());
+        assertThat(table.get(ProvidedClass.class), sameInstance(providedClass));
+        assertThat(table.get(highIdClass), equalTo("high"));
+        assertThat(table.get(AlphaService.class), nullValue());
+    }
+
+    @Test
+    public void shouldReturnObjectsOfParentTable() {
+        // given
+        BindingTable parent = new BindingTable();
+        BindingTable table = new BindingTable(parent);
+        ProvidedClass parentObject = new ProvidedClass("parent");
+        ProvidedClass ownObject = new ProvidedClass("own");
+        AlphaService alphaService = AlphaService.newInstance(parentObject);
+        parent.putIfAbsent(ProvidedClass.class, parentObject);
+        parent.putIfAbsent(AlphaService.class, alphaService);
+
+        // when
+        Object previous = table.putIfAbsent(ProvidedClass.class, ownObject);
+
+        // then
+        assertThat(previous, nullValue());
+        assertThat(table.get(ProvidedClass.class), sameInstance(ownObject));
+        assertThat(table.get(AlphaService.class), sameInstance(alphaService));
+        assertThat(parent.get(ProvidedClass.class), sameInstance(parentObject));
+        assertThat(table.get(BetaManager.class), nullValue());
+    }
+
+    @Test
+    public void shouldStoreObjectsWithHighIdsInTableWithParent() {
+        // given
+        BindingTable parent = new BindingTable();
+        BindingTable table = new BindingTable(parent);
+        List<Class<?>> classes = new ArrayList<>();
+        for (int dimensions = 1; dimensions <= 100; ++dimensions) {
+            classes.add(Array.newInstance(String.class, new int[dimensions]).getClass());
+        }
+        Class<?> parentClass = Array.newInstance(String.class, new int[101]).getClass();
+        parent.putIfAbsent(parentClass, "parent");
+
+        // when
+        for (Class<?> clazz : classes) {
+            table.putIfAbsent(clazz, clazz.getName());
+        }
+        Object previous = table.putIfAbsent(classes.get(99), "other");
+
+        // then
+        assertThat(previous, equalTo(classes.get(99).getName()));
+        for (Class<?> clazz : classes) {
+            assertThat(table.get(clazz), equalTo(clazz.getName()));
+            assertThat(parent.get(clazz), nullValue());
+        }
+        assertThat(table.get(parentClass), equalTo("parent"));
+        assertThat(table.get(Integer.MAX_VALUE), nullValue());
+    }
+}
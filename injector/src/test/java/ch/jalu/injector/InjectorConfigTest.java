@@ -0,0 +1,204 @@
+package ch.jalu.injector;
+
+import ch.jalu.injector.context.ObjectIdentifier;
+import ch.jalu.injector.context.ResolutionContext;
+import ch.jalu.injector.factory.Factory;
+import ch.jalu.injector.handlers.Handler;
+import ch.jalu.injector.handlers.HandlerPhase;
+import ch.jalu.injector.handlers.dependency.FactoryDependencyHandler;
+import ch.jalu.injector.handlers.dependency.SavedAnnotationsHandler;
+import ch.jalu.injector.handlers.instantiation.ProviderHandler;
+import ch.jalu.injector.handlers.instantiation.Resolution;
+import ch.jalu.injector.handlers.postconstruct.PostConstructMethodInvoker;
+import ch.jalu.injector.samples.Duration;
+import ch.jalu.injector.samples.Size;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static ch.jalu.injector.InjectorTestHelper.newDurationAnnotation;
+import static ch.jalu.injector.InjectorTestHelper.newSizeAnnotation;
+import static ch.jalu.injector.TestUtils.createParameterizedType;
+import static ch.jalu.injector.context.StandardResolutionType.SINGLETON;
+import static org.hamcrest.Matchers.arrayContaining;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.emptyArray;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link InjectorConfig}.
+ */
+public class InjectorConfigTest {
+
+    @Test
+    public void shouldReturnHandlersByPhase() {
+        // given
+        Handler resolver = new Handler() {
+            @Override
+            public Resolution<?> resolve(ResolutionContext context) {
+                return null;
+            }
+        };
+        Handler declaringHandler = new PhaseDeclaringHandler();
+        PostConstructMethodInvoker postConstructMethodInvoker = new PostConstructMethodInvoker();
+        SavedAnnotationsHandler savedAnnotationsHandler = new SavedAnnotationsHandler();
+        InjectorConfig config = createConfig(resolver, declaringHandler, postConstructMethodInvoker,
+            savedAnnotationsHandler);
+
+        // when / then
+        assertThat(config.getHandlers(HandlerPhase.RESOLVE), arrayContaining(resolver, savedAnnotationsHandler));
+        assertThat(config.getHandlers(HandlerPhase.POST_PROCESS),
+            arrayContaining(declaringHandler, postConstructMethodInvoker));
+        assertThat(config.getHandlers(HandlerPhase.ON_ANNOTATION), arrayContaining(savedAnnotationsHandler));
+        assertThat(config.getHandlers(HandlerPhase.ON_PROVIDER), emptyArray());
+    }
+
+    @Test
+    public void shouldOnlyIncludeHandlersClaimingType() {
+        // given
+        Handler resolver = new Handler() {
+            @Override
+            public Resolution<?> resolve(ResolutionContext context) {
+                return null;
+            }
+        };
+        FactoryDependencyHandler factoryHandler = new FactoryDependencyHandler();
+        SavedAnnotationsHandler savedAnnotationsHandler = new SavedAnnotationsHandler();
+        savedAnnotationsHandler.onAnnotation(Duration.class, 20);
+        InjectorConfig config = createConfig(factoryHandler, savedAnnotationsHandler, resolver);
+
+        ObjectIdentifier stringIdentifier = new ObjectIdentifier(SINGLETON, String.class);
+        ObjectIdentifier durationIdentifier = new ObjectIdentifier(SINGLETON, long.class, newDurationAnnotation());
+        ObjectIdentifier sizeIdentifier = new ObjectIdentifier(SINGLETON, long.class, newSizeAnnotation("3"));
+        ObjectIdentifier factoryIdentifier = new ObjectIdentifier(SINGLETON,
+            createParameterizedType(Factory.class, Object.class));
+
+        // when
+        List<Handler> stringHandlers = getApplicableHandlers(config, stringIdentifier);
+        List<Handler> durationHandlers = getApplicableHandlers(config, durationIdentifier);
+        List<Handler> sizeHandlers = getApplicableHandlers(config, sizeIdentifier);
+        List<Handler> factoryHandlers = getApplicableHandlers(config, factoryIdentifier);
+
+        // then
+        assertThat(stringHandlers, contains(resolver));
+        assertThat(durationHandlers, contains(savedAnnotationsHandler, resolver));
+        assertThat(sizeHandlers, contains(resolver));
+        assertThat(factoryHandlers, contains(factoryHandler, resolver));
+    }
+
+    @Test
+    public void shouldUpdateHandlersAfterClaimsRefresh() {
+        // given
+        SavedAnnotationsHandler savedAnnotationsHandler = new SavedAnnotationsHandler();
+        savedAnnotationsHandler.onAnnotation(Duration.class, 20);
+        InjectorConfig config = createConfig(savedAnnotationsHandler);
+        ObjectIdentifier sizeIdentifier = new ObjectIdentifier(SINGLETON, long.class, newSizeAnnotation("3"));
+        int initialVersion = config.getHandlersVersion();
+        List<Handler> initialHandlers = getApplicableHandlers(config, sizeIdentifier);
+
+        // when
+        savedAnnotationsHandler.onAnnotation(Size.class, 3L);
+        config.refreshHandlerClaims();
+
+        // then
+        assertThat(initialHandlers.isEmpty(), equalTo(true));
+        assertThat(getApplicableHandlers(config, sizeIdentifier), contains(savedAnnotationsHandler));
+        assertThat(config.getHandlersVersion() == initialVersion, equalTo(false));
+    }
+
+    @Test
+    public void shouldUpdateHandlersAfterListModifications() {
+        // given
+        PostConstructMethodInvoker postConstructMethodInvoker = new PostConstructMethodInvoker();
+        SavedAnnotationsHandler savedAnnotationsHandler = new SavedAnnotationsHandler();
+        FactoryDependencyHandler factoryHandler = new FactoryDependencyHandler();
+        InjectorConfig config = createConfig(postConstructMethodInvoker, savedAnnotationsHandler);
+        int initialVersion = config.getHandlersVersion();
+        Handler[] initialResolvers = config.getHandlers(HandlerPhase.RESOLVE);
+
+        // when
+        config.getHandlers().set(1, factoryHandler);
+        Handler[] resolversAfterSet = config.getHandlers(HandlerPhase.RESOLVE);
+        config.getHandlers().removeIf(handler -> handler == postConstructMethodInvoker);
+        Handler[] postProcessorsAfterRemoval = config.getHandlers(HandlerPhase.POST_PROCESS);
+
+        // then
+        assertThat(initialResolvers, arrayContaining(savedAnnotationsHandler));
+        assertThat(resolversAfterSet, arrayContaining(factoryHandler));
+        assertThat(postProcessorsAfterRemoval, emptyArray());
+        assertThat(config.getHandlersVersion() == initialVersion, equalTo(false));
+    }
+
+    @Test
+    public void shouldNotApplyInheritedClaimsToSubclassOverridingResolve() {
+        // given
+        ProviderHandler extendedProviderHandler = new ExtendedProviderHandler();
+        ProviderHandler claimingProviderHandler = new ClaimingExtendedProviderHandler();
+        InjectorConfig config = createConfig(extendedProviderHandler, claimingProviderHandler);
+        ObjectIdentifier stringIdentifier = new ObjectIdentifier(SINGLETON, String.class);
+        ObjectIdentifier integerIdentifier = new ObjectIdentifier(SINGLETON, Integer.class);
+
+        // when
+        List<Handler> stringHandlers = getApplicableHandlers(config, stringIdentifier);
+        List<Handler> integerHandlers = getApplicableHandlers(config, integerIdentifier);
+
+        // then
+        assertThat(stringHandlers, contains(extendedProviderHandler, claimingProviderHandler));
+        assertThat(integerHandlers, contains(extendedProviderHandler));
+    }
+
+    private static InjectorConfig createConfig(Handler... handlers) {
+        InjectorConfig config = new InjectorConfig();
+        config.addHandlers(Arrays.asList(handlers));
+        return config;
+    }
+
+    private static List<Handler> getApplicableHandlers(InjectorConfig config, ObjectIdentifier identifier) {
+        InjectorConfig.Resolvers resolvers = config.getResolvers(identifier);
+        List<Handler> handlers = new ArrayList<>();
+        for (int i = 0; i < resolvers.size(); ++i) {
+            if (resolvers.appliesTo(i, identifier)) {
+                handlers.add(resolvers.getHandler(i));
+            }
+        }
+        return handlers;
+    }
+
+    /** Handler overriding resolve but declaring that it only post processes objects. */
+    private static final class PhaseDeclaringHandler implements Handler {
+        @Override
+        public Set<HandlerPhase> getPhases() {
+            return EnumSet.of(HandlerPhase.POST_PROCESS);
+        }
+
+        @Override
+        public Resolution<?> resolve(ResolutionContext context) {
+            throw new IllegalStateException("Should not be called");
+        }
+    }
+
+    /** Provider handler which also resolves other types, without declaring any claims. */
+    private static class ExtendedProviderHandler extends ProviderHandler {
+        @Override
+        public Resolution<?> resolve(ResolutionContext context) {
+            Class<?> type = context.getIdentifier().getTypeAsClass();
+            return type == String.class || type == Integer.class ? null : super.resolve(context);
+        }
+    }
+
+    /** Provider handler which also resolves Strings and claims them in addition to the types of its parent. */
+    private static final class ClaimingExtendedProviderHandler extends ExtendedProviderHandler {
+        @Override
+        public Set<Class<?>> getClaimedTypes() {
+            Set<Class<?>> types = new HashSet<>(super.getClaimedTypes());
+            types.add(String.class);
+            return types;
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package ch.jalu.injector;
 
 import ch.jalu.injector.TestUtils.ExceptionCatcher;
+import ch.jalu.injector.context.ObjectIdentifier;
 import ch.jalu.injector.context.ResolutionContext;
+import ch.jalu.injector.context.StandardResolutionType;
 import ch.jalu.injector.exceptions.InjectorException;
 import ch.jalu.injector.handlers.Handler;
+import ch.jalu.injector.handlers.dependency.providers.Alfa;
 import ch.jalu.injector.handlers.dependency.providers.Delta;
 import ch.jalu.injector.handlers.dependency.providers.Delta1Provider;
 import ch.jalu.injector.handlers.instantiation.DefaultInjectionProvider;
@@ -28,36 +31,56 @@ import ch.jalu.injector.samples.SampleInstantiationImpl;
 import ch.jalu.injector.samples.Size;
 import ch.jalu.injector.samples.StaticFieldInjection;
 import ch.jalu.injector.samples.inheritance.Child;
+import com.sun.management.ThreadMXBean;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatcher;
 import org.mockito.Mockito;
 
 import javax.inject.Provider;
 import java.lang.annotation.Annotation;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
+import static ch.jalu.injector.context.StandardResolutionType.REQUEST_SCOPED;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasProperty;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -285,6 +308,25 @@ public class InjectorImplTest {
         assertThat(children3, hasSize(5)); // Alpha, Beta, Gamma + ProvidedClass + Injector
     }
 
+    @Test
+    public void shouldUpdateSingletonsOfTypeWhenMatchingSingletonIsCreated() {
+        // given
+        ProvidedClass providedClass = injector.getSingleton(ProvidedClass.class);
+        Collection<Reloadable> reloadables1 = injector.retrieveAllOfType(Reloadable.class);
+
+        // when
+        AlphaService alphaService = injector.getSingleton(AlphaService.class);
+        Collection<Reloadable> reloadables2 = injector.retrieveAllOfType(Reloadable.class);
+        GammaService gammaService = injector.getSingleton(GammaService.class);
+        Collection<Reloadable> reloadables3 = injector.retrieveAllOfType(Reloadable.class);
+
+        // then
+        assertThat(reloadables1, contains(sameInstance(providedClass)));
+        assertThat(reloadables2, sameInstance(reloadables1));
+        assertThat(reloadables3, contains(sameInstance(providedClass), sameInstance(gammaService)));
+        assertThat(injector.retrieveAllOfType(AlphaService.class), contains(sameInstance(alphaService)));
+    }
+
     @Test
     public void shouldUseCustomInstantiation() {
         // given
@@ -475,6 +517,8 @@ public class InjectorImplTest {
         // given
         config.getHandlers().removeIf(h -> h instanceof PostConstructMethodInvoker);
         PostConstructMethodInvoker postConstructInvoker = Mockito.spy(new PostConstructMethodInvoker());
+        // AlphaService has no @PostConstruct methods: keep the handler in the plans so that all creations count
+        doReturn(true).when(postConstructInvoker).isPostProcessorFor(any(Resolution.class));
         config.getHandlers().add(postConstructInvoker);
 
         // when
@@ -550,6 +594,576 @@ public class InjectorImplTest {
         injector.getSingleton(Child.class);
     }
 
+    @Test
+    public void shouldCreateSingletonOnlyOnceForConcurrentRequests() throws Exception {
+        // given
+        AtomicInteger instantiations = new AtomicInteger();
+        injector.registerProvider(Delta.class, () -> {
+            instantiations.incrementAndGet();
+            sleep(50);
+            return () -> "delta";
+        });
+        int totalThreads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(totalThreads);
+        CountDownLatch startSignal = new CountDownLatch(1);
+
+        try {
+            List<Future<Delta>> results = new ArrayList<>();
+            for (int i = 0; i < totalThreads; ++i) {
+                results.add(executor.submit(() -> {
+                    startSignal.await();
+                    return injector.getSingleton(Delta.class);
+                }));
+            }
+
+            // when
+            startSignal.countDown();
+
+            // then
+            Delta delta = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<Delta> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS), sameInstance(delta));
+            }
+            assertThat(instantiations.get(), equalTo(1));
+            assertThat(injector.getIfAvailable(Delta.class), sameInstance(delta));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldDetectDeadlockBetweenThreads() throws Exception {
+        // given
+        // Latch ensures that both threads have started creating their singleton before requesting the other one
+        CountDownLatch bothCreationsStarted = new CountDownLatch(2);
+        injector.registerProvider(Alfa.class, () -> {
+            countDownAndAwait(bothCreationsStarted);
+            injector.getSingleton(Delta.class);
+            return new Alfa();
+        });
+        injector.registerProvider(Delta.class, () -> {
+            countDownAndAwait(bothCreationsStarted);
+            injector.getSingleton(Alfa.class);
+            return () -> "delta";
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            // when
+            Future<Alfa> alfaResult = executor.submit(() -> injector.getSingleton(Alfa.class));
+            Future<Delta> deltaResult = executor.submit(() -> injector.getSingleton(Delta.class));
+
+            // then
+            List<Throwable> errors = new ArrayList<>();
+            for (Future<?> result : Arrays.asList(alfaResult, deltaResult)) {
+                try {
+                    result.get(5, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    errors.add(e.getCause());
+                }
+            }
+            // The thread that detects the deadlock fails. As Alfa and Delta depend on each other, the other thread
+            // then runs into the cycle when it continues
+            assertThat(errors, hasSize(2));
+            assertThat(errors, everyItem(instanceOf(InjectorException.class)));
+            assertThat(errors, containsInAnyOrder(
+                hasProperty("message", containsString("Deadlock detected")),
+                hasProperty("message", containsString("is requested while it is being created by the same thread"))));
+            assertThat(injector.getIfAvailable(Alfa.class), nullValue());
+            assertThat(injector.getIfAvailable(Delta.class), nullValue());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldThrowForSingletonRequestedWhileBeingCreatedBySameThread() {
+        // given
+        injector.registerProvider(Delta.class, () -> injector.getSingleton(Delta.class));
+
+        // expect
+        exceptionCatcher.expect("is requested while it is being created by the same thread");
+
+        // when
+        injector.getSingleton(Delta.class);
+    }
+
+    @Test
+    public void shouldResolveRepeatedNewInstanceRequestsWithPlan() throws Exception {
+        // given
+        Handler resolutionCounter = mock(Handler.class);
+        config.getHandlers().add(0, resolutionCounter);
+
+        // when
+        AlphaService i1 = injector.newInstance(AlphaService.class);
+        AlphaService i2 = injector.newInstance(AlphaService.class);
+        AlphaService i3 = injector.newInstance(AlphaService.class);
+
+        // then
+        verify(resolutionCounter, times(1)).resolve(argThat(hasIdentifierType(AlphaService.class)));
+        assertAreAllDifferentInstances(i1, i2, i3);
+        assertThat(i3.getProvidedClass(), sameInstance(i1.getProvidedClass()));
+    }
+
+    @Test
+    public void shouldOnlyKeepApplicablePostProcessorsInPlan() {
+        // given
+        CountingPostProcessor applicablePostProcessor = new CountingPostProcessor(true);
+        CountingPostProcessor otherPostProcessor = new CountingPostProcessor(false);
+        config.getHandlers().add(applicablePostProcessor);
+        config.getHandlers().add(otherPostProcessor);
+
+        // when
+        injector.newInstance(AlphaService.class);
+        injector.newInstance(AlphaService.class);
+        injector.newInstance(AlphaService.class);
+
+        // then
+        assertThat(applicablePostProcessor.calls, equalTo(3));
+        assertThat(otherPostProcessor.calls, equalTo(1));
+    }
+
+    @Test
+    public void shouldDiscardPlanWhenHandlersChange() throws Exception {
+        // given
+        injector.newInstance(AlphaService.class);
+        Handler resolutionCounter = mock(Handler.class);
+
+        // when
+        config.getHandlers().add(0, resolutionCounter);
+        injector.newInstance(AlphaService.class);
+        injector.newInstance(AlphaService.class);
+
+        // then
+        verify(resolutionCounter, times(1)).resolve(argThat(hasIdentifierType(AlphaService.class)));
+    }
+
+    @Test
+    public void shouldDiscardPlansWhenProviderIsRegistered() {
+        // given
+        GammaService gammaService = injector.newInstance(GammaService.class);
+        GammaService providedGammaService = new GammaService(null);
+
+        // when
+        injector.registerProvider(GammaService.class, () -> providedGammaService);
+        GammaService result = injector.newInstance(GammaService.class);
+
+        // then
+        assertThat(result, sameInstance(providedGammaService));
+        assertThat(result, not(sameInstance(gammaService)));
+    }
+
+    @Test
+    public void shouldCreateNewInstancesWithProviderUsingPlan() throws Exception {
+        // given
+        Handler resolutionCounter = mock(Handler.class);
+        config.getHandlers().add(0, resolutionCounter);
+
+        // when
+        Provider<AlphaService> provider = injector.getProvider(AlphaService.class);
+        AlphaService i1 = provider.get();
+        AlphaService i2 = provider.get();
+        AlphaService i3 = injector.getProvider(AlphaService.class).get();
+
+        // then
+        assertThat(injector.getProvider(AlphaService.class), sameInstance(provider));
+        verify(resolutionCounter, times(1)).resolve(argThat(hasIdentifierType(AlphaService.class)));
+        assertAreAllDifferentInstances(i1, i2, i3);
+        assertThat(i3.getProvidedClass(), sameInstance(i1.getProvidedClass()));
+    }
+
+    @Test
+    public void shouldNotUseProviderPlanAfterProviderIsRegistered() {
+        // given
+        Provider<GammaService> provider = injector.getProvider(GammaService.class);
+        GammaService gammaService = provider.get();
+        GammaService providedGammaService = new GammaService(null);
+
+        // when
+        injector.registerProvider(GammaService.class, () -> providedGammaService);
+        GammaService result1 = provider.get();
+        GammaService result2 = provider.get();
+
+        // then
+        assertThat(result1, sameInstance(providedGammaService));
+        assertThat(result2, sameInstance(providedGammaService));
+        assertThat(result1, not(sameInstance(gammaService)));
+    }
+
+    @Test
+    public void shouldNotAllocateForExistingSingleton() {
+        // given
+        // The JDK offers no portable way to measure allocations: skip the test on VMs without the extended bean
+        Object threadBean = ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean instanceof ThreadMXBean);
+        ThreadMXBean allocationBean = (ThreadMXBean) threadBean;
+        assumeTrue(allocationBean.isThreadAllocatedMemorySupported());
+        allocationBean.setThreadAllocatedMemoryEnabled(true);
+
+        final long threadId = Thread.currentThread().getId();
+        AlphaService alphaService = injector.getSingleton(AlphaService.class);
+        for (int i = 0; i < 20_000; ++i) { // warm-up so that JIT compilation does not influence the measurement
+            injector.getSingleton(AlphaService.class);
+        }
+
+        // when
+        long allocatedBytesBefore = allocationBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 10_000; ++i) {
+            injector.getSingleton(AlphaService.class);
+        }
+        long allocatedBytes = allocationBean.getThreadAllocatedBytes(threadId) - allocatedBytesBefore;
+
+        // then
+        assertThat(injector.getSingleton(AlphaService.class), sameInstance(alphaService));
+        // Allow for some noise from the measurement itself: allocating anything per call would be 10_000+ bytes
+        assertThat(allocatedBytes, lessThan(1_000L));
+    }
+
+    @Test
+    public void shouldInitializeSingletonsWithDependencies() {
+        // given
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            // when
+            injector.initializeAll(Arrays.asList(BetaManager.class, AlphaService.class), executor);
+
+            // then
+            BetaManager betaManager = injector.getIfAvailable(BetaManager.class);
+            assertThat(betaManager, not(nullValue()));
+            Object[] dependencies = betaManager.getDependencies();
+            assertThat(dependencies[0], sameInstance(injector.getIfAvailable(ProvidedClass.class)));
+            assertThat(dependencies[1], sameInstance(injector.getIfAvailable(GammaService.class)));
+            assertThat(dependencies[2], sameInstance(injector.getIfAvailable(AlphaService.class)));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldInitializeSingletonWithAnnotatedDependencies() {
+        // given
+        injector.provide(Size.class, 24);
+        injector.provide(Duration.class, 3600L);
+
+        // when
+        injector.initializeAll(Collections.singletonList(ClassWithAnnotations.class), Runnable::run);
+
+        // then
+        ClassWithAnnotations object = injector.getIfAvailable(ClassWithAnnotations.class);
+        assertThat(object, not(nullValue()));
+        assertThat(object.getSize(), equalTo(24));
+        assertThat(object.getDuration(), equalTo(3600L));
+        assertThat(object.getGammaService(), sameInstance(injector.getIfAvailable(GammaService.class)));
+    }
+
+    @Test
+    public void shouldInitializeIndependentSingletonsInParallel() {
+        // given
+        CountDownLatch bothCreationsStarted = new CountDownLatch(2);
+        injector.registerProvider(Alfa.class, () -> {
+            countDownAndAwait(bothCreationsStarted);
+            return new Alfa();
+        });
+        injector.registerProvider(Delta.class, () -> {
+            countDownAndAwait(bothCreationsStarted);
+            return () -> "delta";
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            // when
+            injector.initializeAll(Arrays.asList(Alfa.class, Delta.class), executor);
+
+            // then
+            assertThat(bothCreationsStarted.getCount(), equalTo(0L));
+            assertThat(injector.getIfAvailable(Alfa.class), not(nullValue()));
+            assertThat(injector.getIfAvailable(Delta.class), not(nullValue()));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldRethrowExceptionFromSingletonInitialization() {
+        // given
+        injector.registerProvider(Delta.class, () -> {
+            throw new IllegalStateException("Delta failed");
+        });
+
+        try {
+            // when
+            injector.initializeAll(Arrays.asList(Delta.class, AlphaService.class), Runnable::run);
+            fail("Expected exception");
+        } catch (InjectorException e) {
+            // then
+            assertThat(e.getCause(), instanceOf(IllegalStateException.class));
+            assertThat(e.getCause().getMessage(), equalTo("Delta failed"));
+            assertThat(injector.getIfAvailable(Delta.class), nullValue());
+            assertThat(injector.getIfAvailable(AlphaService.class), not(nullValue()));
+        }
+    }
+
+    @Test
+    public void shouldCallKnownDeterministicHandlerFirst() throws Exception {
+        // given
+        Handler deterministicHandler = newDeterministicHandler();
+        Handler nonDeterministicHandler = mock(Handler.class);
+        Handler resolvingHandler = newDeterministicHandler();
+        Resolution<?> resolution = new SimpleResolution<>(new Object());
+        given(resolvingHandler.resolve(any(ResolutionContext.class))).willReturn((Resolution) resolution);
+        InjectorImpl injector = (InjectorImpl) new InjectorBuilder()
+            .addHandlers(deterministicHandler, nonDeterministicHandler, resolvingHandler)
+            .create();
+
+        // when
+        Resolution<?> result1 = injector.findResolutionOrFail(newSingletonContext(injector, Object.class));
+        Resolution<?> result2 = injector.findResolutionOrFail(newSingletonContext(injector, Object.class));
+
+        // then
+        assertThat(result1, sameInstance(resolution));
+        assertThat(result2, sameInstance(resolution));
+        verify(deterministicHandler, times(1)).resolve(any(ResolutionContext.class));
+        verify(nonDeterministicHandler, times(2)).resolve(any(ResolutionContext.class));
+        verify(resolvingHandler, times(2)).resolve(any(ResolutionContext.class));
+    }
+
+    @Test
+    public void shouldFallBackToFullChainIfKnownHandlerDoesNotResolve() throws Exception {
+        // given
+        Handler deterministicHandler = newDeterministicHandler();
+        Handler formerResolvingHandler = newDeterministicHandler();
+        Handler resolvingHandler = newDeterministicHandler();
+        Resolution<?> resolution1 = new SimpleResolution<>(new Object());
+        Resolution<?> resolution2 = new SimpleResolution<>(new Object());
+        given(formerResolvingHandler.resolve(any(ResolutionContext.class)))
+            .willReturn((Resolution) resolution1)
+            .willReturn(null);
+        given(resolvingHandler.resolve(any(ResolutionContext.class))).willReturn((Resolution) resolution2);
+        InjectorImpl injector = (InjectorImpl) new InjectorBuilder()
+            .addHandlers(deterministicHandler, formerResolvingHandler, resolvingHandler)
+            .create();
+
+        // when
+        Resolution<?> result1 = injector.findResolutionOrFail(newSingletonContext(injector, Object.class));
+        Resolution<?> result2 = injector.findResolutionOrFail(newSingletonContext(injector, Object.class));
+        Resolution<?> result3 = injector.findResolutionOrFail(newSingletonContext(injector, Object.class));
+
+        // then
+        assertThat(result1, sameInstance(resolution1));
+        assertThat(result2, sameInstance(resolution2));
+        assertThat(result3, sameInstance(resolution2));
+        verify(deterministicHandler, times(2)).resolve(any(ResolutionContext.class));
+        verify(formerResolvingHandler, times(2)).resolve(any(ResolutionContext.class));
+        verify(resolvingHandler, times(2)).resolve(any(ResolutionContext.class));
+    }
+
+    @Test
+    public void shouldForgetKnownHandlersWhenProviderIsRegistered() throws Exception {
+        // given
+        Handler deterministicHandler = newDeterministicHandler();
+        Handler resolvingHandler = newDeterministicHandler();
+        given(resolvingHandler.resolve(any(ResolutionContext.class)))
+            .willReturn((Resolution) new SimpleResolution<>(new Object()));
+        InjectorImpl injector = (InjectorImpl) new InjectorBuilder()
+            .addHandlers(deterministicHandler, resolvingHandler)
+            .create();
+        injector.findResolutionOrFail(newSingletonContext(injector, Object.class));
+
+        // when
+        injector.registerProvider(AlphaService.class, () -> null);
+        injector.findResolutionOrFail(newSingletonContext(injector, Object.class));
+
+        // then
+        verify(deterministicHandler, times(2)).resolve(any(ResolutionContext.class));
+    }
+
+    @Test
+    public void shouldThrowForRegistrationAfterFreeze() {
+        // given
+        injector.freeze();
+
+        // when / then
+        exceptionCatcher.expect("The injector is frozen");
+        injector.register(AlphaService.class, AlphaService.newInstance(new ProvidedClass("")));
+    }
+
+    @Test
+    public void shouldThrowForProviderRegistrationAfterFreeze() {
+        // given
+        injector.freeze();
+
+        // when / then
+        exceptionCatcher.expect("The injector is frozen");
+        injector.registerProvider(Delta.class, Delta1Provider.class);
+    }
+
+    @Test
+    public void shouldCreateObjectsAfterFreeze() throws Exception {
+        // given
+        Handler handler = mock(Handler.class);
+        config.getHandlers().add(handler);
+        GammaService gammaService = injector.getSingleton(GammaService.class);
+
+        // when
+        injector.freeze();
+        injector.freeze();
+
+        // then
+        verify(handler, times(1)).onFreeze();
+        assertThat(injector.getSingleton(GammaService.class), sameInstance(gammaService));
+        assertThat(injector.getSingleton(BetaManager.class), not(nullValue()));
+        assertThat(injector.newInstance(AlphaService.class), not(nullValue()));
+        assertThat(injector.retrieveAllOfType(GammaService.class), contains(gammaService));
+    }
+
+    @Test
+    public void shouldNotAllowHandlerChangesAfterFreeze() {
+        // given
+        injector.freeze();
+
+        // when / then
+        expectedException.expect(UnsupportedOperationException.class);
+        config.getHandlers().add(mock(Handler.class));
+    }
+
+    @Test
+    public void shouldShareSingletonsWithChildInjector() {
+        // given
+        GammaService gammaService = injector.getSingleton(GammaService.class);
+        Injector child = injector.createChild();
+        Alfa childObject = new Alfa();
+
+        // when
+        child.register(Alfa.class, childObject);
+        BetaManager childBetaManager = child.getSingleton(BetaManager.class);
+
+        // then
+        assertThat(child.getSingleton(GammaService.class), sameInstance(gammaService));
+        assertThat(child.getSingleton(Injector.class), sameInstance(child));
+        assertThat(child.getIfAvailable(Alfa.class), sameInstance(childObject));
+        assertThat(injector.getIfAvailable(Alfa.class), nullValue());
+        assertThat(injector.getIfAvailable(BetaManager.class), nullValue());
+        assertThat(child.retrieveAllOfType(BetaManager.class), contains(childBetaManager));
+        assertThat(child.retrieveAllOfType(GammaService.class), contains(gammaService));
+        assertThat(injector.retrieveAllOfType(BetaManager.class), empty());
+    }
+
+    @Test
+    public void shouldRetrieveAllSingletonsOfTypeFromParentAndChild() {
+        // given
+        Injector child = injector.createChild();
+        Reloadable providedClass = injector.getSingleton(ProvidedClass.class);
+        Reloadable gammaService = child.getSingleton(GammaService.class);
+
+        // when
+        Collection<Reloadable> parentReloadables = injector.retrieveAllOfType(Reloadable.class);
+        Collection<Reloadable> childReloadables = child.retrieveAllOfType(Reloadable.class);
+
+        // then
+        assertThat(parentReloadables, contains(providedClass));
+        assertThat(childReloadables, contains(providedClass, gammaService));
+        assertThat(child.retrieveAllOfType(Reloadable.class), sameInstance(childReloadables));
+    }
+
+    @Test
+    public void shouldCompilePlansPerInjector() throws Exception {
+        // given
+        Handler resolutionCounter = mock(Handler.class);
+        config.getHandlers().add(0, resolutionCounter);
+        AlphaService parentAlphaService = injector.newInstance(AlphaService.class);
+        Injector child = injector.createChild();
+
+        // when
+        AlphaService childAlphaService1 = child.newInstance(AlphaService.class);
+        AlphaService childAlphaService2 = child.newInstance(AlphaService.class);
+
+        // then
+        verify(resolutionCounter, times(2)).resolve(argThat(hasIdentifierType(AlphaService.class)));
+        assertThat(childAlphaService1, not(sameInstance(parentAlphaService)));
+        assertThat(childAlphaService2, not(sameInstance(childAlphaService1)));
+    }
+
+    @Test
+    public void shouldUseProviderOfChildForTypePlannedByParent() {
+        // given
+        AlphaService parentAlphaService = injector.newInstance(AlphaService.class);
+        Injector child = injector.createChild();
+        AlphaService childAlphaService = mock(AlphaService.class);
+
+        // when
+        child.registerProvider(AlphaService.class, () -> childAlphaService);
+
+        // then
+        assertThat(child.newInstance(AlphaService.class), sameInstance(childAlphaService));
+        assertThat(child.getProvider(AlphaService.class).get(), sameInstance(childAlphaService));
+        AlphaService newParentAlphaService = injector.newInstance(AlphaService.class);
+        assertThat(newParentAlphaService, not(sameInstance(childAlphaService)));
+        assertThat(newParentAlphaService, not(sameInstance(parentAlphaService)));
+    }
+
+    @Test
+    public void shouldThrowForAnnotationValueProvidedToChildInjector() {
+        // given
+        Injector child = injector.createChild();
+
+        // when / then
+        exceptionCatcher.expect("can only be provided to the root injector");
+        child.provide(Duration.class, 10);
+    }
+
+    @Test
+    public void shouldNotShareProviderSingletonOfChildWithParent() {
+        // given
+        Injector parent = new InjectorBuilder().addDefaultHandlers("ch.jalu.injector").create();
+        parent.registerProvider(Delta.class, Delta1Provider.class);
+        Injector child = parent.createChild();
+        Alfa childAlfa = mock(Alfa.class);
+        given(childAlfa.transform(anyString())).willReturn("child");
+        child.register(Alfa.class, childAlfa);
+        Delta childDelta = child.newInstance(Delta.class);
+        parent.register(Alfa.class, new Alfa());
+
+        // when
+        Delta parentDelta = parent.newInstance(Delta.class);
+
+        // then
+        assertThat(childDelta.getName(), equalTo("child19"));
+        assertThat(parentDelta.getName(), equalTo("BRAVO19"));
+        assertThat(parent.getSingleton(Delta1Provider.class),
+            not(sameInstance(child.getIfAvailable(Delta1Provider.class))));
+    }
+
+    @Test
+    public void shouldResolveVeryDeepDependencyGraphOnSmallStack() throws InterruptedException {
+        // given
+        final int depth = 5000;
+        Injector injector = new InjectorBuilder()
+            .addHandlers(new LinkHandler(depth))
+            .addDefaultHandlers(ALLOWED_PACKAGE)
+            .create();
+        List<Object> result = new ArrayList<>();
+
+        // when
+        Thread thread = new Thread(null, () -> {
+            try {
+                result.add(injector.newInstance(Link.class));
+            } catch (Throwable t) {
+                result.add(t);
+            }
+        }, "small-stack", 128 * 1024);
+        thread.start();
+        thread.join();
+
+        // then
+        assertThat(result, contains(instanceOf(Link.class)));
+        int levels = 0;
+        for (Link link = (Link) result.get(0); link != null; link = link.next) {
+            ++levels;
+        }
+        assertThat(levels, equalTo(depth + 1));
+    }
+
     private static void assertAreAllSameInstance(Object... objects) {
         assertThat(Stream.of(objects).map(System::identityHashCode).distinct().count(), equalTo(1L));
     }
@@ -558,6 +1172,37 @@ public class InjectorImplTest {
         assertThat(Stream.of(objects).map(System::identityHashCode).distinct().count(), equalTo((long) objects.length));
     }
 
+    private static Handler newDeterministicHandler() {
+        Handler handler = mock(Handler.class);
+        given(handler.isDeterministic()).willReturn(true);
+        return handler;
+    }
+
+    private static ResolutionContext newSingletonContext(Injector injector, Class<?> clazz) {
+        return new ResolutionContext(injector, new ObjectIdentifier(StandardResolutionType.SINGLETON, clazz));
+    }
+
+    private static ArgumentMatcher<ResolutionContext> hasIdentifierType(Class<?> clazz) {
+        return context -> context.getIdentifier().getType() == clazz;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void countDownAndAwait(CountDownLatch latch) {
+        latch.countDown();
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     /**
      * Matches {@link SampleInstantiationImpl}.
      */
@@ -570,4 +1215,99 @@ public class InjectorImplTest {
             return new CustomInstantiationExample();
         }
     }
+
+    /** Element of a chain of objects created by {@link LinkHandler}. */
+    private static final class Link {
+        private final Link next;
+
+        Link(Link next) {
+            this.next = next;
+        }
+    }
+
+    /** Type identifying a {@link Link} with a given number of links after it. */
+    private static final class LinkType implements ParameterizedType {
+        private final int level;
+
+        LinkType(int level) {
+            this.level = level;
+        }
+
+        @Override
+        public Type[] getActualTypeArguments() {
+            return new Type[0];
+        }
+
+        @Override
+        public Type getRawType() {
+            return Link.class;
+        }
+
+        @Override
+        public Type getOwnerType() {
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            return "Link#" + level;
+        }
+    }
+
+    /** Resolves {@link Link} to a chain of the given depth, each link being a dependency of the previous one. */
+    private static final class LinkHandler implements Handler {
+        private final int depth;
+
+        LinkHandler(int depth) {
+            this.depth = depth;
+        }
+
+        @Override
+        public Resolution<?> resolve(ResolutionContext context) {
+            ObjectIdentifier identifier = context.getIdentifier();
+            if (identifier.getTypeAsClass() != Link.class) {
+                return null;
+            }
+            int level = identifier.getType() instanceof LinkType ? ((LinkType) identifier.getType()).level : depth;
+            List<ObjectIdentifier> dependencies = level == 0
+                ? Collections.emptyList()
+                : Collections.singletonList(new ObjectIdentifier(REQUEST_SCOPED, new LinkType(level - 1)));
+            return new Resolution<Link>() {
+                @Override
+                public List<ObjectIdentifier> getDependencies() {
+                    return dependencies;
+                }
+
+                @Override
+                public Link instantiateWith(Object... values) {
+                    return new Link(values.length == 0 ? null : (Link) values[0]);
+                }
+
+                @Override
+                public boolean isInstantiation() {
+                    return true;
+                }
+            };
+        }
+    }
+
+    private static final class CountingPostProcessor implements Handler {
+        private final boolean isApplicable;
+        private int calls;
+
+        CountingPostProcessor(boolean isApplicable) {
+            this.isApplicable = isApplicable;
+        }
+
+        @Override
+        public <T> T postProcess(T object, ResolutionContext context, Resolution<?> resolution) {
+            ++calls;
+            return null;
+        }
+
+        @Override
+        public boolean isPostProcessorFor(Resolution<?> resolution) {
+            return isApplicable;
+        }
+    }
 }
@@ -0,0 +1,98 @@
+package ch.jalu.injector;
+
+import org.junit.Test;
+
+import java.io.Serializable;
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link SingletonTypeIndex}.
+ */
+public class SingletonTypeIndexTest {
+
+    @Test
+    public void shouldReturnSingletonsOfType() {
+        // given
+        SingletonTypeIndex index = new SingletonTypeIndex();
+        index.add("test");
+        index.add(3);
+        index.add(new Object());
+        index.add(8L);
+
+        // when
+        List<Number> numbers = index.getAllOfType(Number.class);
+        List<CharSequence> charSequences = index.getAllOfType(CharSequence.class);
+        List<Thread> threads = index.getAllOfType(Thread.class);
+
+        // then
+        assertThat(numbers, contains(3, 8L));
+        assertThat(charSequences, contains("test"));
+        assertThat(threads, empty());
+    }
+
+    @Test
+    public void shouldReturnSameListUntilMatchingSingletonIsAdded() {
+        // given
+        SingletonTypeIndex index = new SingletonTypeIndex();
+        index.add("test");
+        List<Serializable> serializables = index.getAllOfType(Serializable.class);
+        List<Number> numbers = index.getAllOfType(Number.class);
+
+        // when
+        index.add(new Object());
+        List<Serializable> serializables2 = index.getAllOfType(Serializable.class);
+        index.add(4);
+        List<Serializable> serializables3 = index.getAllOfType(Serializable.class);
+        List<Number> numbers2 = index.getAllOfType(Number.class);
+
+        // then
+        assertThat(serializables2, sameInstance(serializables));
+        assertThat(serializables3, not(sameInstance(serializables)));
+        assertThat(serializables, contains("test"));
+        assertThat(serializables3, contains("test", 4));
+        assertThat(numbers, empty());
+        assertThat(numbers2, contains(4));
+    }
+
+    @Test
+    public void shouldKeepPreviousListsUnchanged() {
+        // given
+        SingletonTypeIndex index = new SingletonTypeIndex();
+        index.add(1);
+        List<Object> objects1 = index.getAllOfType(Object.class);
+        index.add(2);
+        List<Object> objects2 = index.getAllOfType(Object.class);
+
+        // when
+        for (int i = 3; i <= 20; ++i) {
+            index.add(i);
+        }
+        index.trimToSize();
+        index.add(21);
+        List<Object> objects3 = index.getAllOfType(Object.class);
+
+        // then
+        assertThat(objects1, contains(1));
+        assertThat(objects2, contains(1, 2));
+        assertThat(objects3, hasSize(21));
+        assertThat(objects3.get(20), equalTo(21));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldReturnUnmodifiableList() {
+        // given
+        SingletonTypeIndex index = new SingletonTypeIndex();
+        index.add("test");
+
+        // when
+        index.getAllOfType(String.class).add("other");
+    }
+}
@@ -0,0 +1,77 @@
+package ch.jalu.injector.context;
+
+import ch.jalu.injector.samples.Duration;
+import ch.jalu.injector.samples.Size;
+import org.junit.Test;
+
+import javax.inject.Inject;
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.util.Arrays;
+
+import static ch.jalu.injector.InjectorTestHelper.newDurationAnnotation;
+import static ch.jalu.injector.InjectorTestHelper.newSizeAnnotation;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link AnnotationMasks}.
+ */
+public class AnnotationMasksTest {
+
+    @Test
+    public void shouldReturnSingleBitPerAnnotationType() {
+        // given / when
+        long sizeMask = AnnotationMasks.of(Size.class);
+        long durationMask = AnnotationMasks.of(Duration.class);
+
+        // then
+        assertThat(Long.bitCount(sizeMask), equalTo(1));
+        assertThat(Long.bitCount(durationMask), equalTo(1));
+        assertThat(sizeMask, not(equalTo(durationMask)));
+        assertThat(AnnotationMasks.of(Size.class), equalTo(sizeMask));
+    }
+
+    @Test
+    public void shouldCombineMasksOfAnnotations() {
+        // given
+        Annotation[] annotations = {newSizeAnnotation("1"), newDurationAnnotation()};
+
+        // when
+        long mask = AnnotationMasks.of(Arrays.asList(annotations));
+
+        // then
+        assertThat(mask, equalTo(AnnotationMasks.of(Size.class) | AnnotationMasks.of(Duration.class)));
+    }
+
+    @Test
+    public void shouldCheckIdentifierAgainstMask() {
+        // given
+        ObjectIdentifier identifier = new ObjectIdentifier(StandardResolutionType.SINGLETON, int.class,
+            newSizeAnnotation("4"));
+        ObjectIdentifier identifierWithoutAnnotations =
+            new ObjectIdentifier(StandardResolutionType.SINGLETON, int.class);
+
+        // when / then
+        assertThat(identifier.mayHaveAnnotationOf(AnnotationMasks.of(Size.class)), equalTo(true));
+        assertThat(identifier.mayHaveAnnotationOf(
+            AnnotationMasks.of(Duration.class) | AnnotationMasks.of(Size.class)), equalTo(true));
+        assertThat(identifier.mayHaveAnnotationOf(AnnotationMasks.of(Duration.class)), equalTo(false));
+        assertThat(identifierWithoutAnnotations.mayHaveAnnotationOf(-1L), equalTo(false));
+    }
+
+    @Test
+    public void shouldNotReturnEmptyMask() {
+        // given / when
+        long[] masks = {
+            AnnotationMasks.of(Inject.class), AnnotationMasks.of(Documented.class),
+            AnnotationMasks.of(Retention.class), AnnotationMasks.of(Deprecated.class)};
+
+        // then
+        for (long mask : masks) {
+            assertThat(Long.bitCount(mask), equalTo(1));
+        }
+    }
+}
@@ -8,6 +8,8 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import javax.inject.Inject;
+import java.lang.reflect.Field;
 import java.lang.reflect.Type;
 import java.lang.reflect.WildcardType;
 import java.util.List;
@@ -16,9 +18,12 @@ import java.util.Optional;
 import static ch.jalu.injector.InjectorTestHelper.newDurationAnnotation;
 import static ch.jalu.injector.InjectorTestHelper.newSizeAnnotation;
 import static ch.jalu.injector.TestUtils.createParameterizedType;
+import static org.hamcrest.Matchers.arrayWithSize;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
 /**
@@ -26,6 +31,10 @@ import static org.junit.Assert.assertThat;
  */
 public class ObjectIdentifierTest {
 
+    @Inject
+    @Size("7")
+    private List<String> sizedList;
+
     @Rule
     public ExpectedException expectedException = ExpectedException.none();
     private ExceptionCatcher exceptionCatcher = new ExceptionCatcher(expectedException);
@@ -82,6 +91,57 @@ public class ObjectIdentifierTest {
         identifier.getTypeAsClass();
     }
 
+    @Test
+    public void shouldBeEqualForSameValues() throws NoSuchFieldException {
+        // given
+        Field field = getClass().getDeclaredField("sizedList");
+        ObjectIdentifier identifier1 = new ObjectIdentifier(StandardResolutionType.SINGLETON,
+            field.getGenericType(), field.getAnnotations());
+        ObjectIdentifier identifier2 = new ObjectIdentifier(StandardResolutionType.SINGLETON,
+            field.getGenericType(), field.getAnnotation(Size.class));
+
+        // when / then
+        assertThat(identifier1, equalTo(identifier2));
+        assertThat(identifier1.hashCode(), equalTo(identifier2.hashCode()));
+        assertThat(identifier1, not(equalTo(new ObjectIdentifier(StandardResolutionType.REQUEST_SCOPED,
+            field.getGenericType(), field.getAnnotations()))));
+        assertThat(identifier1, not(equalTo(new ObjectIdentifier(StandardResolutionType.SINGLETON,
+            List.class, field.getAnnotations()))));
+        assertThat(identifier1, not(equalTo(new ObjectIdentifier(StandardResolutionType.SINGLETON,
+            field.getGenericType()))));
+    }
+
+    @Test
+    public void shouldNotKeepInjectAnnotation() throws NoSuchFieldException {
+        // given
+        Field field = getClass().getDeclaredField("sizedList");
+
+        // when
+        ObjectIdentifier identifier = new ObjectIdentifier(StandardResolutionType.SINGLETON,
+            field.getGenericType(), field.getAnnotations());
+
+        // then
+        assertThat(field.getAnnotations(), arrayWithSize(2));
+        assertThat(identifier.getAnnotations(), contains(instanceOf(Size.class)));
+    }
+
+    @Test
+    public void shouldReturnSharedInstance() throws NoSuchFieldException {
+        // given
+        Field field = getClass().getDeclaredField("sizedList");
+
+        // when
+        ObjectIdentifier identifier1 = ObjectIdentifier.of(StandardResolutionType.SINGLETON,
+            field.getGenericType(), field.getAnnotations());
+        ObjectIdentifier identifier2 = ObjectIdentifier.of(StandardResolutionType.SINGLETON,
+            field.getGenericType(), field.getAnnotation(Size.class));
+
+        // then
+        assertThat(identifier1, sameInstance(identifier2));
+        assertThat(ObjectIdentifier.of(StandardResolutionType.REQUEST_SCOPED, field.getGenericType()),
+            not(sameInstance(identifier1)));
+    }
+
     private static final class WildcardTypeImpl implements WildcardType {
         @Override
         public Type[] getUpperBounds() {
@@ -3,7 +3,14 @@ package ch.jalu.injector.context;
 import ch.jalu.injector.exceptions.InjectorException;
 import org.junit.Test;
 
+import java.util.Arrays;
+
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 
@@ -28,4 +35,54 @@ public class ResolutionContextTest {
                 containsString("New mapped class '" + String.class + "' is not a child of original class"));
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldReturnParentsFromRootToDirectParent() {
+        // given
+        ResolutionContext root = new ResolutionContext(null, identifier(Object.class));
+        ResolutionContext child = root.createChildContext(identifier(Number.class));
+        ResolutionContext grandchild = child.createChildContext(identifier(String.class));
+
+        // when / then
+        assertThat(root.getParents(), empty());
+        assertThat(grandchild.getParents(), contains(sameInstance(root), sameInstance(child)));
+        assertThat(grandchild.getParent(), sameInstance(child));
+        assertThat(grandchild.getRoot(), sameInstance(root));
+        assertThat(grandchild.getDepth(), equalTo(2));
+    }
+
+    @Test
+    public void shouldFindParentOfType() {
+        // given
+        ResolutionContext root = new ResolutionContext(null, identifier(Object.class));
+        ResolutionContext child = root.createChildContext(identifier(Number.class));
+        ResolutionContext grandchild = child.createChildContext(identifier(Number.class));
+
+        // when / then
+        assertThat(grandchild.findParentOfType(Number.class), sameInstance(child));
+        assertThat(grandchild.findParentOfType(Object.class), sameInstance(root));
+        assertThat(grandchild.findParentOfType(String.class), nullValue());
+        assertThat(root.findParentOfType(Object.class), nullValue());
+        assertThat(child.findParentOfType(Number.class), nullValue());
+    }
+
+    @Test
+    public void shouldNotFindParentOfAlreadyResolvedBranch() {
+        // given
+        ResolutionContext root = new ResolutionContext(null, identifier(Object.class));
+        ResolutionContext firstChild = root.createChildContext(identifier(Number.class));
+        firstChild.createChildContext(identifier(String.class));
+        // firstChild has been resolved, root continues with its next dependency
+        ResolutionContext secondChild = root.createChildContext(identifier(Integer.class));
+        ResolutionContext grandchild = secondChild.createChildContext(identifier(Number.class));
+
+        // when / then
+        assertThat(grandchild.findParentOfType(Number.class), nullValue());
+        assertThat(grandchild.findParentOfType(Integer.class), sameInstance(secondChild));
+        assertThat(grandchild.getParents(), equalTo(Arrays.asList(root, secondChild)));
+    }
+
+    private static ObjectIdentifier identifier(Class<?> type) {
+        return new ObjectIdentifier(StandardResolutionType.SINGLETON, type);
+    }
+}
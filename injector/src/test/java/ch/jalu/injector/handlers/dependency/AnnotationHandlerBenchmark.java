@@ -0,0 +1,125 @@
+package ch.jalu.injector.handlers.dependency;
+
+import ch.jalu.injector.context.ObjectIdentifier;
+import ch.jalu.injector.context.ResolutionContext;
+import ch.jalu.injector.handlers.Handler;
+import ch.jalu.injector.handlers.instantiation.Resolution;
+import ch.jalu.injector.samples.BetaManager;
+import ch.jalu.injector.samples.Duration;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Documented;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Native;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static ch.jalu.injector.InjectorTestHelper.newSizeAnnotation;
+import static ch.jalu.injector.context.StandardResolutionType.SINGLETON;
+
+/**
+ * Measures the time it takes to run a chain of annotation handlers which do not match the requested identifier,
+ * for a growing number of handlers. Not a unit test: run the main method manually.
+ */
+public final class AnnotationHandlerBenchmark {
+
+    private static final int WARM_UP_ITERATIONS = 500_000;
+    private static final int MEASURED_ITERATIONS = 5_000_000;
+
+    private static final List<Class<? extends Annotation>> HANDLED_ANNOTATIONS = Arrays.asList(
+        Duration.class, Deprecated.class, FunctionalInterface.class, SafeVarargs.class, Documented.class,
+        Inherited.class, Native.class, Repeatable.class, Retention.class, Target.class);
+
+    private AnnotationHandlerBenchmark() {
+    }
+
+    public static void main(String... args) {
+        ResolutionContext plainContext = new ResolutionContext(null,
+            new ObjectIdentifier(SINGLETON, BetaManager.class));
+        ResolutionContext annotatedContext = new ResolutionContext(null,
+            new ObjectIdentifier(SINGLETON, int.class, newSizeAnnotation("3")));
+
+        // Run twice so that the results of the second round are not skewed by the JIT compilation order
+        for (int round = 1; round <= 2; ++round) {
+            System.out.println("Round " + round);
+            for (int totalHandlers : new int[]{1, 5, 10, 20}) {
+                List<Handler> handlers = createHandlers(totalHandlers);
+                runAndPrint(handlers.size() + " handlers - identifier without annotations",
+                    () -> resolve(handlers, plainContext));
+                runAndPrint(handlers.size() + " handlers - identifier with unhandled annotation",
+                    () -> resolve(handlers, annotatedContext));
+            }
+        }
+    }
+
+    /**
+     * Creates the given number of handlers, alternating between {@link SavedAnnotationsHandler} and
+     * {@link TypeSafeAnnotationHandler} instances, each handling a different annotation type.
+     */
+    private static List<Handler> createHandlers(int total) {
+        List<Handler> handlers = new ArrayList<>(total);
+        for (int i = 0; i < total; ++i) {
+            Class<? extends Annotation> annotationType = HANDLED_ANNOTATIONS.get(i / 2);
+            if (i % 2 == 0) {
+                SavedAnnotationsHandler handler = new SavedAnnotationsHandler();
+                handler.onAnnotation(annotationType, new Object());
+                handlers.add(handler);
+            } else {
+                handlers.add(new FixedTypeAnnotationHandler(annotationType));
+            }
+        }
+        return handlers;
+    }
+
+    private static Resolution<?> resolve(List<Handler> handlers, ResolutionContext context) {
+        try {
+            for (Handler handler : handlers) {
+                Resolution<?> resolution = handler.resolve(context);
+                if (resolution != null) {
+                    return resolution;
+                }
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return null;
+    }
+
+    private static void runAndPrint(String description, Runnable action) {
+        for (int i = 0; i < WARM_UP_ITERATIONS; ++i) {
+            action.run();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; ++i) {
+            action.run();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        System.out.printf("  %-55s %6d ms (%.1f ns/op)%n", description,
+            TimeUnit.NANOSECONDS.toMillis(elapsedNanos), (double) elapsedNanos / MEASURED_ITERATIONS);
+    }
+
+    private static final class FixedTypeAnnotationHandler extends TypeSafeAnnotationHandler<Annotation> {
+        private final Class<Annotation> annotationType;
+
+        @SuppressWarnings("unchecked")
+        FixedTypeAnnotationHandler(Class<? extends Annotation> annotationType) {
+            this.annotationType = (Class<Annotation>) annotationType;
+        }
+
+        @Override
+        protected Class<Annotation> getAnnotationType() {
+            return annotationType;
+        }
+
+        @Override
+        protected Resolution<?> resolveValueSafely(ResolutionContext context, Annotation annotation) {
+            return null;
+        }
+    }
+}
@@ -70,6 +70,23 @@ public class FactoryDependencyHandlerTest {
         assertThat(child, not(sameInstance(child2)));
     }
 
+    @Test
+    public void shouldShareFactoryForSameGenericType() {
+        // given
+        Factory<Parent> factory = getFactoryForClass(Parent.class);
+        Child child1 = factory.newInstance(Child.class);
+
+        // when
+        Factory<Parent> factory2 = getFactoryForClass(Parent.class);
+        Child child2 = factory2.newInstance(Child.class);
+
+        // then
+        assertThat(factory2, sameInstance(factory));
+        assertThat(getFactoryForClass(Grandparent.class), not(sameInstance((Object) factory)));
+        assertThat(child2, not(nullValue()));
+        assertThat(child2, not(sameInstance(child1)));
+    }
+
     @Test
     public void shouldThrowForClassNotWithinBounds() {
         // given
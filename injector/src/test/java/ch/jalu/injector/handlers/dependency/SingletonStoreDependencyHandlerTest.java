@@ -37,6 +37,7 @@ import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
@@ -87,6 +88,19 @@ public class SingletonStoreDependencyHandlerTest {
         assertThat(allChildren, contains(child));
     }
 
+    @Test
+    public void shouldShareStoreForSameGenericType() {
+        // given
+        SingletonStore<Parent> store = getSingletonStoreForClass(Parent.class);
+
+        // when
+        SingletonStore<Parent> store2 = getSingletonStoreForClass(Parent.class);
+
+        // then
+        assertThat(store2, sameInstance(store));
+        assertThat(getSingletonStoreForClass(Grandparent.class), not(sameInstance((Object) store)));
+    }
+
     @Test
     public void shouldThrowForClassNotWithinBounds() {
         // given
@@ -3,6 +3,8 @@ package ch.jalu.injector.handlers.instantiation;
 import ch.jalu.injector.TestUtils.ExceptionCatcher;
 import ch.jalu.injector.context.ObjectIdentifier;
 import ch.jalu.injector.context.ResolutionContext;
+import ch.jalu.injector.exceptions.InjectorException;
+import ch.jalu.injector.exceptions.InjectorReflectionException;
 import ch.jalu.injector.samples.AlphaService;
 import ch.jalu.injector.samples.BetaManager;
 import ch.jalu.injector.samples.ClassWithInjectMethod;
@@ -15,11 +17,19 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
 import javax.inject.Inject;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.List;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 
 /**
  * Test for {@link DefaultInjectionProvider}.
@@ -98,10 +108,120 @@ public class DefaultInjectionProviderTest {
         provider.resolve(contextOf(Object.class));
     }
 
+    @Test
+    public void shouldValidateClassOnlyOnce() {
+        // given
+        CountingInjectionProvider countingProvider = new CountingInjectionProvider(ValidationPolicy.STRICT);
+
+        // when
+        countingProvider.safeGet(BetaManager.class);
+        countingProvider.safeGet(BetaManager.class);
+
+        // then
+        assertThat(countingProvider.validations, equalTo(1));
+    }
+
+    @Test
+    public void shouldRememberInvalidClass() {
+        // given
+        CountingInjectionProvider countingProvider = new CountingInjectionProvider(ValidationPolicy.STRICT);
+
+        // when
+        InjectorException exception1 = getExceptionForSafeGet(countingProvider, StaticFieldInjection.class);
+        InjectorException exception2 = getExceptionForSafeGet(countingProvider, StaticFieldInjection.class);
+
+        // then
+        assertThat(countingProvider.validations, equalTo(1));
+        assertThat(exception1.getMessage(), containsString("@Inject may not be placed on static fields"));
+        assertThat(exception2.getMessage(), equalTo(exception1.getMessage()));
+    }
+
+    @Test
+    public void shouldRethrowOriginalExceptionOfInvalidClass() {
+        // given
+        IllegalStateException cause = new IllegalStateException("Metadata unavailable");
+        DefaultInjectionProvider provider = new DefaultInjectionProvider("ch.jalu") {
+            @Override
+            protected void validateInjection(Class<?> clazz, Constructor<?> constructor, List<Field> fields) {
+                throw new InjectorReflectionException("Could not validate '" + clazz + "'", cause);
+            }
+        };
+
+        // when
+        InjectorException exception1 = getExceptionForSafeGet(provider, BetaManager.class);
+        InjectorException exception2 = getExceptionForSafeGet(provider, BetaManager.class);
+
+        // then
+        assertThat(exception1, instanceOf(InjectorReflectionException.class));
+        assertThat(exception2, instanceOf(InjectorReflectionException.class));
+        assertThat(exception2.getMessage(), equalTo(exception1.getMessage()));
+        assertThat(exception2.getCause(), sameInstance(cause));
+    }
+
+    @Test
+    public void shouldOnlyRememberInvalidClassesAfterFreeze() {
+        // given
+        CountingInjectionProvider countingProvider = new CountingInjectionProvider(ValidationPolicy.STRICT);
+        countingProvider.safeGet(BetaManager.class);
+        InjectorException exception1 = getExceptionForSafeGet(countingProvider, StaticFieldInjection.class);
+
+        // when
+        countingProvider.onFreeze();
+        countingProvider.safeGet(BetaManager.class);
+        InjectorException exception2 = getExceptionForSafeGet(countingProvider, StaticFieldInjection.class);
+
+        // then
+        assertThat(countingProvider.validations, equalTo(3));
+        assertThat(exception2.getMessage(), equalTo(exception1.getMessage()));
+    }
+
+    @Test
+    public void shouldSkipValidationOfTrustedClass() {
+        // given
+        CountingInjectionProvider countingProvider = new CountingInjectionProvider(ValidationPolicy.TRUSTED);
+
+        // when
+        Resolution<StaticFieldInjection> resolution = countingProvider.safeGet(StaticFieldInjection.class);
+        countingProvider.safeGet(BetaManager.class);
+
+        // then
+        assertThat(resolution, not(nullValue()));
+        assertThat(countingProvider.validations, equalTo(1));
+    }
+
+    private static InjectorException getExceptionForSafeGet(DefaultInjectionProvider provider, Class<?> clazz) {
+        try {
+            provider.safeGet(clazz);
+            fail("Expected exception to be thrown");
+            return null;
+        } catch (InjectorException e) {
+            return e;
+        }
+    }
+
     private static ResolutionContext contextOf(Class<?> clazz) {
         return new ResolutionContext(null, new ObjectIdentifier(null, clazz));
     }
 
+    private static final class CountingInjectionProvider extends DefaultInjectionProvider {
+        private int validations;
+
+        CountingInjectionProvider(ValidationPolicy validationPolicy) {
+            super("ch.jalu", StandardInjectionStrategy.REFLECTION, validationPolicy);
+        }
+
+        @Override
+        protected boolean isVerifiedAtBuildTime(Class<?> clazz) {
+            return clazz == StaticFieldInjection.class;
+        }
+
+        @Override
+        protected void validateInjection(Class<?> clazz, Constructor<?> constructor, List<Field> fields) {
+            ++validations;
+            super.validateInjection(clazz, constructor, fields);
+        }
+    }
+
     private static final class ChildOfParentWithInjectMethod extends ClassWithInjectMethod {
 
         @Inject
@@ -0,0 +1,217 @@
+package ch.jalu.injector.handlers.instantiation;
+
+import ch.jalu.injector.Injector;
+import ch.jalu.injector.InjectorBuilder;
+import ch.jalu.injector.exceptions.InjectorReflectionException;
+import ch.jalu.injector.handlers.Handler;
+import ch.jalu.injector.samples.AlphaService;
+import ch.jalu.injector.samples.BetaManager;
+import ch.jalu.injector.samples.ClassWithAnnotations;
+import ch.jalu.injector.samples.FieldInjectionWithAnnotations;
+import ch.jalu.injector.samples.GammaService;
+import ch.jalu.injector.samples.ProvidedClass;
+import ch.jalu.injector.samples.StaticFieldInjection;
+import javassist.CannotCompileException;
+import javassist.CtClass;
+import org.junit.Test;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Test for {@link GeneratedInjectionStrategy} and {@link GeneratedInjection}.
+ */
+public class GeneratedInjectionTest {
+
+    private final StandardInjectionProvider provider = new StandardInjectionProvider(new GeneratedInjectionStrategy());
+
+    @Test
+    public void shouldInstantiateWithGeneratedClass() {
+        // given
+        GammaService gammaService = new GammaService(AlphaService.newInstance(new ProvidedClass("")));
+
+        // when
+        Resolution<ClassWithAnnotations> injection = provider.safeGet(ClassWithAnnotations.class);
+        ClassWithAnnotations result = injection.instantiateWith(-112, gammaService, 8L);
+
+        // then
+        assertThat(injection, instanceOf(GeneratedInjection.class));
+        assertThat(result.getSize(), equalTo(-112));
+        assertThat(result.getGammaService(), sameInstance(gammaService));
+        assertThat(result.getDuration(), equalTo(8L));
+    }
+
+    @Test
+    public void shouldInjectAccessibleAndPrivateFields() {
+        // given
+        BetaManager betaManager = new BetaManager();
+        ClassWithAnnotations classWithAnnotations = mock(ClassWithAnnotations.class);
+
+        // when
+        Resolution<FieldInjectionWithAnnotations> injection = provider.safeGet(FieldInjectionWithAnnotations.class);
+        FieldInjectionWithAnnotations result =
+            injection.instantiateWith(betaManager, 14, 66L, classWithAnnotations);
+
+        // then
+        assertThat(injection, instanceOf(GeneratedInjection.class));
+        assertThat(result.getBetaManager(), sameInstance(betaManager));
+        assertThat(result.getSize(), equalTo(14));
+        assertThat(result.getDuration(), equalTo(66L));
+        assertThat(result.getClassWithAnnotations(), sameInstance(classWithAnnotations));
+    }
+
+    @Test
+    public void shouldInjectStaticFields() {
+        // given
+        ProvidedClass providedClass = new ProvidedClass("");
+        AlphaService alphaService = AlphaService.newInstance(providedClass);
+
+        // when
+        Resolution<StaticFieldInjection> injection = provider.safeGet(StaticFieldInjection.class);
+        StaticFieldInjection result = injection.instantiateWith(providedClass, alphaService);
+
+        // then
+        assertThat(injection, instanceOf(GeneratedInjection.class));
+        assertThat(result.getProvidedClass(), sameInstance(providedClass));
+        assertThat(StaticFieldInjection.getAlphaService(), sameInstance(alphaService));
+    }
+
+    @Test
+    public void shouldUseFallbackForInaccessibleConstructor() {
+        // given / when
+        Resolution<PrivateClass> injection = provider.safeGet(PrivateClass.class);
+
+        // then
+        assertThat(injection, instanceOf(MethodHandleInjection.class));
+        assertThat(injection.instantiateWith(), not(nullValue()));
+    }
+
+    @Test
+    public void shouldUseFallbackIfClassCannotBeDefined() {
+        // given
+        StandardInjectionProvider provider = new StandardInjectionProvider(new GeneratedInjectionStrategy() {
+            @Override
+            protected Class<?> defineClass(CtClass generatedClass, Class<?> targetClass) {
+                throw new IllegalStateException("Unable to make ClassLoader#defineClass accessible");
+            }
+        });
+
+        // when
+        Resolution<UndefinableClass> injection = provider.safeGet(UndefinableClass.class);
+
+        // then
+        assertThat(injection, instanceOf(MethodHandleInjection.class));
+        assertThat(injection.instantiateWith(), not(nullValue()));
+    }
+
+    @Test
+    public void shouldGenerateClassOnlyOnce() {
+        // given
+        AtomicInteger definedClasses = new AtomicInteger();
+        InjectionStrategy strategy = new GeneratedInjectionStrategy() {
+            @Override
+            protected Class<?> defineClass(CtClass generatedClass, Class<?> targetClass)
+                                           throws CannotCompileException {
+                definedClasses.incrementAndGet();
+                return super.defineClass(generatedClass, targetClass);
+            }
+        };
+        StandardInjectionProvider provider = new StandardInjectionProvider(strategy);
+
+        // when
+        Resolution<SingleGenerationClass> injection1 = provider.safeGet(SingleGenerationClass.class);
+        Resolution<SingleGenerationClass> injection2 = provider.safeGet(SingleGenerationClass.class);
+        Resolution<SingleGenerationClass> injection3 =
+            new StandardInjectionProvider(strategy).safeGet(SingleGenerationClass.class);
+
+        // then
+        assertThat(injection1, instanceOf(GeneratedInjection.class));
+        assertThat(injection2, instanceOf(GeneratedInjection.class));
+        assertThat(injection3.instantiateWith(), not(nullValue()));
+        assertThat(definedClasses.get(), equalTo(1));
+    }
+
+    @Test(expected = InjectorReflectionException.class)
+    public void shouldThrowForInvalidValue() {
+        // given
+        Resolution<ClassWithAnnotations> injection = provider.safeGet(ClassWithAnnotations.class);
+
+        // when / then
+        injection.instantiateWith(null, null, 8L);
+    }
+
+    @Test
+    public void shouldWrapCheckedExceptionOfConstructor() {
+        // given
+        Resolution<ThrowingClass> injection = provider.safeGet(ThrowingClass.class);
+
+        // when
+        try {
+            injection.instantiateWith();
+            fail("Expected exception to be thrown");
+        } catch (InjectorReflectionException e) {
+            // then
+            assertThat(injection, instanceOf(GeneratedInjection.class));
+            assertThat(e.getCause(), instanceOf(InvocationTargetException.class));
+            assertThat(e.getCause().getCause(), instanceOf(IOException.class));
+        }
+    }
+
+    @Test
+    public void shouldCreateObjectsWithInjector() {
+        // given
+        List<Handler> handlers = InjectorBuilder.createDefaultHandlers("ch.jalu.injector.samples");
+        handlers.replaceAll(handler -> handler instanceof DefaultInjectionProvider
+            ? new DefaultInjectionProvider("ch.jalu.injector.samples", new GeneratedInjectionStrategy())
+            : handler);
+        Injector injector = new InjectorBuilder().addHandlers(handlers).create();
+        ProvidedClass providedClass = new ProvidedClass("");
+        injector.register(ProvidedClass.class, providedClass);
+
+        // when
+        BetaManager betaManager1 = injector.newInstance(BetaManager.class);
+        BetaManager betaManager2 = injector.newInstance(BetaManager.class);
+
+        // then
+        assertThat(betaManager1, not(sameInstance(betaManager2)));
+        assertThat(betaManager1.getDependencies()[0], sameInstance(providedClass));
+        assertThat(betaManager1.getDependencies()[1], sameInstance(injector.getSingleton(GammaService.class)));
+        assertThat(betaManager2.getDependencies()[2], sameInstance(injector.getSingleton(AlphaService.class)));
+    }
+
+    public static final class ThrowingClass {
+        @Inject
+        public ThrowingClass() throws IOException {
+            throw new IOException("Could not read configuration");
+        }
+    }
+
+    public static final class UndefinableClass {
+        @Inject
+        public UndefinableClass() {
+        }
+    }
+
+    public static final class SingleGenerationClass {
+        @Inject
+        public SingleGenerationClass() {
+        }
+    }
+
+    private static final class PrivateClass {
+        private PrivateClass() {
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package ch.jalu.injector.handlers.instantiation;
+
+import ch.jalu.injector.Injector;
+import ch.jalu.injector.InjectorBuilder;
+import ch.jalu.injector.handlers.Handler;
+import ch.jalu.injector.samples.AlphaService;
+import ch.jalu.injector.samples.BetaManager;
+import ch.jalu.injector.samples.ClassWithAnnotations;
+import ch.jalu.injector.samples.Duration;
+import ch.jalu.injector.samples.GammaService;
+import ch.jalu.injector.samples.ProvidedClass;
+import ch.jalu.injector.samples.Size;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the time it takes to create request-scoped objects with the {@link StandardInjectionStrategy}
+ * entries and the {@link GeneratedInjectionStrategy}. Not a unit test: run the main method manually.
+ */
+public final class InjectionStrategyBenchmark {
+
+    private static final int WARM_UP_ITERATIONS = 200_000;
+    private static final int MEASURED_ITERATIONS = 2_000_000;
+
+    private InjectionStrategyBenchmark() {
+    }
+
+    public static void main(String... args) {
+        // Run twice so that the results of the second round are not skewed by the JIT compilation order
+        for (int round = 1; round <= 2; ++round) {
+            System.out.println("Round " + round);
+            for (StandardInjectionStrategy strategy : StandardInjectionStrategy.values()) {
+                benchmark(strategy.name(), strategy);
+            }
+            benchmark("GENERATED", new GeneratedInjectionStrategy());
+        }
+    }
+
+    private static void benchmark(String name, InjectionStrategy strategy) {
+        Injector injector = createInjector(strategy);
+        injector.register(ProvidedClass.class, new ProvidedClass(""));
+        injector.provide(Size.class, 3);
+        injector.provide(Duration.class, 1000L);
+
+        runAndPrint(name + " - newInstance(ClassWithAnnotations)",
+            () -> injector.newInstance(ClassWithAnnotations.class));
+        runAndPrint(name + " - newInstance(BetaManager)",
+            () -> injector.newInstance(BetaManager.class));
+
+        // Resolution only, without the injector's overhead
+        Resolution<BetaManager> resolution = new DefaultInjectionProvider("ch.jalu.injector", strategy)
+            .safeGet(BetaManager.class);
+        Object[] dependencies = {
+            injector.getSingleton(ProvidedClass.class),
+            injector.getSingleton(GammaService.class),
+            injector.getSingleton(AlphaService.class)};
+        runAndPrint(name + " - instantiateWith (BetaManager)",
+            () -> resolution.instantiateWith(dependencies));
+    }
+
+    private static Injector createInjector(InjectionStrategy strategy) {
+        String rootPackage = "ch.jalu.injector";
+        List<Handler> handlers = InjectorBuilder.createDefaultHandlers(rootPackage);
+        handlers.replaceAll(handler -> handler instanceof DefaultInjectionProvider
+            ? new DefaultInjectionProvider(rootPackage, strategy)
+            : handler);
+        return new InjectorBuilder().addHandlers(handlers).create();
+    }
+
+    private static void runAndPrint(String description, Runnable creation) {
+        for (int i = 0; i < WARM_UP_ITERATIONS; ++i) {
+            creation.run();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; ++i) {
+            creation.run();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        System.out.printf("  %-55s %6d ms (%.1f ns/op)%n", description,
+            TimeUnit.NANOSECONDS.toMillis(elapsedNanos), (double) elapsedNanos / MEASURED_ITERATIONS);
+    }
+}
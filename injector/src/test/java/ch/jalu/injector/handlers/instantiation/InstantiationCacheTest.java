@@ -2,29 +2,31 @@ package ch.jalu.injector.handlers.instantiation;
 
 import ch.jalu.injector.Injector;
 import ch.jalu.injector.InjectorBuilder;
+import ch.jalu.injector.context.ObjectIdentifier;
+import ch.jalu.injector.context.ResolutionContext;
+import ch.jalu.injector.context.StandardResolutionType;
 import ch.jalu.injector.handlers.Handler;
 import ch.jalu.injector.samples.AlphaService;
 import ch.jalu.injector.samples.BetaManager;
 import ch.jalu.injector.samples.GammaService;
 import ch.jalu.injector.samples.ProvidedClass;
-import ch.jalu.injector.utils.ReflectionUtils;
+import ch.jalu.injector.samples.Size;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
 
-import java.lang.ref.WeakReference;
-import java.lang.reflect.Field;
+import java.lang.annotation.Annotation;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
-import static org.hamcrest.Matchers.aMapWithSize;
-import static org.hamcrest.Matchers.anEmptyMap;
+import static ch.jalu.injector.context.StandardResolutionType.REQUEST_SCOPED;
+import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.internal.verification.VerificationModeFactory.times;
@@ -34,6 +36,11 @@ import static org.mockito.internal.verification.VerificationModeFactory.times;
  */
 public class InstantiationCacheTest {
 
+    @Size("small")
+    private static Object smallField;
+    @Size("large")
+    private static Object largeField;
+
     private Injector injector;
     private DefaultInjectionProvider defaultInjectionProvider;
     private InstantiationCache instantiationCache;
@@ -41,8 +48,6 @@ public class InstantiationCacheTest {
     @Before
     public void setUpInjector() {
         List<Handler> handlers = InjectorBuilder.createDefaultHandlers("ch.jalu.injector.samples");
-        InstantiationCache instantiationCache = new InstantiationCache();
-        handlers.add(0, instantiationCache);
 
         List<Handler> handlerSpies = new ArrayList<>(handlers.size());
         for (Handler handler : handlers) {
@@ -65,7 +70,7 @@ public class InstantiationCacheTest {
         injector.getSingleton(AlphaService.class);
 
         // when / then
-        assertThat(getCacheMap(), anEmptyMap());
+        assertThat(instantiationCache.size(), equalTo(0));
     }
 
     @Test
@@ -81,18 +86,131 @@ public class InstantiationCacheTest {
 
         // then
         assertThat(manager1, not(sameInstance(manager2)));
-        assertThat(getCacheMap(), aMapWithSize(1));
-        assertThat(getCacheMap().get(BetaManager.class), not(nullValue()));
+        assertThat(instantiationCache.size(), equalTo(1));
+        assertThat(instantiationCache.resolve(newContext(BetaManager.class)), not(nullValue()));
         verify(defaultInjectionProvider, times(1)).safeGet(any(Class.class));
     }
 
-    private Map<Class, WeakReference<Resolution>> getCacheMap() {
+    @Test
+    public void shouldCacheByFullIdentifier() {
+        // given
+        InstantiationCache cache = new InstantiationCache();
+        Resolution<?> smallResolution = mock(Resolution.class);
+        Resolution<?> largeResolution = mock(Resolution.class);
+        cache.postProcess(new Object(), newContext(BetaManager.class, getSize("smallField")), smallResolution);
+        cache.postProcess(new Object(), newContext(BetaManager.class, getSize("largeField")), largeResolution);
+
+        // when
+        Resolution<?> result1 = cache.resolve(newContext(BetaManager.class, getSize("smallField")));
+        Resolution<?> result2 = cache.resolve(newContext(BetaManager.class, getSize("largeField")));
+        Resolution<?> result3 = cache.resolve(newContext(BetaManager.class));
+
+        // then
+        assertThat(result1, sameInstance(smallResolution));
+        assertThat(result2, sameInstance(largeResolution));
+        assertThat(result3, nullValue());
+        assertThat(cache.getHitCount(), equalTo(2L));
+        assertThat(cache.getMissCount(), equalTo(1L));
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedResolution() {
+        // given
+        InstantiationCache cache = new InstantiationCache(InstantiationCache.ReferenceStrength.STRONG, 2);
+        Resolution<?> alphaResolution = mock(Resolution.class);
+        cache.postProcess(new Object(), newContext(AlphaService.class), alphaResolution);
+        cache.postProcess(new Object(), newContext(BetaManager.class), mock(Resolution.class));
+        cache.resolve(newContext(AlphaService.class));
+
+        // when
+        cache.postProcess(new Object(), newContext(GammaService.class), mock(Resolution.class));
+
+        // then
+        assertThat(cache.size(), equalTo(2));
+        assertThat(cache.getEvictionCount(), equalTo(1L));
+        assertThat(cache.resolve(newContext(AlphaService.class)), sameInstance(alphaResolution));
+        assertThat(cache.resolve(newContext(BetaManager.class)), nullValue());
+        assertThat(cache.resolve(newContext(GammaService.class)), not(nullValue()));
+    }
+
+    @Test
+    public void shouldEvictResolutionsInOrderOfLastAccess() {
+        // given
+        InstantiationCache cache = new InstantiationCache(InstantiationCache.ReferenceStrength.STRONG, 3);
+        cache.postProcess(new Object(), newContext(AlphaService.class), mock(Resolution.class));
+        cache.postProcess(new Object(), newContext(BetaManager.class), mock(Resolution.class));
+        cache.postProcess(new Object(), newContext(GammaService.class), mock(Resolution.class));
+        cache.resolve(newContext(AlphaService.class));
+        cache.postProcess(new Object(), newContext(ProvidedClass.class), mock(Resolution.class));
+        cache.resolve(newContext(GammaService.class));
+
+        // when
+        cache.postProcess(new Object(), newContext(String.class), mock(Resolution.class));
+
+        // then
+        assertThat(cache.size(), equalTo(3));
+        assertThat(cache.getEvictionCount(), equalTo(2L));
+        assertThat(cache.resolve(newContext(AlphaService.class)), nullValue());
+        assertThat(cache.resolve(newContext(BetaManager.class)), nullValue());
+        assertThat(cache.resolve(newContext(GammaService.class)), not(nullValue()));
+        assertThat(cache.resolve(newContext(ProvidedClass.class)), not(nullValue()));
+        assertThat(cache.resolve(newContext(String.class)), not(nullValue()));
+    }
+
+    @Test
+    public void shouldKeepFirstResolutionForIdentifier() {
+        // given
+        InstantiationCache cache = new InstantiationCache();
+        Resolution<?> alphaResolution = mock(Resolution.class);
+        cache.postProcess(new Object(), newContext(AlphaService.class), alphaResolution);
+
+        // when
+        cache.postProcess(new Object(), newContext(AlphaService.class), mock(Resolution.class));
+
+        // then
+        assertThat(cache.size(), equalTo(1));
+        assertThat(cache.resolve(newContext(AlphaService.class)), sameInstance(alphaResolution));
+    }
+
+    @Test
+    public void shouldClearCacheWhenProviderIsRegistered() {
+        // given
+        injector.register(ProvidedClass.class, new ProvidedClass(""));
+        injector.getSingleton(GammaService.class);
+        injector.newInstance(BetaManager.class);
+
+        // when
+        injector.registerProvider(AlphaService.class, () -> AlphaService.newInstance(new ProvidedClass("")));
+
+        // then
+        assertThat(instantiationCache.size(), equalTo(0));
+    }
+
+    @Test
+    public void shouldNotCacheSingletonContexts() {
+        // given
+        InstantiationCache cache = new InstantiationCache(InstantiationCache.ReferenceStrength.WEAK, 10);
+        ResolutionContext context = new ResolutionContext(null,
+            new ObjectIdentifier(StandardResolutionType.SINGLETON, BetaManager.class));
+
+        // when
+        cache.postProcess(new Object(), context, mock(Resolution.class));
+
+        // then
+        assertThat(cache.resolve(context), nullValue());
+        assertThat(cache.size(), equalTo(0));
+        assertThat(cache.getMissCount(), equalTo(0L));
+    }
+
+    private static ResolutionContext newContext(Class<?> clazz, Annotation... annotations) {
+        return new ResolutionContext(null, new ObjectIdentifier(REQUEST_SCOPED, clazz, annotations));
+    }
+
+    private static Size getSize(String fieldName) {
         try {
-            Field field = InstantiationCache.class.getDeclaredField("entries");
-            return (Map) ReflectionUtils.getFieldValue(field, instantiationCache);
+            return InstantiationCacheTest.class.getDeclaredField(fieldName).getAnnotation(Size.class);
         } catch (NoSuchFieldException e) {
             throw new IllegalStateException(e);
         }
     }
-
-}
\ No newline at end of file
+}
@@ -0,0 +1,142 @@
+package ch.jalu.injector.handlers.instantiation;
+
+import ch.jalu.injector.exceptions.InjectorReflectionException;
+import ch.jalu.injector.samples.AlphaService;
+import ch.jalu.injector.samples.BetaManager;
+import ch.jalu.injector.samples.ClassWithAnnotations;
+import ch.jalu.injector.samples.FieldInjectionWithAnnotations;
+import ch.jalu.injector.samples.GammaService;
+import ch.jalu.injector.samples.ProvidedClass;
+import ch.jalu.injector.samples.StaticFieldInjection;
+import org.junit.Test;
+
+import javax.inject.Inject;
+import java.lang.reflect.InvocationTargetException;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Test for {@link MethodHandleInjection}.
+ */
+public class MethodHandleInjectionTest {
+
+    private final StandardInjectionProvider provider =
+        new StandardInjectionProvider(StandardInjectionStrategy.METHOD_HANDLES);
+
+    @Test
+    public void shouldInstantiateWithConstructor() {
+        // given
+        Resolution<ClassWithAnnotations> injection = provider.safeGet(ClassWithAnnotations.class);
+        GammaService gammaService = new GammaService(AlphaService.newInstance(new ProvidedClass("")));
+
+        // when
+        ClassWithAnnotations result = injection.instantiateWith(-112, gammaService, 8L);
+
+        // then
+        assertThat(injection, instanceOf(MethodHandleInjection.class));
+        assertThat(result.getSize(), equalTo(-112));
+        assertThat(result.getGammaService(), sameInstance(gammaService));
+        assertThat(result.getDuration(), equalTo(8L));
+    }
+
+    @Test
+    public void shouldInjectFields() {
+        // given
+        Resolution<FieldInjectionWithAnnotations> injection = provider.safeGet(FieldInjectionWithAnnotations.class);
+        BetaManager betaManager = new BetaManager();
+        ClassWithAnnotations classWithAnnotations = mock(ClassWithAnnotations.class);
+
+        // when
+        FieldInjectionWithAnnotations result =
+            injection.instantiateWith(betaManager, 14, 66L, classWithAnnotations);
+
+        // then
+        assertThat(result.getBetaManager(), sameInstance(betaManager));
+        assertThat(result.getSize(), equalTo(14));
+        assertThat(result.getDuration(), equalTo(66L));
+        assertThat(result.getClassWithAnnotations(), sameInstance(classWithAnnotations));
+    }
+
+    @Test
+    public void shouldInjectStaticFields() {
+        // given
+        Resolution<StaticFieldInjection> injection = provider.safeGet(StaticFieldInjection.class);
+        ProvidedClass providedClass = new ProvidedClass("");
+        AlphaService alphaService = AlphaService.newInstance(providedClass);
+
+        // when
+        StaticFieldInjection result = injection.instantiateWith(providedClass, alphaService);
+
+        // then
+        assertThat(result.getProvidedClass(), sameInstance(providedClass));
+        assertThat(StaticFieldInjection.getAlphaService(), sameInstance(alphaService));
+    }
+
+    @Test(expected = InjectorReflectionException.class)
+    public void shouldThrowForInvalidFieldValue() {
+        // given
+        ProvidedClass providedClass = new ProvidedClass("");
+        AlphaService alphaService = AlphaService.newInstance(providedClass);
+        GammaService gammaService = new GammaService(alphaService);
+        Resolution<BetaManager> injection = provider.safeGet(BetaManager.class);
+
+        // when / then
+        // Correct order is provided, gamma, alpha
+        injection.instantiateWith(providedClass, alphaService, gammaService);
+    }
+
+    @Test
+    public void shouldThrowForInvalidConstructorValue() {
+        // given
+        Resolution<ClassWithAnnotations> injection = provider.safeGet(ClassWithAnnotations.class);
+
+        // when
+        try {
+            injection.instantiateWith(-112, "gamma", 8L);
+            fail("Expected exception to be thrown");
+        } catch (InjectorReflectionException e) {
+            // then
+            assertThat(e.getMessage(), containsString("Invalid value for parameter 1"));
+            assertThat(e.getCause(), instanceOf(ClassCastException.class));
+        }
+    }
+
+    @Test
+    public void shouldWrapExceptionOfConstructor() {
+        // given
+        Resolution<ThrowingClass> injection = provider.safeGet(ThrowingClass.class);
+
+        // when
+        try {
+            injection.instantiateWith("test");
+            fail("Expected exception to be thrown");
+        } catch (InjectorReflectionException e) {
+            // then
+            assertThat(e.getCause(), instanceOf(InvocationTargetException.class));
+            assertThat(e.getCause().getCause(), instanceOf(ClassCastException.class));
+        }
+    }
+
+    @Test(expected = InjectorReflectionException.class)
+    public void shouldThrowForNullPrimitiveValue() {
+        // given
+        Resolution<ClassWithAnnotations> injection = provider.safeGet(ClassWithAnnotations.class);
+
+        // when / then
+        injection.instantiateWith(null, null, 8L);
+    }
+
+    public static final class ThrowingClass {
+        @Inject
+        public ThrowingClass(Object value) {
+            // Exception of the constructor which is of the same type as the ones of invalid argument conversions
+            throw new ClassCastException("Cannot cast " + value);
+        }
+    }
+}
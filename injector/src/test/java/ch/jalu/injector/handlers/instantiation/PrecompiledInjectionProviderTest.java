@@ -0,0 +1,117 @@
+package ch.jalu.injector.handlers.instantiation;
+
+import ch.jalu.injector.Injector;
+import ch.jalu.injector.InjectorBuilder;
+import ch.jalu.injector.context.ObjectIdentifier;
+import ch.jalu.injector.context.ResolutionContext;
+import ch.jalu.injector.handlers.Handler;
+import ch.jalu.injector.samples.ProvidedClass;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static ch.jalu.injector.context.StandardResolutionType.SINGLETON;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link PrecompiledInjectionProvider}.
+ */
+public class PrecompiledInjectionProviderTest {
+
+    @Test
+    public void shouldReturnPrecompiledResolution() {
+        // given
+        PrecompiledInjectionProvider provider = new PrecompiledInjectionProvider("ch.jalu.injector",
+            Collections.singletonList(new SampleRegistry()));
+
+        // when
+        Resolution<?> resolution = provider.resolve(newContext(Sample.class));
+        Resolution<?> otherResolution = provider.resolve(newContext(ProvidedClass.class));
+
+        // then
+        assertThat(resolution, instanceOf(SampleResolution.class));
+        assertThat(otherResolution, nullValue());
+    }
+
+    @Test
+    public void shouldNotReturnResolutionForClassOutsideOfRootPackage() {
+        // given
+        PrecompiledInjectionProvider provider = new PrecompiledInjectionProvider("ch.jalu.other",
+            Collections.singletonList(new SampleRegistry()));
+
+        // when
+        Resolution<?> resolution = provider.resolve(newContext(Sample.class));
+
+        // then
+        assertThat(resolution, nullValue());
+    }
+
+    @Test
+    public void shouldCreateObjectWithPrecompiledResolution() {
+        // given
+        List<Handler> handlers = InjectorBuilder.createDefaultHandlers("ch.jalu.injector");
+        handlers.replaceAll(handler -> handler instanceof PrecompiledInjectionProvider
+            ? new PrecompiledInjectionProvider("ch.jalu.injector", Collections.singletonList(new SampleRegistry()))
+            : handler);
+        Injector injector = new InjectorBuilder().addHandlers(handlers).create();
+        ProvidedClass providedClass = new ProvidedClass("");
+        injector.register(ProvidedClass.class, providedClass);
+
+        // when
+        Sample sample = injector.getSingleton(Sample.class);
+
+        // then
+        assertThat(sample.providedClass, sameInstance(providedClass));
+        assertThat(sample.postConstructCalls, equalTo(1));
+    }
+
+    private static ResolutionContext newContext(Class<?> clazz) {
+        return new ResolutionContext(null, new ObjectIdentifier(SINGLETON, clazz));
+    }
+
+    public static final class Sample {
+        private final ProvidedClass providedClass;
+        private int postConstructCalls;
+
+        Sample(ProvidedClass providedClass) {
+            this.providedClass = providedClass;
+        }
+    }
+
+    /** Resolution as generated by the annotation processor. */
+    private static final class SampleResolution implements PrecompiledResolution<Sample> {
+
+        @Override
+        public Class<Sample> getType() {
+            return Sample.class;
+        }
+
+        @Override
+        public void invokePostConstructMethods(Sample object) {
+            ++object.postConstructCalls;
+        }
+
+        @Override
+        public List<ObjectIdentifier> getDependencies() {
+            return Collections.singletonList(PrecompiledDependencies.of(ProvidedClass.class));
+        }
+
+        @Override
+        public Sample instantiateWith(Object... values) {
+            return new Sample((ProvidedClass) values[0]);
+        }
+    }
+
+    private static final class SampleRegistry implements PrecompiledInjectionRegistry {
+
+        @Override
+        public <T> PrecompiledResolution<T> getResolution(Class<T> clazz) {
+            return clazz == Sample.class ? (PrecompiledResolution<T>) new SampleResolution() : null;
+        }
+    }
+}
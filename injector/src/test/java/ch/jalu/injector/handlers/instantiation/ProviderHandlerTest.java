@@ -210,6 +210,60 @@ public class ProviderHandlerTest {
         assertThat(cwip.getBravo(), sameInstance(bravo));
     }
 
+    @Test
+    public void shouldReturnSameDependenciesOfProviderClassInstantiation() {
+        // given
+        providerHandler.onProviderClass(Delta.class, Delta2Provider.class);
+        Resolution<?> resolution = providerHandler.resolve(newContext(Delta.class));
+
+        // when
+        List<ObjectIdentifier> dependencies1 = resolution.getDependencies();
+        List<ObjectIdentifier> dependencies2 = resolution.getDependencies();
+
+        // then
+        assertThat(dependencies2, sameInstance(dependencies1));
+        assertThat(dependencies1.get(0).getType(), equalTo(Delta2Provider.class));
+    }
+
+    @Test
+    public void shouldUseProviderSingletonDirectlyOnceCreated() {
+        // given
+        providerHandler.onProviderClass(Delta.class, Delta2Provider.class);
+        Delta2Provider provider = new Delta2Provider(mock(Charlie.class));
+        Resolution<?> resolution = providerHandler.resolve(newContext(Delta.class));
+        List<ObjectIdentifier> dependenciesBefore = resolution.getDependencies();
+
+        // when
+        Object delta1 = resolution.instantiateWith(provider);
+        Object delta2 = resolution.instantiateWith();
+
+        // then
+        assertThat(dependenciesBefore, hasSize(1));
+        assertThat(resolution.getDependencies(), empty());
+        assertThat(delta1, instanceOf(Delta2.class));
+        assertThat(delta2, instanceOf(Delta2.class));
+        assertThat(providerHandler.resolve(newContext(Delta.class)).getDependencies(), empty());
+    }
+
+    @Test
+    public void shouldKeepProviderClassInstantiationPerInjector() {
+        // given
+        providerHandler.onProviderClass(Delta.class, Delta2Provider.class);
+        Injector injector1 = mock(Injector.class);
+        Injector injector2 = mock(Injector.class);
+
+        // when
+        Resolution<?> resolution1 = providerHandler.resolve(newContext(injector1, Delta.class));
+        Resolution<?> resolution2 = providerHandler.resolve(newContext(injector2, Delta.class));
+        Resolution<?> resolution1Again = providerHandler.resolve(newContext(injector1, Delta.class));
+        Resolution<?> resolution2Again = providerHandler.resolve(newContext(injector2, Delta.class));
+
+        // then
+        assertThat(resolution1, not(sameInstance(resolution2)));
+        assertThat(resolution1Again, sameInstance(resolution1));
+        assertThat(resolution2Again, sameInstance(resolution2));
+    }
+
     @Test
     public void shouldThrowForMissingGenericInfo() {
         // given
@@ -245,6 +299,10 @@ public class ProviderHandlerTest {
     }
 
     private static ResolutionContext newContext(Class<?> clz) {
-        return new ResolutionContext(null, new ObjectIdentifier(null, clz));
+        return newContext(null, clz);
+    }
+
+    private static ResolutionContext newContext(Injector injector, Class<?> clz) {
+        return new ResolutionContext(injector, new ObjectIdentifier(null, clz));
     }
 }
@@ -82,12 +82,12 @@ public class StandardInjectionTest {
 
         // then
         assertThat(dependencies, hasSize(4));
-        assertDependencyEqualTo(dependencies.get(0), BetaManager.class, Inject.class);
-        assertDependencyEqualTo(dependencies.get(1), int.class, Inject.class, Size.class);
-        assertDependencyEqualTo(dependencies.get(2), long.class, Duration.class, Inject.class);
-        assertDependencyEqualTo(dependencies.get(3), ClassWithAnnotations.class, Inject.class);
+        assertDependencyEqualTo(dependencies.get(0), BetaManager.class);
+        assertDependencyEqualTo(dependencies.get(1), int.class, Size.class);
+        assertDependencyEqualTo(dependencies.get(2), long.class, Duration.class);
+        assertDependencyEqualTo(dependencies.get(3), ClassWithAnnotations.class);
 
-        assertThat(((Size) dependencies.get(1).getAnnotations().get(1)).value(), equalTo("chest"));
+        assertThat(((Size) dependencies.get(1).getAnnotations().get(0)).value(), equalTo("chest"));
     }
 
     @Test
@@ -140,8 +140,8 @@ public class StandardInjectionTest {
         // then
         assertThat(dependencies, hasSize(3));
         assertDependencyEqualTo(dependencies.get(0), ProvidedClass.class);
-        assertDependencyEqualTo(dependencies.get(1), GammaService.class, Inject.class);
-        assertDependencyEqualTo(dependencies.get(2), BetaManager.class, Inject.class);
+        assertDependencyEqualTo(dependencies.get(1), GammaService.class);
+        assertDependencyEqualTo(dependencies.get(2), BetaManager.class);
     }
 
     @Test
@@ -197,6 +197,22 @@ public class StandardInjectionTest {
         injection.instantiateWith(providedClass, alphaService, gammaService);
     }
 
+    @Test
+    public void shouldCreateResolutionWithGivenStrategy() {
+        // given
+        StandardInjectionProvider reflectionProvider =
+            new StandardInjectionProvider(StandardInjectionStrategy.REFLECTION);
+        ProvidedClass providedClass = new ProvidedClass("");
+
+        // when
+        Resolution<AlphaService> injection = reflectionProvider.safeGet(AlphaService.class);
+        AlphaService alphaService = injection.instantiateWith(providedClass);
+
+        // then
+        assertThat(injection.getClass(), equalTo(StandardInjection.class));
+        assertThat(alphaService.getProvidedClass(), equalTo(providedClass));
+    }
+
     @Test
     public void shouldSupportInjectionOnStaticFields() {
         // given
@@ -204,8 +220,8 @@ public class StandardInjectionTest {
 
         // when / then
         assertThat(injection.getDependencies(), hasSize(2));
-        assertDependencyEqualTo(injection.getDependencies().get(0), ProvidedClass.class, Inject.class);
-        assertDependencyEqualTo(injection.getDependencies().get(1), AlphaService.class, Inject.class);
+        assertDependencyEqualTo(injection.getDependencies().get(0), ProvidedClass.class);
+        assertDependencyEqualTo(injection.getDependencies().get(1), AlphaService.class);
     }
 
     @Test
@@ -0,0 +1,97 @@
+package ch.jalu.injector.handlers.instantiation;
+
+import ch.jalu.injector.samples.AlphaService;
+import ch.jalu.injector.samples.GammaService;
+import ch.jalu.injector.samples.ProvidedClass;
+import org.junit.Test;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.aMapWithSize;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Test for {@link TieredInjectionStrategy}.
+ */
+public class TieredInjectionStrategyTest {
+
+    @Test
+    public void shouldSwitchToHotStrategyAfterThreshold() {
+        // given
+        TieredInjectionStrategy strategy = new TieredInjectionStrategy(3);
+        TieredInjectionStrategy.SwitchListener listener = mock(TieredInjectionStrategy.SwitchListener.class);
+        strategy.addSwitchListener(listener);
+        StandardInjectionProvider provider = new StandardInjectionProvider(strategy);
+        ProvidedClass providedClass = new ProvidedClass("");
+
+        // when
+        Resolution<AlphaService> resolution = provider.safeGet(AlphaService.class);
+        resolution.instantiateWith(providedClass);
+        resolution.instantiateWith(providedClass);
+        boolean isHotBeforeThreshold = strategy.isHot(AlphaService.class);
+        resolution.instantiateWith(providedClass);
+        AlphaService alphaService = resolution.instantiateWith(providedClass);
+
+        // then
+        assertThat(isHotBeforeThreshold, equalTo(false));
+        assertThat(strategy.isHot(AlphaService.class), equalTo(true));
+        assertThat(alphaService.getProvidedClass(), sameInstance(providedClass));
+        verify(listener).onSwitch(AlphaService.class, 3L);
+        assertThat(strategy.getInvocationCounts(), hasEntry(AlphaService.class, 4L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldCountInvocationsPerTypeAcrossResolutions() {
+        // given
+        Resolution<Object> coldResolution = mock(Resolution.class);
+        InjectionStrategy coldStrategy = mock(InjectionStrategy.class);
+        given(coldStrategy.createResolution(any(Constructor.class), anyList())).willReturn(coldResolution);
+        Resolution<Object> hotResolution = mock(Resolution.class);
+        InjectionStrategy hotStrategy = mock(InjectionStrategy.class);
+        given(hotStrategy.createResolution(any(Constructor.class), anyList())).willReturn(hotResolution);
+        TieredInjectionStrategy strategy = new TieredInjectionStrategy(2, coldStrategy, hotStrategy);
+
+        Constructor<GammaService> gammaConstructor = getConstructor(GammaService.class, AlphaService.class);
+        Constructor<AlphaService> alphaConstructor = getConstructor(AlphaService.class, ProvidedClass.class);
+        List<Field> noFields = Collections.emptyList();
+
+        // when
+        strategy.createResolution(gammaConstructor, noFields).instantiateWith("a");
+        strategy.createResolution(gammaConstructor, noFields).instantiateWith("b");
+        strategy.createResolution(gammaConstructor, noFields).instantiateWith("c");
+        strategy.createResolution(alphaConstructor, noFields).instantiateWith("d");
+
+        // then
+        verify(coldStrategy).createResolution(gammaConstructor, noFields);
+        verify(coldStrategy).createResolution(alphaConstructor, noFields);
+        verify(coldResolution, times(3)).instantiateWith(any());
+        verify(hotStrategy).createResolution(gammaConstructor, noFields);
+        verify(hotStrategy, never()).createResolution(alphaConstructor, noFields);
+        verify(hotResolution).instantiateWith("c");
+        assertThat(strategy.getInvocationCounts(), aMapWithSize(2));
+        assertThat(strategy.getInvocationCounts(), hasEntry(GammaService.class, 3L));
+        assertThat(strategy.getInvocationCounts(), hasEntry(AlphaService.class, 1L));
+    }
+
+    private static <T> Constructor<T> getConstructor(Class<T> clazz, Class<?>... parameterTypes) {
+        try {
+            return clazz.getDeclaredConstructor(parameterTypes);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
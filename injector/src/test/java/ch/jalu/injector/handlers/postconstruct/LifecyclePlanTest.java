@@ -0,0 +1,97 @@
+package ch.jalu.injector.handlers.postconstruct;
+
+import ch.jalu.injector.TestUtils.ExceptionCatcher;
+import ch.jalu.injector.exceptions.InjectorReflectionException;
+import ch.jalu.injector.samples.AlphaService;
+import ch.jalu.injector.samples.PostConstructTestClass;
+import ch.jalu.injector.samples.ProvidedClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import javax.annotation.PostConstruct;
+import java.lang.reflect.InvocationTargetException;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link LifecyclePlan}.
+ */
+public class LifecyclePlanTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    private ExceptionCatcher exceptionCatcher = new ExceptionCatcher(expectedException);
+
+    @Test
+    public void shouldReturnNoLifecyclePlanForClassWithoutPostConstruct() {
+        // given / when
+        LifecyclePlan plan = LifecyclePlan.of(AlphaService.class);
+
+        // then
+        assertThat(plan, sameInstance(LifecyclePlan.NONE));
+    }
+
+    @Test
+    public void shouldCreatePlanOnceAndInvokeIt() {
+        // given
+        PostConstructTestClass testClass = new PostConstructTestClass(3, new ProvidedClass(""));
+
+        // when
+        LifecyclePlan plan = LifecyclePlan.of(PostConstructTestClass.class);
+        plan.invoke(testClass);
+
+        // then
+        assertThat(plan, not(sameInstance(LifecyclePlan.NONE)));
+        assertThat(LifecyclePlan.of(PostConstructTestClass.class), sameInstance(plan));
+        assertThat(testClass.wasPostConstructCalled(), equalTo(true));
+    }
+
+    @Test
+    public void shouldWrapExceptionOfPostConstructMethod() {
+        // given
+        LifecyclePlan plan = LifecyclePlan.of(ThrowingPostConstruct.class);
+
+        // when
+        try {
+            plan.invoke(new ThrowingPostConstruct());
+            throw new AssertionError("Expected exception to be thrown");
+        } catch (InjectorReflectionException e) {
+            // then
+            assertThat(e.getMessage(), equalTo("Could not invoke method 'init' for ThrowingPostConstruct"));
+            assertThat(e.getCause(), instanceOf(InvocationTargetException.class));
+            assertThat(e.getCause().getCause(), instanceOf(UnsupportedOperationException.class));
+        }
+    }
+
+    @Test
+    public void shouldThrowForInvalidPostConstructMethod() {
+        // expect
+        exceptionCatcher.expect("@PostConstruct method may not be static or have any parameters");
+
+        // when
+        LifecyclePlan.of(StaticPostConstruct.class);
+    }
+
+    private static final class ThrowingPostConstruct {
+        @PostConstruct
+        private void init() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String toString() {
+            return "ThrowingPostConstruct";
+        }
+    }
+
+    private static final class StaticPostConstruct {
+        @PostConstruct
+        static void init() {
+        }
+    }
+}
@@ -2,6 +2,7 @@ package ch.jalu.injector.handlers.postconstruct;
 
 import ch.jalu.injector.TestUtils.ExceptionCatcher;
 import ch.jalu.injector.annotations.NoMethodScan;
+import ch.jalu.injector.handlers.instantiation.Resolution;
 import ch.jalu.injector.samples.BetaManager;
 import ch.jalu.injector.samples.PostConstructTestClass;
 import ch.jalu.injector.samples.ProvidedClass;
@@ -13,6 +14,8 @@ import javax.annotation.PostConstruct;
 
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
 
 /**
  * Test for {@link PostConstructMethodInvoker}.
@@ -115,6 +118,25 @@ public class PostConstructMethodInvokerTest {
     // ---------------
     // Test classes
     // ---------------
+    @Test
+    public void shouldOnlyPostProcessObjectsOfClassesWithPostConstructMethods() {
+        // given
+        Resolution<?> resolutionWithPostConstruct = newResolution(PostConstructTestClass.class);
+        Resolution<?> resolutionWithoutPostConstruct = newResolution(ProvidedClass.class);
+        Resolution<?> resolutionOfUnknownType = newResolution(null);
+
+        // when / then
+        assertThat(postConstructInvoker.isPostProcessorFor(resolutionWithPostConstruct), equalTo(true));
+        assertThat(postConstructInvoker.isPostProcessorFor(resolutionWithoutPostConstruct), equalTo(false));
+        assertThat(postConstructInvoker.isPostProcessorFor(resolutionOfUnknownType), equalTo(true));
+    }
+
+    private static Resolution<?> newResolution(Class<?> createdType) {
+        Resolution<?> resolution = mock(Resolution.class);
+        doReturn(createdType).when(resolution).getCreatedType();
+        return resolution;
+    }
+
     private static final class WithParams {
         @PostConstruct
         public void invalidPostConstr(BetaManager betaManager) {
@@ -0,0 +1,85 @@
+package ch.jalu.injector.scopes;
+
+import ch.jalu.injector.Injector;
+import ch.jalu.injector.InjectorBuilder;
+import ch.jalu.injector.TestUtils.ExceptionCatcher;
+import ch.jalu.injector.samples.AlphaService;
+import ch.jalu.injector.samples.ProvidedClass;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link PropagatingScope}.
+ */
+public class PropagatingScopeTest {
+
+    private Injector injector;
+    private PropagatingScope scope = new PropagatingScope();
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    private ExceptionCatcher exceptionCatcher = new ExceptionCatcher(expectedException);
+
+    @Before
+    public void setUpInjector() {
+        injector = new InjectorBuilder().addDefaultHandlers("ch.jalu.injector.samples").create();
+        injector.register(ProvidedClass.class, new ProvidedClass(""));
+    }
+
+    @Test
+    public void shouldPropagateToWrappedTasks() throws Exception {
+        // given
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        scope.enter();
+        AlphaService alphaService = injector.get(AlphaService.class, scope);
+
+        // when
+        AlphaService taskAlphaService =
+            executor.submit(scope.wrapCallable(() -> injector.get(AlphaService.class, scope))).get();
+        boolean isActiveAfterTask = executor.submit(scope::isActive).get();
+
+        // then
+        executor.shutdown();
+        scope.exit();
+        assertThat(taskAlphaService, sameInstance(alphaService));
+        assertThat(isActiveAfterTask, equalTo(false));
+    }
+
+    @Test
+    public void shouldNotPropagateToNewThreads() throws Exception {
+        // given
+        scope.enter();
+        AtomicBoolean isActiveInThread = new AtomicBoolean(true);
+
+        // when
+        Thread thread = new Thread(() -> isActiveInThread.set(scope.isActive()));
+        thread.start();
+        thread.join();
+
+        // then
+        scope.exit();
+        assertThat(isActiveInThread.get(), equalTo(false));
+    }
+
+    @Test
+    public void shouldNotAllowWrappedTaskToRequestObjectsAfterExit() throws Exception {
+        // given
+        scope.enter();
+        Runnable task = scope.wrap(() -> injector.get(AlphaService.class, scope));
+        scope.exit();
+
+        // when / then
+        exceptionCatcher.expect("Scope is not active");
+        task.run();
+    }
+}
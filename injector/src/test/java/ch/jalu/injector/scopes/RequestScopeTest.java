@@ -0,0 +1,117 @@
+package ch.jalu.injector.scopes;
+
+import ch.jalu.injector.Injector;
+import ch.jalu.injector.InjectorBuilder;
+import ch.jalu.injector.TestUtils.ExceptionCatcher;
+import ch.jalu.injector.handlers.Handler;
+import ch.jalu.injector.samples.AlphaService;
+import ch.jalu.injector.samples.GammaService;
+import ch.jalu.injector.samples.ProvidedClass;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Test for {@link RequestScope}.
+ */
+public class RequestScopeTest {
+
+    private Injector injector;
+    private RequestScope scope = new RequestScope();
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    private ExceptionCatcher exceptionCatcher = new ExceptionCatcher(expectedException);
+
+    @Before
+    public void setUpInjector() {
+        injector = new InjectorBuilder().addDefaultHandlers("ch.jalu.injector.samples").create();
+        injector.register(ProvidedClass.class, new ProvidedClass(""));
+    }
+
+    @Test
+    public void shouldKeepObjectsWhileScopeIsActive() {
+        // given
+        ScopeStorage storage = scope.enter();
+
+        // when
+        AlphaService alphaService1 = injector.get(AlphaService.class, scope);
+        AlphaService alphaService2 = injector.get(AlphaService.class, scope);
+        GammaService gammaService = injector.get(GammaService.class, scope);
+
+        // then
+        assertThat(alphaService2, sameInstance(alphaService1));
+        assertThat(gammaService, not(sameInstance(injector.getSingleton(GammaService.class))));
+        assertThat(storage.size(), equalTo(2));
+        scope.exit();
+        assertThat(storage.isClosed(), equalTo(true));
+        assertThat(storage.size(), equalTo(0));
+    }
+
+    @Test
+    public void shouldCreateScopedObjectsWithPlan() throws Exception {
+        // given
+        Handler resolutionCounter = mock(Handler.class);
+        Injector injector = new InjectorBuilder()
+            .addHandlers(resolutionCounter)
+            .addDefaultHandlers("ch.jalu.injector.samples")
+            .create();
+        injector.register(ProvidedClass.class, new ProvidedClass(""));
+
+        // when
+        scope.enter();
+        AlphaService alphaService1 = injector.get(AlphaService.class, scope);
+        scope.exit();
+        scope.enter();
+        AlphaService alphaService2 = injector.get(AlphaService.class, scope);
+        scope.exit();
+
+        // then
+        verify(resolutionCounter, times(1)).resolve(argThat(
+            context -> context.getIdentifier().getTypeAsClass() == AlphaService.class));
+        assertThat(alphaService2, not(sameInstance(alphaService1)));
+    }
+
+    @Test
+    public void shouldUseNewStorageWhenScopeIsEnteredAgain() {
+        // given
+        scope.enter();
+        AlphaService alphaService1 = injector.get(AlphaService.class, scope);
+        scope.exit();
+
+        // when
+        scope.enter();
+        AlphaService alphaService2 = injector.get(AlphaService.class, scope);
+        scope.exit();
+
+        // then
+        assertThat(alphaService2, not(sameInstance(alphaService1)));
+    }
+
+    @Test
+    public void shouldThrowForInactiveScope() {
+        // given / when / then
+        exceptionCatcher.expect("Scope is not active");
+        injector.get(AlphaService.class, scope);
+    }
+
+    @Test
+    public void shouldThrowForScopeEnteredTwice() {
+        // given
+        scope.enter();
+
+        // when / then
+        exceptionCatcher.expect("Scope is already active");
+        scope.enter();
+    }
+}
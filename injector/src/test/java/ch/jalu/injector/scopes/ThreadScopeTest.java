@@ -0,0 +1,42 @@
+package ch.jalu.injector.scopes;
+
+import ch.jalu.injector.Injector;
+import ch.jalu.injector.InjectorBuilder;
+import ch.jalu.injector.samples.AlphaService;
+import ch.jalu.injector.samples.ProvidedClass;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link ThreadScope}.
+ */
+public class ThreadScopeTest {
+
+    @Test
+    public void shouldKeepObjectsPerThread() throws Exception {
+        // given
+        Injector injector = new InjectorBuilder().addDefaultHandlers("ch.jalu.injector.samples").create();
+        injector.register(ProvidedClass.class, new ProvidedClass(""));
+        ThreadScope scope = new ThreadScope();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        // when
+        AlphaService alphaService1 = injector.get(AlphaService.class, scope);
+        AlphaService alphaService2 = injector.get(AlphaService.class, scope);
+        AlphaService otherThreadAlphaService = executor.submit(() -> injector.get(AlphaService.class, scope)).get();
+        scope.close();
+        AlphaService alphaService3 = injector.get(AlphaService.class, scope);
+
+        // then
+        executor.shutdown();
+        assertThat(alphaService2, sameInstance(alphaService1));
+        assertThat(otherThreadAlphaService, not(sameInstance(alphaService1)));
+        assertThat(alphaService3, not(sameInstance(alphaService1)));
+    }
+}
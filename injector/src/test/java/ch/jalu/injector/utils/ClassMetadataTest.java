@@ -0,0 +1,112 @@
+package ch.jalu.injector.utils;
+
+import ch.jalu.injector.TestUtils.ExceptionCatcher;
+import ch.jalu.injector.samples.InvalidMultipleInjectConstructors;
+import ch.jalu.injector.samples.inheritance.Child;
+import ch.jalu.injector.samples.inheritance.Grandparent;
+import ch.jalu.injector.samples.inheritance.Parent;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import javax.annotation.PostConstruct;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link ClassMetadata}.
+ */
+public class ClassMetadataTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    private ExceptionCatcher exceptionCatcher = new ExceptionCatcher(expectedException);
+
+    @Test
+    public void shouldReturnSameMetadataForClass() {
+        // given / when
+        ClassMetadata metadata1 = ClassMetadata.of(Child.class);
+        ClassMetadata metadata2 = ClassMetadata.of(Child.class);
+
+        // then
+        assertThat(metadata1, sameInstance(metadata2));
+    }
+
+    @Test
+    public void shouldReturnMetadataOfClassHierarchy() throws NoSuchMethodException, NoSuchFieldException {
+        // given / when
+        ClassMetadata metadata = ClassMetadata.of(Child.class);
+
+        // then
+        Constructor<?> constructor = metadata.getInjectionConstructor();
+        assertThat(constructor.getDeclaringClass(), equalTo(Child.class));
+        assertThat(metadata.getInjectFields(), contains(Parent.class.getDeclaredField("betaManager"),
+            Grandparent.class.getDeclaredField("alphaService"), Grandparent.class.getDeclaredField("betaManager")));
+        assertThat(metadata.getInjectMethods(), empty());
+        assertThat(metadata.getPostConstructMethods(), contains(
+            Parent.class.getDeclaredMethod("init"), Child.class.getDeclaredMethod("initChild")));
+    }
+
+    @Test
+    public void shouldShareFieldsOfParent() {
+        // given / when
+        List<Field> childFields = ClassMetadata.of(ChildWithoutOwnMembers.class).getInjectFields();
+        List<Field> parentFields = ClassMetadata.of(Grandparent.class).getInjectFields();
+
+        // then
+        assertThat(childFields, sameInstance(parentFields));
+    }
+
+    @Test
+    public void shouldThrowForMultipleInjectConstructors() {
+        // given
+        ClassMetadata metadata = ClassMetadata.of(InvalidMultipleInjectConstructors.class);
+
+        // expect
+        exceptionCatcher.expect("may not have multiple @Inject constructors");
+
+        // when
+        metadata.getInjectionConstructor();
+    }
+
+    @Test
+    public void shouldThrowForInvalidPostConstructMethodOfParent() {
+        // given
+        ClassMetadata metadata = ClassMetadata.of(ChildOfInvalidPostConstruct.class);
+        List<Method> injectMethods = metadata.getInjectMethods();
+
+        // expect
+        exceptionCatcher.expect("@PostConstruct method must have return type void");
+
+        // when
+        try {
+            metadata.getPostConstructMethods();
+        } finally {
+            assertThat(injectMethods, empty());
+        }
+    }
+
+    private static final class ChildWithoutOwnMembers extends Grandparent {
+    }
+
+    private static class InvalidPostConstruct {
+        @PostConstruct
+        public int init() {
+            return 3;
+        }
+    }
+
+    private static final class ChildOfInvalidPostConstruct extends InvalidPostConstruct {
+        @PostConstruct
+        public void initChild() {
+        }
+    }
+}